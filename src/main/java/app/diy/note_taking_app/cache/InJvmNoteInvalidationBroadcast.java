@@ -0,0 +1,25 @@
+package app.diy.note_taking_app.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers invalidations to the listeners in the same JVM only, which is
+ * enough for a single node and lets tests run several caches as if they were
+ * on different nodes.
+ */
+public class InJvmNoteInvalidationBroadcast implements NoteInvalidationBroadcast {
+
+	private final List<Consumer<Integer>> listeners = new CopyOnWriteArrayList<>();
+
+	@Override
+	public void publish(Integer noteId) {
+		listeners.forEach(listener -> listener.accept(noteId));
+	}
+
+	@Override
+	public void subscribe(Consumer<Integer> listener) {
+		listeners.add(listener);
+	}
+}
@@ -0,0 +1,96 @@
+package app.diy.note_taking_app.cache;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+import app.diy.note_taking_app.configuration.NoteTakingAppConfigProperties;
+import app.diy.note_taking_app.domain.dto.NoteView;
+import app.diy.note_taking_app.repository.NoteRepository;
+import app.diy.note_taking_app.repository.UserPermissionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Keeps notes with their authors and permissions by note id on this node, so
+ * that requests to a note do not load it from the database every time.
+ * Inexistent notes are never cached, and a note must be invalidated whenever
+ * the note or its permissions are changed. Invalidations are sent to the other
+ * nodes through {@link NoteInvalidationBroadcast}.
+ */
+@Component
+public class NoteDetailCache {
+
+	private static final String CACHE_NAME = "notes";
+
+	private final LoadingCache<Integer, NoteView> cache;
+
+	private final NoteInvalidationBroadcast broadcast;
+
+	public NoteDetailCache(
+			NoteTakingAppConfigProperties ntaProp,
+			NoteRepository noteRepository,
+			UserPermissionRepository userPermissionRepository,
+			NoteInvalidationBroadcast broadcast,
+			MeterRegistry meterRegistry) {
+		NoteTakingAppConfigProperties.NoteCache cacheProp = ntaProp.noteCache();
+
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(cacheProp.maximumSize())
+				.expireAfterWrite(cacheProp.ttl())
+				.recordStats()
+				// null is not cached, so an inexistent note is looked up again next time
+				.build(noteId -> noteRepository.findWithUsersById(noteId)
+						.map(note -> NoteView.of(
+								note,
+								userPermissionRepository.findByNote_IdAndDeletedFlagFalseAndAcceptedFlagTrue(noteId)))
+						.orElse(null));
+		this.broadcast = broadcast;
+		broadcast.subscribe(cache::invalidate);
+		// hit ratio and load duration are published as "cache.*" metrics
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+	}
+
+	public Optional<NoteView> get(Integer noteId) {
+		return Optional.ofNullable(cache.get(noteId));
+	}
+
+	/**
+	 * @return empty if the note is not cached on this node, the note is not
+	 *         loaded
+	 */
+	public Optional<NoteView> getIfPresent(Integer noteId) {
+		return Optional.ofNullable(cache.getIfPresent(noteId));
+	}
+
+	public void invalidate(Integer noteId) {
+		invalidateAll(Set.of(noteId));
+	}
+
+	/**
+	 * Removes the notes from the cache of this node. When called inside a
+	 * transaction, the notes are removed again after commit and the other nodes
+	 * are told only then, so that the previous state loaded by another request
+	 * in the meantime is not kept.
+	 */
+	public void invalidateAll(Collection<Integer> noteIds) {
+		cache.invalidateAll(noteIds);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					noteIds.forEach(broadcast::publish);
+				}
+			});
+		} else {
+			noteIds.forEach(broadcast::publish);
+		}
+	}
+}
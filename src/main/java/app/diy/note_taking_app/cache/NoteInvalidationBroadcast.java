@@ -0,0 +1,24 @@
+package app.diy.note_taking_app.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Tells every node that a note was changed, so that each node evicts the note
+ * from its own {@link NoteDetailCache}.
+ * Replaced by an implementation backed by a message broker when running
+ * several nodes.
+ */
+public interface NoteInvalidationBroadcast {
+
+	/**
+	 * @param noteId id of the note which was changed, sent after the change was
+	 *               committed
+	 */
+	void publish(Integer noteId);
+
+	/**
+	 * @param listener called with the id of every note published by any node,
+	 *                 including this one
+	 */
+	void subscribe(Consumer<Integer> listener);
+}
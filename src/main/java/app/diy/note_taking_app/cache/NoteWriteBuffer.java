@@ -0,0 +1,258 @@
+package app.diy.note_taking_app.cache;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import app.diy.note_taking_app.configuration.NoteTakingAppConfigProperties;
+import app.diy.note_taking_app.domain.dto.AuthenticatedUser;
+import app.diy.note_taking_app.domain.dto.NoteView;
+import app.diy.note_taking_app.domain.dto.request.NoteUpdateRequest;
+import app.diy.note_taking_app.domain.entity.User;
+import app.diy.note_taking_app.exceptions.NoteVersionConflictException;
+import app.diy.note_taking_app.repository.NoteRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Keeps the latest update of each note in memory when
+ * note-taking.note-write-behind.enabled is set, so that successive updates of
+ * the same note are written to the database once.
+ * Buffered updates are written on a timer, on shutdown, and before the note is
+ * read or written in any other way, see
+ * {@link NoteTakingAppConfigProperties.NoteWriteBehind} for how long an
+ * acknowledged update can stay only in memory.
+ */
+@Component
+public class NoteWriteBuffer {
+
+	private final NoteTakingAppConfigProperties.NoteWriteBehind writeBehindProp;
+
+	private final NoteRepository noteRepository;
+
+	private final NoteDetailCache noteDetailCache;
+
+	private final EntityManager entityManager;
+
+	// buffered updates join the transaction of the request that writes them,
+	// so that the request does not hold a second connection, and are buffered
+	// again if it is rolled back
+	private final TransactionTemplate transactionTemplate;
+
+	private final Map<Integer, PendingUpdate> pendingUpdates = new ConcurrentHashMap<>();
+
+	// updates taken out of the buffer whose transaction is not completed yet,
+	// the next update of the note is based on them
+	private final Map<Integer, PendingUpdate> writingUpdates = new ConcurrentHashMap<>();
+
+	public NoteWriteBuffer(
+			NoteTakingAppConfigProperties ntaProp,
+			NoteRepository noteRepository,
+			NoteDetailCache noteDetailCache,
+			EntityManager entityManager,
+			PlatformTransactionManager transactionManager) {
+		this.writeBehindProp = ntaProp.noteWriteBehind();
+		this.noteRepository = noteRepository;
+		this.noteDetailCache = noteDetailCache;
+		this.entityManager = entityManager;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	public boolean isEnabled() {
+		return writeBehindProp.enabled();
+	}
+
+	/**
+	 * Buffers the update, replacing the buffered update of the note if any
+	 *
+	 * @param note            note before the update, ignored if the note already
+	 *                        has a buffered update
+	 * @param request         update of the title and contents
+	 * @param expectedVersion version the client based the update on, or null to
+	 *                        overwrite whatever version is buffered
+	 * @param user            user updating the note
+	 * @return note as acknowledged to the client, or empty if the buffer is full
+	 *         and the update must be written immediately
+	 * @throws NoteVersionConflictException if the note is not at the expected
+	 *                                      version
+	 */
+	public Optional<NoteView> buffer(
+			NoteView note,
+			NoteUpdateRequest request,
+			Long expectedVersion,
+			AuthenticatedUser user) {
+		if (!pendingUpdates.containsKey(note.id())
+				&& pendingUpdates.size() >= writeBehindProp.maximumPendingNotes()) {
+			return Optional.empty();
+		}
+
+		PendingUpdate buffered = pendingUpdates.compute(note.id(), (noteId, pending) -> {
+			PendingUpdate writing = writingUpdates.get(noteId);
+			NoteView base = pending != null ? pending.note() : writing != null ? writing.note() : note;
+			if (expectedVersion != null && expectedVersion != base.version()) {
+				throw new NoteVersionConflictException(
+						"Note was updated to version " + base.version(),
+						base.version());
+			}
+			return new PendingUpdate(
+					base.updated(request.getTitle(), request.getContents(), LocalDateTime.now(), user.getName()),
+					user.getId(),
+					pending != null ? pending.versionIncrement() + 1 : 1,
+					// the update being written is in the database by the time this one is
+					pending != null ? pending.baseVersion() : base.version());
+		});
+		return Optional.of(buffered.note());
+	}
+
+	/**
+	 * Takes the buffered update of the note out of the buffer and writes it, in
+	 * the transaction of the caller if any. The buffer is not locked while the
+	 * update is written, so updates of the same note by other threads are
+	 * buffered meanwhile and written by the next flush.
+	 * The update is dropped if the note was updated in another way or deleted
+	 * since it was buffered, instead of overwriting that update.
+	 *
+	 * @return true if the note had a buffered update
+	 */
+	public boolean flush(Integer noteId) {
+		// moved in one step, so that an update buffered meanwhile is based on it
+		AtomicReference<PendingUpdate> taken = new AtomicReference<>();
+		pendingUpdates.computeIfPresent(noteId, (id, pending) -> {
+			writingUpdates.put(id, pending);
+			taken.set(pending);
+			return null;
+		});
+		PendingUpdate pending = taken.get();
+		if (pending == null) {
+			return false;
+		}
+
+		// buffered again only once, whether the write or the transaction failed
+		AtomicBoolean restored = new AtomicBoolean();
+		Runnable restore = () -> {
+			if (restored.compareAndSet(false, true)) {
+				restore(noteId, pending);
+			}
+		};
+		try {
+			write(noteId, pending, restore);
+		} catch (RuntimeException e) {
+			restore.run();
+			throw e;
+		}
+		return true;
+	}
+
+	/**
+	 * Writes the buffered updates of the notes the user can see, which are the
+	 * notes written by or shared with the user
+	 */
+	public void flushVisibleTo(Integer userId) {
+		flushIf(pending -> userId.equals(pending.note().createdUserId())
+				|| pending.note().sharedUsers().stream().anyMatch(sharedUser -> userId.equals(sharedUser.getUserId())));
+	}
+
+	@Scheduled(fixedDelayString = "#{@'note-taking-app.diy.note_taking_app.configuration.NoteTakingAppConfigProperties'.noteWriteBehind().flushInterval().toMillis()}")
+	@PreDestroy
+	public void flushAll() {
+		flushIf(pending -> true);
+	}
+
+	/**
+	 * Writes every matching note even if some of them fail, the failed ones
+	 * stay buffered and are written next time
+	 */
+	private void flushIf(Predicate<PendingUpdate> condition) {
+		RuntimeException failure = null;
+		for (Map.Entry<Integer, PendingUpdate> entry : pendingUpdates.entrySet()) {
+			if (!condition.test(entry.getValue())) {
+				continue;
+			}
+			try {
+				flush(entry.getKey());
+			} catch (RuntimeException e) {
+				if (failure == null) {
+					failure = e;
+				} else {
+					failure.addSuppressed(e);
+				}
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	private void write(Integer noteId, PendingUpdate pending, Runnable restore) {
+		transactionTemplate.executeWithoutResult(status -> {
+			int updatedCount = noteRepository.updateBufferedNote(
+					noteId,
+					pending.note().title(),
+					pending.note().contents(),
+					pending.versionIncrement(),
+					pending.baseVersion(),
+					pending.note().updatedAt(),
+					entityManager.getReference(User.class, pending.updatedUserId()));
+			noteDetailCache.invalidate(noteId);
+
+			// an update that was not written is dropped, a rollback must not buffer it again
+			if (updatedCount == 0 || !TransactionSynchronizationManager.isSynchronizationActive()) {
+				writingUpdates.remove(noteId, pending);
+				return;
+			}
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int completionStatus) {
+					if (completionStatus == STATUS_COMMITTED) {
+						writingUpdates.remove(noteId, pending);
+					} else {
+						restore.run();
+					}
+				}
+			});
+		});
+	}
+
+	/**
+	 * Buffers an update which was not written again. An update of the note
+	 * buffered or being written in the meantime already has its title and
+	 * contents, so only the version increment is added to it.
+	 */
+	private void restore(Integer noteId, PendingUpdate failed) {
+		writingUpdates.remove(noteId, failed);
+		PendingUpdate newer = writingUpdates.get(noteId);
+		PendingUpdate restored = newer != null
+				? new PendingUpdate(
+						newer.note(),
+						newer.updatedUserId(),
+						failed.versionIncrement(),
+						failed.baseVersion())
+				: failed;
+		pendingUpdates.merge(noteId, restored, (buffered, ignored) -> new PendingUpdate(
+				buffered.note(),
+				buffered.updatedUserId(),
+				buffered.versionIncrement() + failed.versionIncrement(),
+				failed.baseVersion()));
+	}
+
+	/**
+	 * @param note             note as acknowledged to the client
+	 * @param updatedUserId    id of the user who updated the note last
+	 * @param versionIncrement number of updates coalesced into this one
+	 * @param baseVersion      version of the note in the database the updates
+	 *                         were based on
+	 */
+	private record PendingUpdate(NoteView note, Integer updatedUserId, long versionIncrement, long baseVersion) {
+	}
+}
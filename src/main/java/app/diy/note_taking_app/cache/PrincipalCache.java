@@ -0,0 +1,71 @@
+package app.diy.note_taking_app.cache;
+
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+import app.diy.note_taking_app.configuration.NoteTakingAppConfigProperties;
+import app.diy.note_taking_app.domain.dto.AuthenticatedUser;
+import app.diy.note_taking_app.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Keeps the authenticated users by their id, so that the user is not loaded
+ * from the database on every request.
+ * Users who do not exist or are deleted are never cached, and an entry must be
+ * invalidated whenever the user is changed.
+ */
+@Component
+public class PrincipalCache {
+
+	private static final String CACHE_NAME = "principals";
+
+	private final LoadingCache<Integer, AuthenticatedUser> cache;
+
+	public PrincipalCache(
+			NoteTakingAppConfigProperties ntaProp,
+			UserRepository userRepository,
+			MeterRegistry meterRegistry) {
+		NoteTakingAppConfigProperties.PrincipalCache cacheProp = ntaProp.principalCache();
+
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(cacheProp.maximumSize())
+				.expireAfterWrite(cacheProp.ttl())
+				.recordStats()
+				// null is not cached, so an inexistent user is looked up again next time
+				.build(userId -> userRepository.findAuthenticatedUserById(userId).orElse(null));
+		// hit ratio and load duration are published as "cache.*" metrics
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+	}
+
+	public Optional<AuthenticatedUser> get(Integer userId) {
+		return Optional.ofNullable(cache.get(userId));
+	}
+
+	/**
+	 * Removes the user from the cache. When called inside a transaction, the
+	 * user is removed again after commit, so that the previous state loaded by
+	 * another request in the meantime is not kept.
+	 */
+	public void invalidate(Integer userId) {
+		cache.invalidate(userId);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					cache.invalidate(userId);
+				}
+			});
+		}
+	}
+
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+}
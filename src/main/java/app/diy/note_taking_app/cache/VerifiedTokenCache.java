@@ -0,0 +1,110 @@
+package app.diy.note_taking_app.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import app.diy.note_taking_app.configuration.JwtKeyRotatedEvent;
+import app.diy.note_taking_app.configuration.NoteTakingAppConfigProperties;
+import app.diy.note_taking_app.domain.dto.TokenClaims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Keeps JWT tokens whose signature and expiration were already verified, so
+ * that a client sending the same token repeatedly pays for the verification
+ * only once.
+ * Tokens are keyed by their SHA-256 digest and every entry expires at the
+ * latest when the token itself expires.
+ */
+@Component
+public class VerifiedTokenCache {
+
+	private static final String CACHE_NAME = "verifiedTokens";
+
+	private final Cache<String, TokenClaims> cache;
+
+	public VerifiedTokenCache(NoteTakingAppConfigProperties ntaProp, MeterRegistry meterRegistry) {
+		NoteTakingAppConfigProperties.VerifiedTokenCache cacheProp = ntaProp.verifiedTokenCache();
+
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(cacheProp.maximumSize())
+				.expireAfter(new TokenExpiry(cacheProp.maximumTtl()))
+				.recordStats()
+				.build();
+		// hit, miss and eviction counters are published as "cache.*" metrics
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+	}
+
+	public Optional<TokenClaims> get(String token) {
+		return Optional.ofNullable(cache.getIfPresent(digest(token)));
+	}
+
+	public void put(String token, TokenClaims tokenClaims) {
+		cache.put(digest(token), tokenClaims);
+	}
+
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * tokens verified with the previous key must be verified again
+	 */
+	@EventListener(JwtKeyRotatedEvent.class)
+	public void onKeyRotated() {
+		invalidateAll();
+	}
+
+	/**
+	 * raw tokens are never kept on the heap, only their digest is used as a key
+	 */
+	private String digest(String token) {
+		try {
+			return Base64.getEncoder().encodeToString(MessageDigest
+					.getInstance("SHA-256")
+					.digest(token.getBytes(StandardCharsets.US_ASCII)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e.getMessage(), e);
+		}
+	}
+
+	private static class TokenExpiry implements Expiry<String, TokenClaims> {
+
+		private final long maximumTtlNanos;
+
+		TokenExpiry(Duration maximumTtl) {
+			this.maximumTtlNanos = maximumTtl.toNanos();
+		}
+
+		@Override
+		public long expireAfterCreate(String key, TokenClaims value, long currentTime) {
+			long untilExpiration = Duration
+					.between(Instant.now(Clock.systemUTC()), value.getExpiration())
+					.toNanos();
+			return Math.max(0, Math.min(maximumTtlNanos, untilExpiration));
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, TokenClaims value, long currentTime, long currentDuration) {
+			return expireAfterCreate(key, value, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String key, TokenClaims value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
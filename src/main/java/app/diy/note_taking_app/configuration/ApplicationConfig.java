@@ -1,6 +1,7 @@
 package app.diy.note_taking_app.configuration;
 
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
 
 import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
@@ -9,9 +10,11 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
@@ -19,6 +22,7 @@ import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
 
+import app.diy.note_taking_app.domain.entity.User;
 import app.diy.note_taking_app.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 
@@ -28,6 +32,8 @@ public class ApplicationConfig {
 
 	private final UserRepository userRepository;
 
+	private final NoteTakingAppConfigProperties ntaProp;
+
 	@Bean
 	public Jackson2ObjectMapperBuilderCustomizer jsonCustomizer() {
 		String dateFormat = "yyyy/MM/dd";
@@ -43,8 +49,8 @@ public class ApplicationConfig {
 
 	@Bean
 	public UserDetailsService userDetailsService() {
-		// userName(email) as argument for finding a user
-		return username -> userRepository.findByEmail(username)
+		// userName(email) as argument for finding a user, deleted users cannot log in
+		return username -> userRepository.findByEmailAndDeletedFlagFalse(username)
 				.orElseThrow(() -> new UsernameNotFoundException("User was not found"));
 	}
 
@@ -55,9 +61,21 @@ public class ApplicationConfig {
 		authProvider.setUserDetailsService(userDetailsService());
 		// Provide password encoder
 		authProvider.setPasswordEncoder(passwordEncoder());
+		// Re-hash the password on login when it was hashed with an older setting
+		authProvider.setUserDetailsPasswordService(userDetailsPasswordService());
 		return authProvider;
 	}
 
+	@Bean
+	public UserDetailsPasswordService userDetailsPasswordService() {
+		return (userDetails, newPassword) -> {
+			User user = (User) userDetails;
+			userRepository.updatePassword(user.getId(), newPassword);
+			user.setPassword(newPassword);
+			return user;
+		};
+	}
+
 	@Bean
 	public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
 		return config.getAuthenticationManager();
@@ -65,6 +83,13 @@ public class ApplicationConfig {
 
 	@Bean
 	public PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+		BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(ntaProp.passwordHashing().strength());
+		DelegatingPasswordEncoder delegatingEncoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+		// hashes stored before the "{bcrypt}" prefix was introduced
+		delegatingEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+
+		// hashing runs on its own threads, during a login storm at most threads +
+		// queueCapacity request threads wait for it, each for at most maximumWait
+		return new BoundedPasswordEncoder(delegatingEncoder, ntaProp.passwordHashing());
 	}
 }
@@ -0,0 +1,103 @@
+package app.diy.note_taking_app.configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import app.diy.note_taking_app.exceptions.PasswordHashingUnavailableException;
+
+/**
+ * Runs the delegate on a fixed number of threads with a bounded queue, so that
+ * only a limited number of passwords are hashed at the same time.
+ * The calling request thread still waits for the result, so up to threads +
+ * queueCapacity request threads can be waiting at the same time. When every
+ * thread is busy and the queue is full, the call is rejected immediately, and
+ * a call which is not done within maximumWait is cancelled and rejected, so
+ * that a waiting request thread is released in bounded time.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+	private final PasswordEncoder delegate;
+
+	private final NoteTakingAppConfigProperties.PasswordHashing hashingProp;
+
+	private final ThreadPoolExecutor executor;
+
+	public BoundedPasswordEncoder(
+			PasswordEncoder delegate,
+			NoteTakingAppConfigProperties.PasswordHashing hashingProp) {
+		this.delegate = delegate;
+		this.hashingProp = hashingProp;
+		this.executor = new ThreadPoolExecutor(
+				hashingProp.threads(),
+				hashingProp.threads(),
+				0L,
+				TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(hashingProp.queueCapacity()),
+				new CustomizableThreadFactory("password-hashing-"),
+				new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return execute(() -> delegate.encode(rawPassword));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return execute(() -> delegate.matches(rawPassword, encodedPassword));
+	}
+
+	// only parses the stored hash, so it does not need to be offloaded
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return delegate.upgradeEncoding(encodedPassword);
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdown();
+	}
+
+	private <T> T execute(Callable<T> task) {
+		Future<T> future;
+		try {
+			future = executor.submit(task);
+		} catch (RejectedExecutionException e) {
+			throw unavailable(e);
+		}
+
+		try {
+			return future.get(hashingProp.maximumWait().toMillis(), TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			// dropped from the queue if it has not started yet
+			future.cancel(true);
+			throw unavailable(e);
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e.getMessage(), e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+		}
+	}
+
+	private PasswordHashingUnavailableException unavailable(Exception cause) {
+		return new PasswordHashingUnavailableException(
+				"Too many authentication requests, please retry later",
+				hashingProp.retryAfter(),
+				cause);
+	}
+}
@@ -0,0 +1,92 @@
+package app.diy.note_taking_app.configuration;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import app.diy.note_taking_app.exceptions.RequestBodyTooLargeException;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * Reads the body once, so that a filter can inspect it and the controller can
+ * still read it afterwards
+ */
+public class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
+
+	private final byte[] body;
+
+	/**
+	 * @param maximumSize bytes read at most, so that a client cannot make the
+	 *                    server hold an arbitrarily large body in memory
+	 * @throws RequestBodyTooLargeException if the body is larger
+	 */
+	public CachedBodyHttpServletRequest(HttpServletRequest request, int maximumSize) throws IOException {
+		super(request);
+		// rejected without reading anything if the client declared the length
+		if (request.getContentLengthLong() > maximumSize) {
+			throw tooLarge(maximumSize);
+		}
+		byte[] readBytes = request.getInputStream().readNBytes(maximumSize + 1);
+		if (readBytes.length > maximumSize) {
+			throw tooLarge(maximumSize);
+		}
+		this.body = readBytes;
+	}
+
+	public byte[] getBody() {
+		return body;
+	}
+
+	@Override
+	public ServletInputStream getInputStream() {
+		ByteArrayInputStream inputStream = new ByteArrayInputStream(body);
+
+		return new ServletInputStream() {
+			@Override
+			public int read() {
+				return inputStream.read();
+			}
+
+			@Override
+			public boolean isFinished() {
+				return inputStream.available() == 0;
+			}
+
+			@Override
+			public boolean isReady() {
+				return true;
+			}
+
+			// the whole body is already in memory, so it is available at once
+			@Override
+			public void setReadListener(ReadListener readListener) {
+				try {
+					if (!isFinished()) {
+						readListener.onDataAvailable();
+					}
+					readListener.onAllDataRead();
+				} catch (IOException e) {
+					readListener.onError(e);
+				}
+			}
+		};
+	}
+
+	@Override
+	public BufferedReader getReader() {
+		Charset charset = getCharacterEncoding() != null
+				? Charset.forName(getCharacterEncoding())
+				: StandardCharsets.UTF_8;
+		return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+	}
+
+	private static RequestBodyTooLargeException tooLarge(int maximumSize) {
+		return new RequestBodyTooLargeException("Request body must not be larger than " + maximumSize + " bytes");
+	}
+}
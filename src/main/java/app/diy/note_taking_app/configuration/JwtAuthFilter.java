@@ -1,7 +1,9 @@
 package app.diy.note_taking_app.configuration;
 
 import java.io.IOException;
+import java.util.Optional;
 
+import org.springframework.http.HttpMethod;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -9,10 +11,13 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import app.diy.note_taking_app.domain.entity.User;
+import app.diy.note_taking_app.cache.PrincipalCache;
+import app.diy.note_taking_app.cache.VerifiedTokenCache;
+import app.diy.note_taking_app.domain.dto.AuthenticatedUser;
+import app.diy.note_taking_app.domain.dto.TokenClaims;
 import app.diy.note_taking_app.exceptions.UserNotFoundException;
-import app.diy.note_taking_app.repository.UserRepository;
 import app.diy.note_taking_app.service.JwtService;
+import app.diy.note_taking_app.service.TokenRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,7 +29,10 @@ import lombok.RequiredArgsConstructor;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
 	private final JwtService jwtService;
-	private final UserRepository userRepository;
+	private final PrincipalCache principalCache;
+	private final VerifiedTokenCache verifiedTokenCache;
+	private final TokenRevocationService tokenRevocationService;
+	private final NoteTakingAppConfigProperties ntaProp;
 
 	@Override
 	protected void doFilterInternal(
@@ -33,7 +41,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 			@NonNull FilterChain filterChain) throws ServletException, IOException, UserNotFoundException {
 
 		final String authHeader = request.getHeader("Authorization"); // To get authorization from header in request
-		final User user;
+		final AuthenticatedUser user;
 		final String jwtToken;
 
 		// Checking if JWT token exists
@@ -45,16 +53,32 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
 		// Extracting authorization token
 		jwtToken = authHeader.substring(7); // 7 is because "Bearer " is 6 characters, including space
-		// Fetch a user by userId from token
-		user = userRepository
-				.findByIdAndDeletedFlagFalse(Integer.parseInt(jwtService.extractUserId(jwtToken)))
+		// Token which was already verified does not need to be parsed again
+		final Optional<TokenClaims> verifiedClaims = verifiedTokenCache.get(jwtToken);
+		// Otherwise verify and parse the token only once for the whole request
+		final TokenClaims tokenClaims = verifiedClaims.orElseGet(() -> jwtService.parseToken(jwtToken));
+		// Revoked token is treated as no token, revocation is checked in memory
+		if (tokenRevocationService.isRevoked(tokenClaims)) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		// Build the user out of the claims of the access token if allowed,
+		// otherwise fetch the user by userId from token, the database is hit only on cache miss
+		final Optional<AuthenticatedUser> userFromClaims = trustsClaims(request)
+				? jwtService.extractAuthenticatedUser(tokenClaims)
+				: Optional.empty();
+		user = userFromClaims
+				.or(() -> principalCache.get(Integer.parseInt(tokenClaims.getSubject())))
 				.orElseThrow(() -> new UserNotFoundException("User was not found"));
 
 		// Checking if the user is not authenticated
 		// *authenticated user does not have to proceed the process below*
 		if (SecurityContextHolder.getContext().getAuthentication() == null) {
 			// Checking if the token is still valid
-			if (jwtService.isTokenValid(jwtToken, user)) {
+			if (jwtService.isTokenValid(tokenClaims, user)) {
+				if (verifiedClaims.isEmpty()) {
+					verifiedTokenCache.put(jwtToken, tokenClaims);
+				}
 				// Update SecurityContextHolder and send the request Dispatcher Servlet
 				UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
 						user,
@@ -69,4 +93,13 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 		// Call next process of Filter in FilterChain
 		filterChain.doFilter(request, response);
 	}
-}
\ No newline at end of file
+
+	private boolean trustsClaims(HttpServletRequest request) {
+		return switch (ntaProp.principalSource()) {
+			case DATABASE -> false;
+			case CLAIMS -> true;
+			case CLAIMS_FOR_READS -> HttpMethod.GET.matches(request.getMethod())
+					|| HttpMethod.HEAD.matches(request.getMethod());
+		};
+	}
+}
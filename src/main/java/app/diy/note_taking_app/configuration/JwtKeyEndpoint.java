@@ -0,0 +1,47 @@
+package app.diy.note_taking_app.configuration;
+
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Actuator endpoint for rotating the keys for JWT tokens without restarting
+ * the application, only exposed through JMX
+ */
+@Component
+@Endpoint(id = "jwtkeys")
+@RequiredArgsConstructor
+public class JwtKeyEndpoint {
+
+	private final JwtKeyManager jwtKeyManager;
+
+	/**
+	 * @return kid of the active key and every key tokens are verified with, the
+	 *         keys themselves are never exposed
+	 */
+	@ReadOperation
+	public Map<String, Object> keyIds() {
+		JwtKeyRing keyRing = jwtKeyManager.getKeyRing();
+		return Map.of(
+				"activeKeyId", keyRing.activeKeyId(),
+				"keyIds", new TreeSet<>(keyRing.verificationKeys().keySet()));
+	}
+
+	@WriteOperation
+	public void rotate(String keyId, String decodeSecretKey) {
+		jwtKeyManager.rotate(keyId, decodeSecretKey);
+	}
+
+	@DeleteOperation
+	public void retire(@Selector String keyId) {
+		jwtKeyManager.retire(keyId);
+	}
+}
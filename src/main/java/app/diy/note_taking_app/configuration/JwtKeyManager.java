@@ -0,0 +1,181 @@
+package app.diy.note_taking_app.configuration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.Key;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.SignatureException;
+
+/**
+ * Holds the keys for signing JWT tokens and the parser for verifying them.
+ * Both are built once and shared by every request, the built
+ * {@link JwtParser} is immutable and thread-safe.
+ * The parser looks up the key by the kid header of the token, so that tokens
+ * signed with a retired key stay valid after the active key was rotated.
+ * The keys are read from the key ring file if configured and reloaded when the
+ * file is modified, the file is then the only source of the keys and they are
+ * rotated by editing it.
+ * Without the file, HS256 signs with decodeSecretKey and the keys can be
+ * rotated at runtime by {@link #rotate(String, String)}. ES256 requires the file,
+ * as a key pair generated on startup would invalidate every token on restart
+ * and differ between nodes.
+ */
+@Component
+public class JwtKeyManager {
+
+	private final ApplicationEventPublisher eventPublisher;
+
+	private final Path keyRingFile;
+
+	private final SignatureAlgorithm algorithm;
+
+	// key ring and parser are replaced together so that readers never see a mixed pair
+	private volatile KeyMaterial keyMaterial;
+
+	private FileTime keyRingFileModifiedAt;
+
+	public JwtKeyManager(NoteTakingAppConfigProperties ntaProp, ApplicationEventPublisher eventPublisher) {
+		this.eventPublisher = eventPublisher;
+		this.keyRingFile = ntaProp.signingKeys().keyRingFile() != null
+				? Path.of(ntaProp.signingKeys().keyRingFile())
+				: null;
+		this.algorithm = SignatureAlgorithm.valueOf(ntaProp.signingKeys().algorithm().name());
+
+		if (keyRingFile != null) {
+			// fail on startup if the file is missing or broken
+			this.keyMaterial = KeyMaterial.of(readKeyRingFile());
+		} else if (algorithm == SignatureAlgorithm.ES256) {
+			throw new IllegalStateException(
+					"note-taking.signing-keys.key-ring-file must be set to sign tokens with ES256");
+		} else {
+			this.keyMaterial = KeyMaterial.of(JwtKeyRing.hmac(
+					JwtKeyRing.DEFAULT_KEY_ID,
+					Map.of(JwtKeyRing.DEFAULT_KEY_ID, ntaProp.decodeSecretKey())));
+		}
+	}
+
+	public JwtKeyRing getKeyRing() {
+		return keyMaterial.keyRing();
+	}
+
+	public JwtParser getParser() {
+		return keyMaterial.parser();
+	}
+
+	/**
+	 * Sign new tokens with a new key, the previous keys are kept so that tokens
+	 * signed with them are still valid until they expire
+	 *
+	 * @param keyId           kid of the new key
+	 * @param decodeSecretKey Base64 encoded secret key
+	 */
+	public synchronized void rotate(String keyId, String decodeSecretKey) {
+		requireNoKeyRingFile();
+		replace(getKeyRing().withActiveKey(keyId, decodeSecretKey));
+	}
+
+	/**
+	 * Remove a retired key, tokens signed with it are not valid anymore
+	 *
+	 * @param keyId kid of the retired key
+	 */
+	public synchronized void retire(String keyId) {
+		requireNoKeyRingFile();
+		replace(getKeyRing().withoutKey(keyId));
+	}
+
+	/**
+	 * Reload the key ring if the file was modified since it was read last time,
+	 * the current keys are kept if the file cannot be read
+	 */
+	@Scheduled(fixedDelayString = "#{@'note-taking-app.diy.note_taking_app.configuration.NoteTakingAppConfigProperties'.signingKeys().reloadInterval().toMillis()}")
+	public synchronized void reloadKeyRing() {
+		if (keyRingFile == null) {
+			return;
+		}
+
+		try {
+			if (Files.getLastModifiedTime(keyRingFile).equals(keyRingFileModifiedAt)) {
+				return;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to check key ring file " + keyRingFile, e);
+		}
+		replace(readKeyRingFile());
+	}
+
+	// keys changed at runtime would be dropped when the file is reloaded
+	private void requireNoKeyRingFile() {
+		if (keyRingFile != null) {
+			throw new IllegalStateException("Keys are rotated through the key ring file " + keyRingFile);
+		}
+	}
+
+	private void replace(JwtKeyRing keyRing) {
+		keyMaterial = KeyMaterial.of(keyRing);
+		eventPublisher.publishEvent(new JwtKeyRotatedEvent(this));
+	}
+
+	private JwtKeyRing readKeyRingFile() {
+		try {
+			FileTime modifiedAt = Files.getLastModifiedTime(keyRingFile);
+			JwtKeyRing keyRing = JwtKeyRing.read(keyRingFile, algorithm);
+			keyRingFileModifiedAt = modifiedAt;
+			return keyRing;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to read key ring file " + keyRingFile, e);
+		}
+	}
+
+	private record KeyMaterial(JwtKeyRing keyRing, JwtParser parser) {
+
+		static KeyMaterial of(JwtKeyRing keyRing) {
+			return new KeyMaterial(
+					keyRing,
+					Jwts.parserBuilder()
+							.setSigningKeyResolver(new KeyIdResolver(keyRing))
+							// evaluate expiration with the same clock used when generating tokens
+							.setClock(() -> Date.from(Instant.now(Clock.systemUTC())))
+							.build());
+		}
+	}
+
+	/**
+	 * Picks the key by a single map lookup of the kid header
+	 */
+	private static class KeyIdResolver extends SigningKeyResolverAdapter {
+
+		private final JwtKeyRing keyRing;
+
+		KeyIdResolver(JwtKeyRing keyRing) {
+			this.keyRing = keyRing;
+		}
+
+		@Override
+		@SuppressWarnings("rawtypes")
+		public Key resolveSigningKey(JwsHeader header, Claims claims) {
+			Key key = keyRing.verificationKey(header.getKeyId());
+			if (key == null) {
+				throw new SignatureException("Token was signed with unknown key " + header.getKeyId());
+			}
+			return key;
+		}
+	}
+}
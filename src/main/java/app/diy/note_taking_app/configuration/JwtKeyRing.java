@@ -0,0 +1,162 @@
+package app.diy.note_taking_app.configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Immutable set of keys for JWT tokens indexed by their key id (kid).
+ * New tokens are signed with the active key, tokens signed with any of the
+ * keys including retired ones are verified by looking up the kid header of the
+ * token.
+ * With HS256 the same secret signs and verifies, with ES256 only the private
+ * key of the active key is held and tokens are verified with public keys,
+ * which can be published to other services.
+ *
+ * @param algorithm        algorithm every key of the ring is used with
+ * @param activeKeyId      kid of the key signing new tokens
+ * @param signingKey       secret or private key of the active key
+ * @param verificationKeys kid -> secret or public key, both of the active key
+ *                         and retired keys
+ */
+public record JwtKeyRing(
+		SignatureAlgorithm algorithm,
+		String activeKeyId,
+		Key signingKey,
+		Map<String, Key> verificationKeys) {
+
+	/**
+	 * kid of the key given by note-taking.decode-secret-key
+	 */
+	public static final String DEFAULT_KEY_ID = "default";
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	public JwtKeyRing {
+		if (signingKey == null || !verificationKeys.containsKey(activeKeyId)) {
+			throw new IllegalArgumentException("Active key " + activeKeyId + " is not in the key ring");
+		}
+		verificationKeys = Collections.unmodifiableMap(new HashMap<>(verificationKeys));
+	}
+
+	/**
+	 * @param activeKeyId kid of the key signing new tokens
+	 * @param secretKeys  kid -> Base64 encoded secret key
+	 * @return HS256 key ring
+	 */
+	public static JwtKeyRing hmac(String activeKeyId, Map<String, String> secretKeys) {
+		Map<String, Key> verificationKeys = new HashMap<>();
+		secretKeys.forEach((keyId, secretKey) -> verificationKeys.put(keyId, decodeSecretKey(secretKey)));
+		return new JwtKeyRing(
+				SignatureAlgorithm.HS256,
+				activeKeyId,
+				verificationKeys.get(activeKeyId),
+				verificationKeys);
+	}
+
+	/**
+	 * @param activeKeyId kid of the key signing new tokens
+	 * @param privateKey  Base64 encoded PKCS#8 private key of the active key
+	 * @param publicKeys  kid -> Base64 encoded X.509 public key
+	 * @return ES256 key ring
+	 */
+	public static JwtKeyRing ecdsa(String activeKeyId, String privateKey, Map<String, String> publicKeys) {
+		try {
+			KeyFactory keyFactory = KeyFactory.getInstance("EC");
+			Map<String, Key> verificationKeys = new HashMap<>();
+			for (Map.Entry<String, String> publicKey : publicKeys.entrySet()) {
+				verificationKeys.put(publicKey.getKey(), keyFactory.generatePublic(
+						new X509EncodedKeySpec(Decoders.BASE64.decode(publicKey.getValue()))));
+			}
+			return new JwtKeyRing(
+					SignatureAlgorithm.ES256,
+					activeKeyId,
+					privateKey != null
+							? keyFactory.generatePrivate(new PKCS8EncodedKeySpec(Decoders.BASE64.decode(privateKey)))
+							: null,
+					verificationKeys);
+		} catch (GeneralSecurityException e) {
+			throw new IllegalArgumentException("Invalid EC key: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Read the key ring from a JSON file, for HS256 like
+	 * {"activeKeyId":"2024-07","keys":{"2024-07":"...","2024-01":"..."}}
+	 * and for ES256 like
+	 * {"activeKeyId":"2024-07","privateKey":"...","publicKeys":{"2024-07":"...","2024-01":"..."}}
+	 *
+	 * @param file      JSON file holding Base64 encoded keys by kid
+	 * @param algorithm algorithm the keys are used with
+	 * @return key ring
+	 * @throws IOException if the file cannot be read
+	 */
+	public static JwtKeyRing read(Path file, SignatureAlgorithm algorithm) throws IOException {
+		KeyRingFile keyRingFile = OBJECT_MAPPER.readValue(file.toFile(), KeyRingFile.class);
+		return switch (algorithm) {
+			case HS256 -> hmac(keyRingFile.activeKeyId(), keyRingFile.keys());
+			case ES256 -> ecdsa(keyRingFile.activeKeyId(), keyRingFile.privateKey(), keyRingFile.publicKeys());
+			default -> throw new IllegalArgumentException("Unsupported algorithm " + algorithm);
+		};
+	}
+
+	/**
+	 * @param keyId kid header of a token, tokens issued before kid was introduced
+	 *              do not have it and are verified with the active key
+	 * @return key or null if the key is unknown or already removed
+	 */
+	public Key verificationKey(String keyId) {
+		return verificationKeys.get(keyId != null ? keyId : activeKeyId);
+	}
+
+	/**
+	 * @return new key ring signing with the given secret key, the current keys
+	 *         are kept for verification
+	 */
+	public JwtKeyRing withActiveKey(String keyId, String secretKey) {
+		if (algorithm != SignatureAlgorithm.HS256) {
+			throw new IllegalStateException(algorithm + " keys are rotated through the key ring file");
+		}
+		Key key = decodeSecretKey(secretKey);
+		Map<String, Key> keys = new HashMap<>(verificationKeys);
+		keys.put(keyId, key);
+		return new JwtKeyRing(algorithm, keyId, key, keys);
+	}
+
+	/**
+	 * @return new key ring without the given retired key, tokens signed with it
+	 *         are not valid anymore
+	 */
+	public JwtKeyRing withoutKey(String keyId) {
+		if (activeKeyId.equals(keyId)) {
+			throw new IllegalArgumentException("Active key " + keyId + " cannot be removed");
+		}
+		Map<String, Key> keys = new HashMap<>(verificationKeys);
+		keys.remove(keyId);
+		return new JwtKeyRing(algorithm, activeKeyId, signingKey, keys);
+	}
+
+	private static Key decodeSecretKey(String secretKey) {
+		return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+	}
+
+	private record KeyRingFile(
+			String activeKeyId,
+			Map<String, String> keys,
+			String privateKey,
+			Map<String, String> publicKeys) {
+	}
+}
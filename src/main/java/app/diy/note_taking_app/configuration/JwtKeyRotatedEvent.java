@@ -0,0 +1,13 @@
+package app.diy.note_taking_app.configuration;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published when the keys for signing or verifying JWT tokens were replaced
+ */
+public class JwtKeyRotatedEvent extends ApplicationEvent {
+
+	public JwtKeyRotatedEvent(JwtKeyManager source) {
+		super(source);
+	}
+}
@@ -0,0 +1,125 @@
+package app.diy.note_taking_app.configuration;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.diy.note_taking_app.exceptions.RateLimitExceededException;
+import app.diy.note_taking_app.exceptions.RequestBodyTooLargeException;
+import app.diy.note_taking_app.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Throttles login and registration by client IP and by the email in the
+ * request body, before any password is hashed.
+ * The client IP is {@link HttpServletRequest#getRemoteAddr()}, see
+ * {@link NoteTakingAppConfigProperties.LoginRateLimit} for running behind a
+ * proxy.
+ */
+@Component
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+	private static final Set<String> LIMITED_PATHS = Set.of("/v1/auth/authenticate", "/v1/auth/register");
+
+	private final RateLimiter rateLimiter;
+	private final NoteTakingAppConfigProperties.LoginRateLimit rateLimitProp;
+	private final ObjectMapper objectMapper;
+	private final HandlerExceptionResolver resolver;
+	private final Counter ipRejectedCounter;
+	private final Counter emailRejectedCounter;
+
+	public LoginRateLimitFilter(
+			RateLimiter rateLimiter,
+			NoteTakingAppConfigProperties ntaProp,
+			ObjectMapper objectMapper,
+			@Qualifier("handlerExceptionResolver") HandlerExceptionResolver resolver,
+			MeterRegistry meterRegistry) {
+		this.rateLimiter = rateLimiter;
+		this.rateLimitProp = ntaProp.loginRateLimit();
+		this.objectMapper = objectMapper;
+		this.resolver = resolver;
+		this.ipRejectedCounter = rejectedCounter(meterRegistry, "ip");
+		this.emailRejectedCounter = rejectedCounter(meterRegistry, "email");
+	}
+
+	@Override
+	protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+		return !rateLimitProp.enabled()
+				|| !HttpMethod.POST.matches(request.getMethod())
+				|| !LIMITED_PATHS.contains(request.getRequestURI().substring(request.getContextPath().length()));
+	}
+
+	@Override
+	protected void doFilterInternal(
+			@NonNull HttpServletRequest request,
+			@NonNull HttpServletResponse response,
+			@NonNull FilterChain filterChain) throws ServletException, IOException {
+
+		// Checking IP first, so that the body is not read for a flooding client
+		if (!rateLimiter.tryAcquire("ip:" + request.getRemoteAddr(), rateLimitProp.ipLimit(), rateLimitProp.window())) {
+			ipRejectedCounter.increment();
+			reject(request, response);
+			return;
+		}
+
+		CachedBodyHttpServletRequest cachedRequest;
+		try {
+			cachedRequest = new CachedBodyHttpServletRequest(
+					request,
+					(int) rateLimitProp.maximumBodySize().toBytes());
+		} catch (RequestBodyTooLargeException e) {
+			resolver.resolveException(request, response, null, e);
+			return;
+		}
+		String email = extractEmail(cachedRequest.getBody());
+		if (email != null
+				&& !rateLimiter.tryAcquire("email:" + email, rateLimitProp.emailLimit(), rateLimitProp.window())) {
+			emailRejectedCounter.increment();
+			reject(request, response);
+			return;
+		}
+
+		// Call next process of Filter in FilterChain with the body which can be read again
+		filterChain.doFilter(cachedRequest, response);
+	}
+
+	private void reject(HttpServletRequest request, HttpServletResponse response) {
+		resolver.resolveException(
+				request,
+				response,
+				null,
+				new RateLimitExceededException("Too many requests, please retry later", rateLimitProp.window()));
+	}
+
+	// malformed body is left to the controller to reject
+	private String extractEmail(byte[] body) {
+		try {
+			JsonNode email = objectMapper.readTree(body).get("email");
+			return email != null && email.isTextual() ? email.asText().toLowerCase(Locale.ROOT) : null;
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	private static Counter rejectedCounter(MeterRegistry meterRegistry, String key) {
+		return Counter.builder("auth.rate.limit.rejected")
+				.description("Login and registration requests rejected by the rate limiter")
+				.tag("key", key)
+				.register(meterRegistry);
+	}
+}
@@ -0,0 +1,19 @@
+package app.diy.note_taking_app.configuration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import app.diy.note_taking_app.cache.InJvmNoteInvalidationBroadcast;
+import app.diy.note_taking_app.cache.NoteInvalidationBroadcast;
+
+@Configuration
+public class NoteCacheConfiguration {
+
+	// replaced by a bean backed by a message broker when running several nodes
+	@Bean
+	@ConditionalOnMissingBean(NoteInvalidationBroadcast.class)
+	public NoteInvalidationBroadcast noteInvalidationBroadcast() {
+		return new InJvmNoteInvalidationBroadcast();
+	}
+}
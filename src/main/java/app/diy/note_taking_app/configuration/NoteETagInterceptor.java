@@ -0,0 +1,84 @@
+package app.diy.note_taking_app.configuration;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import app.diy.note_taking_app.domain.dto.AuthenticatedUser;
+import app.diy.note_taking_app.service.NoteService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Answers GET of the note list and the note detail with 304 Not Modified if
+ * If-None-Match matches the current ETag. The ETag is built from a few
+ * columns, so the note is neither loaded nor serialized for such requests.
+ * Runs before the controller because the note detail loads the note as a
+ * model attribute before the handler method is called.
+ */
+@Component
+@RequiredArgsConstructor
+public class NoteETagInterceptor implements HandlerInterceptor {
+
+	private static final String NOTE_ID = "noteId";
+
+	private static final String CURSOR = "cursor";
+
+	private static final String SIZE = "size";
+
+	private final NoteService noteService;
+
+	@Override
+	public boolean preHandle(
+			@NonNull HttpServletRequest request,
+			@NonNull HttpServletResponse response,
+			@NonNull Object handler) {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (!HttpMethod.GET.matches(request.getMethod())
+				|| authentication == null
+				|| !(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
+			return true;
+		}
+
+		Optional<String> eTag = getETag(request, user);
+		if (eTag.isEmpty()) {
+			return true;
+		}
+
+		// let clients keep the response but revalidate it on every request
+		response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+		// sets ETag header, and 304 if the client already has the latest response
+		return !new ServletWebRequest(request, response).checkNotModified(eTag.get());
+	}
+
+	@SuppressWarnings("unchecked")
+	private Optional<String> getETag(HttpServletRequest request, AuthenticatedUser user) {
+		Map<String, String> pathVariables = (Map<String, String>) request
+				.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+		try {
+			if (pathVariables == null || !pathVariables.containsKey(NOTE_ID)) {
+				String size = request.getParameter(SIZE);
+				return noteService.getNoteListETag(
+						user.getId(),
+						request.getParameter(CURSOR),
+						size != null ? Integer.valueOf(size) : null);
+			}
+
+			return noteService.getNoteDetailETag(Integer.valueOf(pathVariables.get(NOTE_ID)), user.getId());
+		} catch (NumberFormatException e) {
+			// left to the controller to reject
+			return Optional.empty();
+		}
+	}
+}
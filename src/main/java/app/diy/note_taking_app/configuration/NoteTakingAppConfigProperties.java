@@ -1,7 +1,208 @@
 package app.diy.note_taking_app.configuration;
 
+import java.time.Duration;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
 
 @ConfigurationProperties("note-taking")
-public record NoteTakingAppConfigProperties(String decodeSecretKey) {
+public record NoteTakingAppConfigProperties(
+		String decodeSecretKey,
+		@DefaultValue VerifiedTokenCache verifiedTokenCache,
+		@DefaultValue PrincipalCache principalCache,
+		@DefaultValue TokenLifetime tokenLifetime,
+		@DefaultValue("claims-for-reads") PrincipalSource principalSource,
+		@DefaultValue PasswordHashing passwordHashing,
+		@DefaultValue LoginRateLimit loginRateLimit,
+		@DefaultValue SigningKeys signingKeys,
+		@DefaultValue NoteList noteList,
+		@DefaultValue NoteCache noteCache,
+		@DefaultValue NoteWriteBehind noteWriteBehind,
+		@DefaultValue TokenRevocation tokenRevocation) {
+
+	/**
+	 * Settings of the cache holding JWT tokens which were already verified
+	 *
+	 * @param maximumSize maximum number of tokens kept in the cache
+	 * @param maximumTtl  upper limit of how long a token is kept, an entry is
+	 *                    always evicted once the token is expired
+	 */
+	public record VerifiedTokenCache(
+			@DefaultValue("10000") long maximumSize,
+			@DefaultValue("10m") Duration maximumTtl) {
+	}
+
+	/**
+	 * Settings of the cache holding authenticated users by their id
+	 *
+	 * @param maximumSize maximum number of users kept in the cache, the least
+	 *                    recently used ones are evicted first
+	 * @param ttl         how long a user is kept after being loaded
+	 */
+	public record PrincipalCache(
+			@DefaultValue("10000") long maximumSize,
+			@DefaultValue("1m") Duration ttl) {
+	}
+
+	/**
+	 * Lifetime of the tokens issued on authentication
+	 *
+	 * @param accessTokenTtl  how long a JWT access token is valid, the claims of
+	 *                        the token are trusted during this time
+	 * @param refreshTokenTtl how long a refresh token can be exchanged for a new
+	 *                        access token
+	 */
+	public record TokenLifetime(
+			@DefaultValue("15m") Duration accessTokenTtl,
+			@DefaultValue("30d") Duration refreshTokenTtl) {
+	}
+
+	/**
+	 * Settings of password hashing, which runs on its own bounded executor
+	 *
+	 * @param strength      BCrypt work factor, stored hashes with a lower one are
+	 *                      upgraded on login
+	 * @param threads       number of threads hashing or verifying passwords
+	 * @param queueCapacity number of requests waiting for a thread, further
+	 *                      requests are rejected
+	 * @param retryAfter    value of Retry-After header returned on rejection
+	 * @param maximumWait   how long a request thread waits for its password to
+	 *                      be hashed, including the time in the queue, before
+	 *                      the request is rejected
+	 */
+	public record PasswordHashing(
+			@DefaultValue("10") int strength,
+			@DefaultValue("4") int threads,
+			@DefaultValue("50") int queueCapacity,
+			@DefaultValue("1s") Duration retryAfter,
+			@DefaultValue("2s") Duration maximumWait) {
+	}
+
+	/**
+	 * Settings of the rate limit of login and registration.
+	 * The client IP is the remote address of the connection, behind a proxy or
+	 * load balancer server.forward-headers-strategy must be set so that it is
+	 * taken from the forwarded headers, otherwise every client shares the IP of
+	 * the proxy. It must not be set without a proxy which overwrites those
+	 * headers, as a client could send any IP in them.
+	 *
+	 * @param enabled         whether requests are throttled at all
+	 * @param ipLimit         requests allowed per client IP within the window
+	 * @param emailLimit      requests allowed per email within the window
+	 * @param window          length of the sliding window
+	 * @param maximumKeys     maximum number of IPs and emails counted at the
+	 *                        same time
+	 * @param maximumBodySize larger bodies are rejected without being read, the
+	 *                        body is read into memory to find the email
+	 */
+	public record LoginRateLimit(
+			@DefaultValue("true") boolean enabled,
+			@DefaultValue("20") int ipLimit,
+			@DefaultValue("5") int emailLimit,
+			@DefaultValue("1m") Duration window,
+			@DefaultValue("100000") long maximumKeys,
+			@DefaultValue("8KB") DataSize maximumBodySize) {
+	}
+
+	/**
+	 * Settings of the keys for JWT tokens
+	 *
+	 * @param keyRingFile    JSON file holding the active and retired keys by kid,
+	 *                       if not set decodeSecretKey is the only key
+	 * @param reloadInterval how often the file is checked for modification
+	 * @param algorithm      algorithm tokens are signed with
+	 */
+	public record SigningKeys(
+			String keyRingFile,
+			@DefaultValue("30s") Duration reloadInterval,
+			@DefaultValue("hs256") SigningAlgorithm algorithm) {
+	}
+
+	/**
+	 * Settings of the paginated note list
+	 *
+	 * @param defaultPageSize number of notes returned if the client gives a
+	 *                        cursor without a size, a request with neither
+	 *                        gets every note
+	 * @param maximumPageSize upper limit of the size a client can ask for
+	 * @param previewLength   number of leading characters of the contents
+	 *                        returned for each note, the rest is never read
+	 *                        from the database
+	 */
+	public record NoteList(
+			@DefaultValue("50") int defaultPageSize,
+			@DefaultValue("200") int maximumPageSize,
+			@DefaultValue("200") int previewLength) {
+	}
+
+	/**
+	 * Settings of the cache holding note details by note id on each node
+	 *
+	 * @param maximumSize maximum number of notes kept in the cache, the least
+	 *                    recently used ones are evicted first
+	 * @param ttl         how long a note is kept after being loaded, bounds how
+	 *                    long a renamed author is shown with the previous name
+	 */
+	public record NoteCache(
+			@DefaultValue("10000") long maximumSize,
+			@DefaultValue("5m") Duration ttl) {
+	}
+
+	/**
+	 * Settings of buffering note updates in memory and writing them later, so
+	 * that rapid autosaves of the same note are written to the database once.
+	 * An update is acknowledged before it is written and is lost if the node
+	 * stops without shutting down, so at most flushInterval of updates can be
+	 * lost. Buffered updates are only seen by this node, so it is meant for a
+	 * single node or requests of a note routed to the same node.
+	 *
+	 * @param enabled             whether updates are buffered at all, otherwise
+	 *                            every update is written immediately
+	 * @param flushInterval       how often buffered updates are written
+	 * @param maximumPendingNotes number of notes buffered at the same time,
+	 *                            updates of further notes are written
+	 *                            immediately
+	 */
+	public record NoteWriteBehind(
+			@DefaultValue("false") boolean enabled,
+			@DefaultValue("2s") Duration flushInterval,
+			@DefaultValue("1000") int maximumPendingNotes) {
+	}
+
+	/**
+	 * Settings of sharing revoked tokens between nodes, each node keeps the
+	 * revoked tokens in memory and reads the ones revoked on other nodes from
+	 * the table
+	 *
+	 * @param reloadInterval how often the table is read for new revocations. A
+	 *                       token revoked on another node is accepted by this
+	 *                       node for up to this long
+	 */
+	public record TokenRevocation(
+			@DefaultValue("5s") Duration reloadInterval) {
+	}
+
+	/**
+	 * Algorithm JWT tokens are signed with
+	 */
+	public enum SigningAlgorithm {
+		// shared secret, only this application can verify tokens
+		HS256,
+		// private key signs, tokens can be verified by anyone with the public keys
+		// published as JWKS
+		ES256
+	}
+
+	/**
+	 * Where the principal of an authenticated request comes from
+	 */
+	public enum PrincipalSource {
+		// the user is always loaded, a deleted user is rejected immediately
+		DATABASE,
+		// the verified claims are trusted until the access token expires
+		CLAIMS,
+		// claims for GET and HEAD requests, the user is loaded for writes
+		CLAIMS_FOR_READS
+	}
 }
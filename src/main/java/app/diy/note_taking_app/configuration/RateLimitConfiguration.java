@@ -0,0 +1,22 @@
+package app.diy.note_taking_app.configuration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import app.diy.note_taking_app.ratelimit.RateLimiter;
+import app.diy.note_taking_app.ratelimit.SlidingWindowRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class RateLimitConfiguration {
+
+	// replaced by a bean backed by a shared store when running several nodes
+	@Bean
+	@ConditionalOnMissingBean(RateLimiter.class)
+	public RateLimiter rateLimiter(NoteTakingAppConfigProperties ntaProp, MeterRegistry meterRegistry) {
+		NoteTakingAppConfigProperties.LoginRateLimit rateLimitProp = ntaProp.loginRateLimit();
+
+		return new SlidingWindowRateLimiter(rateLimitProp.maximumKeys(), rateLimitProp.window(), meterRegistry);
+	}
+}
@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -17,6 +18,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import app.diy.note_taking_app.controller.NoteController;
 import lombok.RequiredArgsConstructor;
 
 @Configuration
@@ -25,6 +27,7 @@ import lombok.RequiredArgsConstructor;
 public class SecurityConfiguration {
 
 	private final JwtAuthFilter jwtAuthFilter;
+	private final LoginRateLimitFilter loginRateLimitFilter;
 	private final AuthenticationProvider authenticationProvider;
 	@Autowired
 	@Qualifier("delegatedAuthenticationEntryPoint")
@@ -36,6 +39,8 @@ public class SecurityConfiguration {
 		http
 				.csrf(csrf -> csrf.disable())
 				.authorizeHttpRequests(requests -> requests
+						.requestMatchers("/v1/auth/logout") // only a valid token can be revoked
+						.authenticated()
 						.requestMatchers("/v1/auth/**") // URL patterns as whitelist
 						.permitAll()
 						.anyRequest() // Except URLs in whitelist, other URLs must be authenticated
@@ -47,7 +52,8 @@ public class SecurityConfiguration {
 				.sessionManagement(management -> management // Configure SessionManagement
 						.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
 				.authenticationProvider(authenticationProvider)
-				.addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+				.addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+				.addFilterBefore(loginRateLimitFilter, JwtAuthFilter.class);
 
 		return http.build();
 	}
@@ -56,8 +62,16 @@ public class SecurityConfiguration {
 		CorsConfiguration configuration = new CorsConfiguration();
 		configuration.setAllowedOrigins(Arrays.asList("http://localhost:4000"));
 		configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PATCH"));
-		configuration.setExposedHeaders(Arrays.asList("Authorization", "content-type"));
-		configuration.setAllowedHeaders(Arrays.asList("Authorization", "content-type"));
+		configuration.setExposedHeaders(Arrays.asList(
+				"Authorization",
+				"content-type",
+				NoteController.NEXT_CURSOR_HEADER,
+				HttpHeaders.ETAG));
+		configuration.setAllowedHeaders(Arrays.asList(
+				"Authorization",
+				"content-type",
+				HttpHeaders.IF_NONE_MATCH,
+				HttpHeaders.IF_MATCH));
 		UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
 		source.registerCorsConfiguration("/**", configuration);
 		return source;
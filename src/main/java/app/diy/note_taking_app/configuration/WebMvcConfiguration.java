@@ -0,0 +1,20 @@
+package app.diy.note_taking_app.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import lombok.RequiredArgsConstructor;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfiguration implements WebMvcConfigurer {
+
+	private final NoteETagInterceptor noteETagInterceptor;
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		// note list and note detail
+		registry.addInterceptor(noteETagInterceptor).addPathPatterns("/v1/notes", "/v1/notes/*");
+	}
+}
@@ -0,0 +1,6 @@
+package app.diy.note_taking_app.constant;
+
+public enum NoteEditType {
+	INSERT,
+	DELETE
+}
@@ -1,15 +1,25 @@
 package app.diy.note_taking_app.controller;
 
+import java.time.Duration;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import app.diy.note_taking_app.domain.dto.request.AuthenticationRequest;
+import app.diy.note_taking_app.domain.dto.request.RefreshRequest;
 import app.diy.note_taking_app.domain.dto.request.RegisterRequest;
 import app.diy.note_taking_app.domain.dto.response.AuthenticationResponse;
+import app.diy.note_taking_app.domain.dto.response.JwkSetResponse;
 import app.diy.note_taking_app.service.AuthenticationService;
+import app.diy.note_taking_app.service.JwtService;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -19,6 +29,16 @@ public class AuthenticationController {
 
 	private final AuthenticationService authService;
 
+	private final JwtService jwtService;
+
+	@GetMapping("/jwks")
+	public ResponseEntity<JwkSetResponse> jwks() {
+		// keys are rotated through the key ring file, so verifiers may keep them for a while
+		return ResponseEntity.ok()
+				.cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+				.body(jwtService.getJwkSet());
+	}
+
 	@PostMapping("/register")
 	public AuthenticationResponse register(
 			@RequestBody @Validated RegisterRequest request) {
@@ -30,4 +50,17 @@ public class AuthenticationController {
 			@RequestBody AuthenticationRequest request) {
 		return authService.authenticate(request);
 	}
+
+	@PostMapping("/refresh")
+	public AuthenticationResponse refresh(
+			@RequestBody RefreshRequest request) {
+		return authService.refresh(request);
+	}
+
+	@PostMapping("/logout")
+	public void logout(
+			@RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader,
+			@RequestBody(required = false) RefreshRequest request) {
+		authService.logout(authHeader.substring(7), request); // 7 is the length of "Bearer "
+	}
 }
@@ -2,6 +2,7 @@ package app.diy.note_taking_app.controller;
 
 import java.util.Optional;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -9,14 +10,19 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import app.diy.note_taking_app.domain.dto.AuthenticatedUser;
+import app.diy.note_taking_app.domain.dto.NoteDetailETag;
+import app.diy.note_taking_app.domain.dto.NoteView;
+import app.diy.note_taking_app.domain.dto.request.NotePatchRequest;
 import app.diy.note_taking_app.domain.dto.request.NoteUpdateRequest;
 import app.diy.note_taking_app.domain.dto.response.NoteDetailResponse;
-import app.diy.note_taking_app.domain.entity.Note;
-import app.diy.note_taking_app.domain.entity.User;
+import app.diy.note_taking_app.domain.dto.response.NotePatchResponse;
 import app.diy.note_taking_app.exceptions.InsufficientUserAuthorizationException;
+import app.diy.note_taking_app.exceptions.InvalidNoteVersionException;
 import app.diy.note_taking_app.exceptions.NoteNotFoundException;
 import app.diy.note_taking_app.service.NoteService;
 import app.diy.note_taking_app.service.UserPermissionService;
@@ -31,15 +37,15 @@ public class NoteByIdController {
 	private final UserPermissionService userPermissionService;
 
 	@ModelAttribute
-	public Optional<Note> getUndeletedNote(@PathVariable("noteId") Integer noteId) {
+	public Optional<NoteView> getUndeletedNote(@PathVariable("noteId") Integer noteId) {
 		return noteService.getNote(noteId);
 	}
 
 	@GetMapping
 	public NoteDetailResponse getNoteDetail(
-			Optional<Note> note,
+			Optional<NoteView> note,
 			@PathVariable("noteId") Integer noteId,
-			@AuthenticationPrincipal User user) {
+			@AuthenticationPrincipal AuthenticatedUser user) {
 
 		NoteDetailResponse noteDetail = noteService.getNoteDetail(
 				note.orElseThrow(() -> new NoteNotFoundException("Note was not found")),
@@ -56,23 +62,45 @@ public class NoteByIdController {
 		return noteDetail;
 	}
 
+	/**
+	 * Overwrites the title and contents. With If-Match set to the ETag or the
+	 * version of the note, the update is rejected if the note was updated since
+	 * then, otherwise the last update wins
+	 */
 	@PatchMapping
 	public NoteDetailResponse updateNote(
-			Optional<Note> note,
+			Optional<NoteView> note,
 			@Validated @RequestBody NoteUpdateRequest request,
-			@AuthenticationPrincipal User user) {
-		Note targetNote = validateNoteExistence(note);
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+			@AuthenticationPrincipal AuthenticatedUser user) {
+		NoteView targetNote = validateNoteExistence(note);
+		validateUserAuthorization(user.getId(), targetNote);
+
+		return noteService.update(targetNote, request, toExpectedVersion(ifMatch), user);
+	}
+
+	/**
+	 * Applies insertions and deletions to the contents instead of sending the
+	 * whole contents, the note must still be at the base version of the
+	 * request
+	 */
+	@PatchMapping("/contents")
+	public NotePatchResponse patchContents(
+			Optional<NoteView> note,
+			@Validated @RequestBody NotePatchRequest request,
+			@AuthenticationPrincipal AuthenticatedUser user) {
+		NoteView targetNote = validateNoteExistence(note);
 		validateUserAuthorization(user.getId(), targetNote);
 
-		return noteService.update(targetNote.getId(), request, user);
+		return noteService.patchContents(targetNote, request, user);
 	}
 
 	@PatchMapping("/delete")
-	public void deleteNote(Optional<Note> note, @AuthenticationPrincipal User user) {
-		Note targetNote = validateNoteExistence(note);
+	public void deleteNote(Optional<NoteView> note, @AuthenticationPrincipal AuthenticatedUser user) {
+		NoteView targetNote = validateNoteExistence(note);
 		validateUserAuthorization(user.getId(), targetNote);
 
-		noteService.delete(targetNote, user);
+		noteService.delete(targetNote.id(), user);
 	}
 
 	/**
@@ -83,23 +111,40 @@ public class NoteByIdController {
 	 * @param note
 	 * @exception InsufficientUserAuthorizationException
 	 */
-	private void validateUserAuthorization(Integer userId, Note note) {
-		if (!userId.equals(note.getCreatedUser().getId())
-				&& !userPermissionService.canUpdateNote(note.getId(), userId)) {
+	private void validateUserAuthorization(Integer userId, NoteView note) {
+		if (!userId.equals(note.createdUserId())
+				&& !userPermissionService.canUpdateNote(note.id(), userId)) {
 			throw new InsufficientUserAuthorizationException("Not allowed to update this note");
 		}
 	}
 
 	/**
-	 * if note is present and not deleted, returns {@code Note}, otherwise
+	 * parses If-Match into the version the update is based on, either the ETag
+	 * returned by GET or the version of the note which may be quoted like an
+	 * entity tag
+	 * 
+	 * @param ifMatch value of If-Match, {@code null} or {@code *} for any version
+	 * @return version of the note, or {@code null} for any version
+	 * @throws InvalidNoteVersionException
+	 */
+	private Long toExpectedVersion(String ifMatch) {
+		if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+			return null;
+		}
+		return NoteDetailETag.decode(ifMatch).version();
+	}
+
+	/**
+	 * if note is present and not deleted, returns {@code NoteView}, otherwise
 	 * {@code NoteNotFoundException}
 	 * 
-	 * @param note {@code Optional<Note>} the value could be {@code Optional.empty}
-	 * @return {@code Note}
+	 * @param note {@code Optional<NoteView>} the value could be
+	 *             {@code Optional.empty}
+	 * @return {@code NoteView}
 	 * @throws NoteNotFoundException
 	 */
-	private Note validateNoteExistence(Optional<Note> note) {
-		if (note.isPresent() && !note.get().isDeletedFlag()) {
+	private NoteView validateNoteExistence(Optional<NoteView> note) {
+		if (note.isPresent() && !note.get().deletedFlag()) {
 			return note.get();
 		}
 		throw new NoteNotFoundException("Note was not found");
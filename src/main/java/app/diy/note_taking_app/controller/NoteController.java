@@ -2,15 +2,18 @@ package app.diy.note_taking_app.controller;
 
 import java.util.List;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import app.diy.note_taking_app.domain.dto.AuthenticatedUser;
+import app.diy.note_taking_app.domain.dto.PreviewNotePage;
 import app.diy.note_taking_app.domain.dto.response.NoteDetailResponse;
 import app.diy.note_taking_app.domain.dto.response.PreviewNoteResponse;
-import app.diy.note_taking_app.domain.entity.User;
 import app.diy.note_taking_app.service.NoteService;
 import lombok.RequiredArgsConstructor;
 
@@ -19,15 +22,31 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class NoteController {
 
+	public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
 	private final NoteService noteService;
 
+	/**
+	 * returns a page of notes, the cursor of the next page is given in
+	 * X-Next-Cursor header unless it is the last page. Without cursor and size
+	 * every note is returned, as before the list was paginated
+	 */
 	@GetMapping
-	public List<PreviewNoteResponse> getNoteList(@AuthenticationPrincipal User user) {
-		return noteService.getNoteList(user.getId());
+	public ResponseEntity<List<PreviewNoteResponse>> getNoteList(
+			@AuthenticationPrincipal AuthenticatedUser user,
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "size", required = false) Integer size) {
+		PreviewNotePage page = noteService.getNoteList(user.getId(), cursor, size);
+
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+		if (page.getNextCursor() != null) {
+			response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+		}
+		return response.body(page.getNotes());
 	}
 
 	@PostMapping
-	public NoteDetailResponse creteNote(@AuthenticationPrincipal User user) {
+	public NoteDetailResponse creteNote(@AuthenticationPrincipal AuthenticatedUser user) {
 		return noteService.create(user);
 	}
 }
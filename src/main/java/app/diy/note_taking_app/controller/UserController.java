@@ -6,8 +6,8 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import app.diy.note_taking_app.domain.dto.AuthenticatedUser;
 import app.diy.note_taking_app.domain.dto.response.UserDetailResponse;
-import app.diy.note_taking_app.domain.entity.User;
 import app.diy.note_taking_app.service.UserService;
 import lombok.RequiredArgsConstructor;
 
@@ -19,12 +19,12 @@ public class UserController {
 	private final UserService userService;
 
 	@GetMapping
-	public UserDetailResponse getUser(@AuthenticationPrincipal User user) {
+	public UserDetailResponse getUser(@AuthenticationPrincipal AuthenticatedUser user) {
 		return userService.getUser(user.getId());
 	}
 
 	@PatchMapping("/delete")
-	public void deleteUser(@AuthenticationPrincipal User user) {
+	public void deleteUser(@AuthenticationPrincipal AuthenticatedUser user) {
 		userService.delete(user);
 	}
 }
@@ -0,0 +1,20 @@
+package app.diy.note_taking_app.domain.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class ApiVersionConflictError {
+
+	private String path;
+	private String message;
+	private int statusCode;
+	private LocalDateTime localDateTime;
+	// version the note is at now, to be sent with the retried request
+	private long currentVersion;
+}
@@ -0,0 +1,66 @@
+package app.diy.note_taking_app.domain.dto;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import app.diy.note_taking_app.constant.Role;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Principal of an authenticated request.
+ * Only holds the columns needed for authorization, so neither the password nor
+ * the image of the user is loaded or kept during the request.
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class AuthenticatedUser implements UserDetails {
+
+	Integer id;
+	String name;
+	String email;
+	Role role;
+	boolean deletedFlag;
+
+	@Override
+	public Collection<? extends GrantedAuthority> getAuthorities() {
+		return List.of(new SimpleGrantedAuthority(role.name()));
+	}
+
+	// password is not needed after the user is authenticated by the token
+	@Override
+	public String getPassword() {
+		return null;
+	}
+
+	@Override
+	public String getUsername() {
+		return email;
+	}
+
+	@Override
+	public boolean isAccountNonExpired() {
+		return true;
+	}
+
+	@Override
+	public boolean isAccountNonLocked() {
+		return true;
+	}
+
+	@Override
+	public boolean isCredentialsNonExpired() {
+		return true;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return true;
+	}
+}
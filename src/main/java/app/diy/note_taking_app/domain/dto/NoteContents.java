@@ -0,0 +1,9 @@
+package app.diy.note_taking_app.domain.dto;
+
+/**
+ * Contents of a note with the version they belong to, the base of a patch
+ *
+ * @param version bumped on every update of the title or contents
+ */
+public record NoteContents(String contents, long version) {
+}
@@ -0,0 +1,54 @@
+package app.diy.note_taking_app.domain.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import app.diy.note_taking_app.exceptions.InvalidNoteCursorException;
+
+/**
+ * Position in the note list ordered by updatedAt and id descending, notes
+ * after the position are returned as the next page.
+ * Passed to clients as an opaque Base64url token.
+ *
+ * @param updatedAt updatedAt of the last note of the previous page
+ * @param id        id of the last note of the previous page
+ */
+public record NoteCursor(LocalDateTime updatedAt, Integer id) {
+
+	/**
+	 * position before every note, the latest DATETIME MySQL can store
+	 */
+	public static final NoteCursor FIRST = new NoteCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Integer.MAX_VALUE);
+
+	private static final String SEPARATOR = "|";
+
+	public String encode() {
+		return Base64.getUrlEncoder()
+				.withoutPadding()
+				.encodeToString((updatedAt + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @param cursor token returned by {@link #encode()}, null for the first page
+	 * @return cursor
+	 * @throws InvalidNoteCursorException if the token was not issued by this
+	 *                                    application
+	 */
+	public static NoteCursor decode(String cursor) {
+		if (cursor == null || cursor.isEmpty()) {
+			return FIRST;
+		}
+
+		try {
+			String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			int separatorIndex = decoded.indexOf(SEPARATOR);
+			return new NoteCursor(
+					LocalDateTime.parse(decoded.substring(0, separatorIndex)),
+					Integer.valueOf(decoded.substring(separatorIndex + 1)));
+		} catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+			throw new InvalidNoteCursorException("Cursor is invalid", e);
+		}
+	}
+}
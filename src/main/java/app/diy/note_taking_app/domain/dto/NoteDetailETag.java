@@ -0,0 +1,46 @@
+package app.diy.note_taking_app.domain.dto;
+
+import app.diy.note_taking_app.exceptions.InvalidNoteVersionException;
+
+/**
+ * Strong ETag of the note detail. The version of the note leads the digest, so
+ * that the ETag returned by GET can be given back in If-Match of an update as
+ * the version the client has.
+ *
+ * @param version version of the note
+ * @param digest  digest of the note and its permissions as seen by the user,
+ *                null for the version alone
+ */
+public record NoteDetailETag(long version, String digest) {
+
+	private static final String SEPARATOR = "-";
+
+	public String encode() {
+		return "\"" + version + (digest != null ? SEPARATOR + digest : "") + "\"";
+	}
+
+	/**
+	 * @param eTag ETag returned by {@link #encode()}, or a version with or
+	 *             without quotes
+	 * @return ETag
+	 * @throws InvalidNoteVersionException if the ETag does not start with a
+	 *                                     version
+	 */
+	public static NoteDetailETag decode(String eTag) {
+		String value = eTag.trim();
+		if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+			value = value.substring(1, value.length() - 1);
+		}
+
+		int separatorIndex = value.indexOf(SEPARATOR);
+		try {
+			return separatorIndex < 0
+					? new NoteDetailETag(Long.parseLong(value), null)
+					: new NoteDetailETag(
+							Long.parseLong(value.substring(0, separatorIndex)),
+							value.substring(separatorIndex + 1));
+		} catch (NumberFormatException e) {
+			throw new InvalidNoteVersionException("If-Match must be an ETag or a version of the note", e);
+		}
+	}
+}
@@ -0,0 +1,14 @@
+package app.diy.note_taking_app.domain.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregate of the notes written by a user the ETag of the note list is built
+ * from. Adding a note increases the count, and updating or deleting a note
+ * sets its updatedAt to the time of the change, which becomes the latest one
+ *
+ * @param count         number of notes
+ * @param lastUpdatedAt latest updatedAt of the notes, null if there is no note
+ */
+public record NoteListVersion(Long count, LocalDateTime lastUpdatedAt) {
+}
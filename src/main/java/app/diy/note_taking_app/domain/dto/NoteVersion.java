@@ -0,0 +1,19 @@
+package app.diy.note_taking_app.domain.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columns of a note the ETag of the note detail is built from, the contents
+ * are not read
+ *
+ * @param createdUserId id of the author
+ * @param updatedAt     updated on every update and deletion of the note
+ * @param deletedFlag   true if the note was deleted
+ * @param version       bumped on every update of the title or contents
+ */
+public record NoteVersion(Integer createdUserId, LocalDateTime updatedAt, boolean deletedFlag, long version) {
+
+	public static NoteVersion of(NoteView note) {
+		return new NoteVersion(note.createdUserId(), note.updatedAt(), note.deletedFlag(), note.version());
+	}
+}
@@ -0,0 +1,73 @@
+package app.diy.note_taking_app.domain.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import app.diy.note_taking_app.domain.entity.Note;
+import app.diy.note_taking_app.domain.entity.UserPermission;
+
+/**
+ * Note with the names of its authors and its accepted permissions, the same
+ * for every user. Instances are cached and shared between requests, so they
+ * must not be modified.
+ *
+ * @param version     base version for patches of the contents
+ * @param sharedUsers accepted and undeleted permissions of the note
+ */
+public record NoteView(
+		Integer id,
+		String title,
+		String contents,
+		LocalDateTime createdAt,
+		Integer createdUserId,
+		String createdBy,
+		LocalDateTime updatedAt,
+		String updatedBy,
+		boolean deletedFlag,
+		long version,
+		List<UserAuthorization> sharedUsers) {
+
+	/**
+	 * @param note            note with createdUser and updatedUser loaded
+	 * @param userPermissions accepted and undeleted permissions of the note
+	 */
+	public static NoteView of(Note note, List<UserPermission> userPermissions) {
+		return new NoteView(
+				note.getId(),
+				note.getTitle(),
+				note.getContents(),
+				note.getCreatedAt(),
+				note.getCreatedUser().getId(),
+				note.getCreatedUser().getName(),
+				note.getUpdatedAt(),
+				note.getUpdatedUser().getName(),
+				note.isDeletedFlag(),
+				note.getVersion(),
+				userPermissions.stream()
+						.map(userPermission -> UserAuthorization.builder()
+								.permissionId(userPermission.getId())
+								.userId(userPermission.getUser().getId())
+								.type(userPermission.toPermissionType())
+								.build())
+						.toList());
+	}
+
+	/**
+	 * @return note after the title and contents were updated, at the next
+	 *         version
+	 */
+	public NoteView updated(String title, String contents, LocalDateTime updatedAt, String updatedBy) {
+		return new NoteView(
+				id,
+				title,
+				contents,
+				createdAt,
+				createdUserId,
+				createdBy,
+				updatedAt,
+				updatedBy,
+				deletedFlag,
+				version + 1,
+				sharedUsers);
+	}
+}
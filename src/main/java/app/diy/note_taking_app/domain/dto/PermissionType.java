@@ -1,5 +1,8 @@
 package app.diy.note_taking_app.domain.dto;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.diy.note_taking_app.exceptions.JsonConversionFailureException;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -13,4 +16,16 @@ public class PermissionType {
 
 	private boolean readOnly;
 	private boolean readWrite;
+
+	/**
+	 * @param type JSON stored in user_permissions.type
+	 * @return permission type
+	 */
+	public static PermissionType fromJson(String type) {
+		try {
+			return new ObjectMapper().readValue(type, PermissionType.class);
+		} catch (Exception e) {
+			throw new JsonConversionFailureException(e.getMessage(), e);
+		}
+	}
 }
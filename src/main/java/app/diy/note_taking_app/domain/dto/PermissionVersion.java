@@ -0,0 +1,21 @@
+package app.diy.note_taking_app.domain.dto;
+
+/**
+ * Columns of a permission the ETag of the note detail is built from
+ */
+public record PermissionVersion(Integer id, Integer userId, PermissionType type) {
+
+	/**
+	 * @param type JSON stored in user_permissions.type
+	 */
+	public PermissionVersion(Integer id, Integer userId, String type) {
+		this(id, userId, PermissionType.fromJson(type));
+	}
+
+	public static PermissionVersion of(UserAuthorization userAuthorization) {
+		return new PermissionVersion(
+				userAuthorization.getPermissionId(),
+				userAuthorization.getUserId(),
+				userAuthorization.getType());
+	}
+}
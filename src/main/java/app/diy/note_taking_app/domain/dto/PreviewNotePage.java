@@ -0,0 +1,18 @@
+package app.diy.note_taking_app.domain.dto;
+
+import java.util.List;
+
+import app.diy.note_taking_app.domain.dto.response.PreviewNoteResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class PreviewNotePage {
+
+	private List<PreviewNoteResponse> notes;
+	// null if this is the last page
+	private String nextCursor;
+}
@@ -0,0 +1,27 @@
+package app.diy.note_taking_app.domain.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row of the note list read directly by the query without loading entities
+ *
+ * @param contents       leading characters of the contents up to the preview
+ *                       length
+ * @param truncated      true if the contents are longer than the preview
+ *                       length
+ * @param readWrite      true if the note is shared with the user by at least
+ *                       one permission allowing writing
+ */
+public record PreviewNoteRow(
+		Integer id,
+		String title,
+		String contents,
+		boolean truncated,
+		LocalDateTime createdAt,
+		Integer createdUserId,
+		String createdBy,
+		LocalDateTime updatedAt,
+		String updatedBy,
+		boolean deletedFlag,
+		boolean readWrite) {
+}
@@ -0,0 +1,17 @@
+package app.diy.note_taking_app.domain.dto;
+
+import app.diy.note_taking_app.domain.entity.User;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Result of exchanging a refresh token, the user to issue a new access token
+ * for and the refresh token replacing the exchanged one
+ */
+@Value
+@Builder
+public class RefreshTokenRotation {
+
+	User user;
+	String refreshToken;
+}
@@ -0,0 +1,9 @@
+package app.diy.note_taking_app.domain.dto;
+
+/**
+ * Columns of a permission sharing an undeleted note with a user and of the
+ * note the ETag of the note list is built from, every share, unshare,
+ * permission change and update of the note changes at least one of them
+ */
+public record SharedNoteVersion(Integer permissionId, String type, Integer noteId, long version) {
+}
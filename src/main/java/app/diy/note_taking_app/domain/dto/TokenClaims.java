@@ -0,0 +1,24 @@
+package app.diy.note_taking_app.domain.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Claims of a JWT token whose signature was already verified.
+ * The instance is immutable, so it can be shared between requests.
+ */
+@Value
+@Builder
+public class TokenClaims {
+
+	// "jti" claim, null for tokens issued before it was introduced
+	String tokenId;
+	String subject;
+	Instant issuedAt;
+	Instant expiration;
+	// claims other than jti, subject, issued-at and expiration
+	Map<String, Object> extraClaims;
+}
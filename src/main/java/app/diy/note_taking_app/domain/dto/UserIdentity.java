@@ -0,0 +1,7 @@
+package app.diy.note_taking_app.domain.dto;
+
+/**
+ * Name and email of a user, used to check whether they are already taken
+ */
+public record UserIdentity(String name, String email) {
+}
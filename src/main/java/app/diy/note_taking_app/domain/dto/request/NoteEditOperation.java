@@ -0,0 +1,32 @@
+package app.diy.note_taking_app.domain.dto.request;
+
+import app.diy.note_taking_app.constant.NoteEditType;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Insertion of text or deletion of characters at a position of the contents.
+ * Positions count UTF-16 characters like JavaScript strings and refer to the
+ * contents after the preceding operations of the same patch were applied.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class NoteEditOperation {
+
+	@NotNull(message = "Type is required")
+	private NoteEditType type;
+	@NotNull(message = "Position is required")
+	@PositiveOrZero(message = "Position should be 0 or more")
+	private Integer position;
+	// text to insert, only for INSERT
+	private String text;
+	// number of characters to delete, only for DELETE
+	@PositiveOrZero(message = "Length should be 0 or more")
+	private Integer length;
+}
@@ -0,0 +1,28 @@
+package app.diy.note_taking_app.domain.dto.request;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class NotePatchRequest {
+
+	private static final int OPERATIONS_MAX_SIZE = 1000;
+
+	// version of the note the operations were made on
+	@NotNull(message = "Base version is required")
+	private Long baseVersion;
+	@NotEmpty(message = "Operations are required")
+	@Size(max = OPERATIONS_MAX_SIZE, message = "Operations should be {max} or less")
+	private List<@Valid @NotNull NoteEditOperation> operations;
+}
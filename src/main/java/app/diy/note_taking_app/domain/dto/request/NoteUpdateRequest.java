@@ -13,7 +13,7 @@ import lombok.NoArgsConstructor;
 public class NoteUpdateRequest {
 
 	private static final int TITLE_MAX_SIZE = 255;
-	private static final int CONTENTS_MAX_SIZE = 65535;
+	public static final int CONTENTS_MAX_SIZE = 65535;
 
 	@Size(max = TITLE_MAX_SIZE, message = "Title should be {max} words or less")
 	private String title;
@@ -0,0 +1,22 @@
+package app.diy.note_taking_app.domain.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Public key for verifying JWT tokens in JWK format (RFC 7517)
+ */
+@Data
+@AllArgsConstructor
+@Builder
+public class JsonWebKey {
+
+	private String kty;
+	private String crv;
+	private String kid;
+	private String use;
+	private String alg;
+	private String x;
+	private String y;
+}
@@ -0,0 +1,17 @@
+package app.diy.note_taking_app.domain.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class JwkSetResponse {
+
+	private List<JsonWebKey> keys;
+}
@@ -23,4 +23,6 @@ public class NoteDetailResponse {
 	private LocalDateTime updatedAt;
 	private String updatedBy;
 	private boolean deletedFlag;
+	// base version for patches of the contents
+	private long version;
 }
@@ -0,0 +1,20 @@
+package app.diy.note_taking_app.domain.dto.response;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Result of a patch without the contents, the client already holds them
+ */
+@Data
+@AllArgsConstructor
+@Builder
+public class NotePatchResponse {
+
+	private int id;
+	private long version;
+	private LocalDateTime updatedAt;
+}
@@ -13,7 +13,9 @@ public class PreviewNoteResponse {
 
 	private int id;
 	private String title;
+	// leading characters of the contents, the full contents are returned by the note detail
 	private String contents;
+	private boolean truncated;
 	private LocalDateTime createdAt;
 	private String createdBy;
 	private LocalDateTime updatedAt;
@@ -7,9 +7,11 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -24,7 +26,10 @@ import lombok.experimental.SuperBuilder;
 @ToString(callSuper = true)
 @EqualsAndHashCode(callSuper = false)
 @Entity
-@Table(name = "notes")
+@Table(
+		name = "notes",
+		// keyset pagination of the note list by author
+		indexes = @Index(name = "idx_notes_created_by_updated_at", columnList = "created_by_id, updated_at, id"))
 public class Note extends TimeStampEntity {
 
 	@Id
@@ -38,6 +43,11 @@ public class Note extends TimeStampEntity {
 	@Column(nullable = false)
 	private boolean deletedFlag;
 
+	// optimistic lock, the update queries bump it themselves
+	@Version
+	@Column(nullable = false)
+	private long version;
+
 	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "created_by_id", updatable = false, nullable = false) // FK
 	private User createdUser;
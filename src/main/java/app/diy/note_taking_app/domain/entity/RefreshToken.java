@@ -0,0 +1,58 @@
+package app.diy.note_taking_app.domain.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+@Entity
+@Table(name = "refresh_tokens")
+public class RefreshToken {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Integer id;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "user_id", nullable = false) // FK
+	private User user;
+
+	// SHA-256 digest of the token, the raw token is only known by the client
+	@Column(nullable = false, unique = true)
+	private String tokenHash;
+
+	// every token rotated out of the same login shares the family
+	@Column(nullable = false)
+	private String familyId;
+
+	@Column(nullable = false)
+	private Instant expiresAt;
+
+	// true once the token was exchanged for a new one
+	@Column(nullable = false)
+	private boolean usedFlag;
+
+	@Column(nullable = false)
+	private boolean revokedFlag;
+}
@@ -0,0 +1,42 @@
+package app.diy.note_taking_app.domain.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+@Entity
+@Table(
+		name = "revoked_tokens",
+		indexes = @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revokedAt"))
+public class RevokedToken {
+
+	// "jti" claim of the revoked token, or "user:" + id for every token of a user
+	@Id
+	private String tokenId;
+
+	// the record is not needed anymore once the token itself is expired
+	@Column(nullable = false)
+	private Instant expiresAt;
+
+	// other nodes read the revocations made since they last read the table
+	@Column(nullable = false)
+	private Instant revokedAt;
+}
@@ -16,8 +16,13 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Lob;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -32,14 +37,23 @@ import lombok.experimental.SuperBuilder;
 @ToString(callSuper = true)
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "users")
+@Table(
+		name = "users",
+		indexes = @Index(name = "idx_users_email", columnList = "email"),
+		uniqueConstraints = {
+				@UniqueConstraint(name = User.NAME_UNIQUE_CONSTRAINT, columnNames = "name"),
+				@UniqueConstraint(name = User.ACTIVE_EMAIL_UNIQUE_CONSTRAINT, columnNames = "active_email") })
 public class User extends TimeStampEntity implements UserDetails {
 
+	public static final String NAME_UNIQUE_CONSTRAINT = "uk_users_name";
+
+	public static final String ACTIVE_EMAIL_UNIQUE_CONSTRAINT = "uk_users_active_email";
+
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Integer id;
 
-	@Column(nullable = false, unique = true)
+	@Column(nullable = false)
 	private String name;
 
 	@Column(nullable = false)
@@ -58,6 +72,18 @@ public class User extends TimeStampEntity implements UserDetails {
 	@Column(nullable = false)
 	private boolean deletedFlag;
 
+	// email of an undeleted user and null once deleted, so that the email is
+	// unique among undeleted users while deleted users may share it
+	@Setter(AccessLevel.NONE)
+	@Column(name = "active_email")
+	private String activeEmail;
+
+	@PrePersist
+	@PreUpdate
+	private void updateActiveEmail() {
+		activeEmail = deletedFlag ? null : email;
+	}
+
 	@Override
 	public Collection<? extends GrantedAuthority> getAuthorities() {
 		return List.of(new SimpleGrantedAuthority(role.name()));
@@ -1,18 +1,19 @@
 package app.diy.note_taking_app.domain.entity;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import app.diy.note_taking_app.domain.dto.PermissionType;
-import app.diy.note_taking_app.exceptions.JsonConversionFailureException;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -29,7 +30,10 @@ import lombok.ToString;
 @ToString
 @EqualsAndHashCode
 @Entity
-@Table(name = "user_permissions")
+@Table(
+		name = "user_permissions",
+		// notes shared with the user in the note list
+		indexes = @Index(name = "idx_user_permissions_user_id_note_id", columnList = "user_id, note_id"))
 public class UserPermission {
 
 	@Id
@@ -50,6 +54,12 @@ public class UserPermission {
 	@Column(nullable = false)
 	private String type;
 
+	// readWrite of the type, kept as a column so that queries filter on the
+	// same value the type parses to instead of matching the JSON text
+	@Setter(AccessLevel.NONE)
+	@Column(name = "read_write", nullable = false)
+	private boolean readWrite;
+
 	@Column(nullable = false)
 	private String invitedUserName;
 
@@ -59,11 +69,13 @@ public class UserPermission {
 	@Column(nullable = false)
 	private boolean acceptedFlag;
 
+	@PrePersist
+	@PreUpdate
+	private void updateReadWrite() {
+		readWrite = toPermissionType().isReadWrite();
+	}
+
 	public PermissionType toPermissionType() {
-		try {
-			return new ObjectMapper().readValue(type, PermissionType.class);
-		} catch (Exception e) {
-			throw new JsonConversionFailureException(e.getMessage(), e);
-		}
+		return PermissionType.fromJson(type);
 	}
 }
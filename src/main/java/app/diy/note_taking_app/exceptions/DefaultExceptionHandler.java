@@ -2,7 +2,9 @@ package app.diy.note_taking_app.exceptions;
 
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -13,6 +15,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import app.diy.note_taking_app.domain.dto.ApiError;
 import app.diy.note_taking_app.domain.dto.ApiValidationError;
+import app.diy.note_taking_app.domain.dto.ApiVersionConflictError;
 import app.diy.note_taking_app.domain.dto.ValidationErrorMessage;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -77,6 +80,35 @@ public class DefaultExceptionHandler {
 		return new ResponseEntity<>(apiError, HttpStatus.BAD_REQUEST);
 	}
 
+	/**
+	 * Handling if a username was taken by another registration at the same time
+	 * {@link DuplicateAccountException}
+	 * and returns the cause in the same format as the validation error.
+	 * {@link ApiValidationError}
+	 * HttpStatus code is 400
+	 * 
+	 * @param e       if a unique constraint of a user was violated
+	 * @param request request body
+	 * @return {@code ResponseEntity<ApiValidationError>}
+	 */
+	@ExceptionHandler(DuplicateAccountException.class)
+	public ResponseEntity<ApiValidationError> handleException(
+			DuplicateAccountException e,
+			HttpServletRequest request) {
+
+		ApiValidationError apiError = ApiValidationError.builder()
+				.path(request.getRequestURI())
+				.message(List.of(ValidationErrorMessage.builder()
+						.fieldName(e.getFieldName())
+						.detail(e.getMessage())
+						.build()))
+				.statusCode(HttpStatus.BAD_REQUEST.value())
+				.localDateTime(LocalDateTime.now())
+				.build();
+
+		return new ResponseEntity<>(apiError, HttpStatus.BAD_REQUEST);
+	}
+
 	/**
 	 * Handling if a userName and password didn't match
 	 * {@link BadCredentialsException}
@@ -129,6 +161,32 @@ public class DefaultExceptionHandler {
 		return new ResponseEntity<>(apiError, HttpStatus.FORBIDDEN);
 	}
 
+	/**
+	 * Handling if a refresh token is unknown, expired, revoked or already used
+	 * {@link InvalidRefreshTokenException}
+	 * and returns the detail of the exception.
+	 * {@link ApiError}
+	 * HttpStatus code is 403
+	 * 
+	 * @param e       if a refresh token cannot be exchanged
+	 * @param request request body
+	 * @return {@code ResponseEntity<ApiError>}
+	 */
+	@ExceptionHandler(InvalidRefreshTokenException.class)
+	public ResponseEntity<ApiError> handleException(
+			InvalidRefreshTokenException e,
+			HttpServletRequest request) {
+
+		ApiError apiError = ApiError.builder()
+				.path(request.getRequestURI())
+				.message(e.getMessage())
+				.statusCode(HttpStatus.FORBIDDEN.value())
+				.localDateTime(LocalDateTime.now())
+				.build();
+
+		return new ResponseEntity<>(apiError, HttpStatus.FORBIDDEN);
+	}
+
 	/**
 	 * Handling if a request is prohibited due to the lack of user authorization
 	 * {@link InsufficientUserAuthorizationException}
@@ -208,6 +266,197 @@ public class DefaultExceptionHandler {
 		return new ResponseEntity<>(apiError, HttpStatus.NOT_FOUND);
 	}
 
+	/**
+	 * Handling if a cursor of the note list was not issued by this application
+	 * {@link InvalidNoteCursorException}
+	 * and returns the detail of the exception.
+	 * {@link ApiError}
+	 * HttpStatus code is 400
+	 * 
+	 * @param e       if a cursor cannot be decoded
+	 * @param request request body
+	 * @return {@code ResponseEntity<ApiError>}
+	 */
+	@ExceptionHandler(InvalidNoteCursorException.class)
+	public ResponseEntity<ApiError> handleException(
+			InvalidNoteCursorException e,
+			HttpServletRequest request) {
+
+		ApiError apiError = ApiError.builder()
+				.path(request.getRequestURI())
+				.message(e.getMessage())
+				.statusCode(HttpStatus.BAD_REQUEST.value())
+				.localDateTime(LocalDateTime.now())
+				.build();
+
+		return new ResponseEntity<>(apiError, HttpStatus.BAD_REQUEST);
+	}
+
+	/**
+	 * Handling if operations of a patch cannot be applied to the contents
+	 * {@link InvalidNotePatchException}
+	 * and returns the detail of the exception.
+	 * {@link ApiError}
+	 * HttpStatus code is 400
+	 * 
+	 * @param e       if an operation is out of the contents or incomplete
+	 * @param request request body
+	 * @return {@code ResponseEntity<ApiError>}
+	 */
+	@ExceptionHandler(InvalidNotePatchException.class)
+	public ResponseEntity<ApiError> handleException(
+			InvalidNotePatchException e,
+			HttpServletRequest request) {
+
+		ApiError apiError = ApiError.builder()
+				.path(request.getRequestURI())
+				.message(e.getMessage())
+				.statusCode(HttpStatus.BAD_REQUEST.value())
+				.localDateTime(LocalDateTime.now())
+				.build();
+
+		return new ResponseEntity<>(apiError, HttpStatus.BAD_REQUEST);
+	}
+
+	/**
+	 * Handling if a note was updated since the version a request was based on
+	 * {@link NoteVersionConflictException}
+	 * and returns the detail of the exception with the current version of the
+	 * note.
+	 * {@link ApiVersionConflictError}
+	 * HttpStatus code is 409
+	 * 
+	 * @param e       if the version of a note does not match
+	 * @param request request body
+	 * @return {@code ResponseEntity<ApiVersionConflictError>}
+	 */
+	@ExceptionHandler(NoteVersionConflictException.class)
+	public ResponseEntity<ApiVersionConflictError> handleException(
+			NoteVersionConflictException e,
+			HttpServletRequest request) {
+
+		ApiVersionConflictError apiError = ApiVersionConflictError.builder()
+				.path(request.getRequestURI())
+				.message(e.getMessage())
+				.statusCode(HttpStatus.CONFLICT.value())
+				.localDateTime(LocalDateTime.now())
+				.currentVersion(e.getCurrentVersion())
+				.build();
+
+		return new ResponseEntity<>(apiError, HttpStatus.CONFLICT);
+	}
+
+	/**
+	 * Handling if If-Match of a request is neither an ETag nor a version of a
+	 * note, which can never match the note
+	 * {@link InvalidNoteVersionException}
+	 * and returns the detail of the exception.
+	 * {@link ApiError}
+	 * HttpStatus code is 412
+	 * 
+	 * @param e       if If-Match does not start with a version
+	 * @param request request body
+	 * @return {@code ResponseEntity<ApiError>}
+	 */
+	@ExceptionHandler(InvalidNoteVersionException.class)
+	public ResponseEntity<ApiError> handleException(
+			InvalidNoteVersionException e,
+			HttpServletRequest request) {
+
+		ApiError apiError = ApiError.builder()
+				.path(request.getRequestURI())
+				.message(e.getMessage())
+				.statusCode(HttpStatus.PRECONDITION_FAILED.value())
+				.localDateTime(LocalDateTime.now())
+				.build();
+
+		return new ResponseEntity<>(apiError, HttpStatus.PRECONDITION_FAILED);
+	}
+
+	/**
+	 * Handling if password hashing is saturated and the request was not queued
+	 * {@link PasswordHashingUnavailableException}
+	 * and returns the detail of the exception with Retry-After header.
+	 * {@link ApiError}
+	 * HttpStatus code is 503
+	 * 
+	 * @param e       if password hashing is saturated
+	 * @param request request body
+	 * @return {@code ResponseEntity<ApiError>}
+	 */
+	@ExceptionHandler(PasswordHashingUnavailableException.class)
+	public ResponseEntity<ApiError> handleException(
+			PasswordHashingUnavailableException e,
+			HttpServletRequest request) {
+
+		ApiError apiError = ApiError.builder()
+				.path(request.getRequestURI())
+				.message(e.getMessage())
+				.statusCode(HttpStatus.SERVICE_UNAVAILABLE.value())
+				.localDateTime(LocalDateTime.now())
+				.build();
+
+		return ResponseEntity
+				.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfter().toSeconds()))
+				.body(apiError);
+	}
+
+	/**
+	 * Handling if a client sent too many login or registration requests
+	 * {@link RateLimitExceededException}
+	 * and returns the detail of the exception with Retry-After header.
+	 * {@link ApiError}
+	 * HttpStatus code is 429
+	 * 
+	 * @param e       if a client exceeded the rate limit
+	 * @param request request body
+	 * @return {@code ResponseEntity<ApiError>}
+	 */
+	@ExceptionHandler(RateLimitExceededException.class)
+	public ResponseEntity<ApiError> handleException(
+			RateLimitExceededException e,
+			HttpServletRequest request) {
+
+		ApiError apiError = ApiError.builder()
+				.path(request.getRequestURI())
+				.message(e.getMessage())
+				.statusCode(HttpStatus.TOO_MANY_REQUESTS.value())
+				.localDateTime(LocalDateTime.now())
+				.build();
+
+		return ResponseEntity
+				.status(HttpStatus.TOO_MANY_REQUESTS)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfter().toSeconds()))
+				.body(apiError);
+	}
+
+	/**
+	 * Handling if a login or registration request has a body larger than allowed
+	 * {@link RequestBodyTooLargeException}
+	 * and returns the detail of the exception.
+	 * {@link ApiError}
+	 * HttpStatus code is 413
+	 * 
+	 * @param e       if the body is larger than allowed
+	 * @param request request body
+	 * @return {@code ResponseEntity<ApiError>}
+	 */
+	@ExceptionHandler(RequestBodyTooLargeException.class)
+	public ResponseEntity<ApiError> handleException(
+			RequestBodyTooLargeException e,
+			HttpServletRequest request) {
+
+		ApiError apiError = ApiError.builder()
+				.path(request.getRequestURI())
+				.message(e.getMessage())
+				.statusCode(HttpStatus.PAYLOAD_TOO_LARGE.value())
+				.localDateTime(LocalDateTime.now())
+				.build();
+
+		return new ResponseEntity<>(apiError, HttpStatus.PAYLOAD_TOO_LARGE);
+	}
+
 	/**
 	 * Handling if there is an error thrown during database process of Note
 	 * {@link DatabaseTransactionalException}
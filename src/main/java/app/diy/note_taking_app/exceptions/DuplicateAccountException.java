@@ -0,0 +1,20 @@
+package app.diy.note_taking_app.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class DuplicateAccountException extends RuntimeException {
+
+	// field of the request whose value is already used
+	private final String fieldName;
+
+	public DuplicateAccountException(String fieldName, String message) {
+		super(message);
+		this.fieldName = fieldName;
+	}
+
+	public DuplicateAccountException(String fieldName, String message, Throwable cause) {
+		super(message, cause);
+		this.fieldName = fieldName;
+	}
+}
@@ -0,0 +1,12 @@
+package app.diy.note_taking_app.exceptions;
+
+public class InvalidNoteCursorException extends RuntimeException {
+
+	public InvalidNoteCursorException(String message) {
+		super(message);
+	}
+
+	public InvalidNoteCursorException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -0,0 +1,12 @@
+package app.diy.note_taking_app.exceptions;
+
+public class InvalidNotePatchException extends RuntimeException {
+
+	public InvalidNotePatchException(String message) {
+		super(message);
+	}
+
+	public InvalidNotePatchException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
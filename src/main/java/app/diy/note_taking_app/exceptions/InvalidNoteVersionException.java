@@ -0,0 +1,12 @@
+package app.diy.note_taking_app.exceptions;
+
+public class InvalidNoteVersionException extends RuntimeException {
+
+	public InvalidNoteVersionException(String message) {
+		super(message);
+	}
+
+	public InvalidNoteVersionException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
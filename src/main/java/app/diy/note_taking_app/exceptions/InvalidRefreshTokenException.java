@@ -0,0 +1,12 @@
+package app.diy.note_taking_app.exceptions;
+
+public class InvalidRefreshTokenException extends RuntimeException {
+
+	public InvalidRefreshTokenException(String message) {
+		super(message);
+	}
+
+	public InvalidRefreshTokenException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -0,0 +1,20 @@
+package app.diy.note_taking_app.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class NoteVersionConflictException extends RuntimeException {
+
+	// version the note is at now, the client retries based on it
+	private final long currentVersion;
+
+	public NoteVersionConflictException(String message, long currentVersion) {
+		super(message);
+		this.currentVersion = currentVersion;
+	}
+
+	public NoteVersionConflictException(String message, long currentVersion, Throwable cause) {
+		super(message, cause);
+		this.currentVersion = currentVersion;
+	}
+}
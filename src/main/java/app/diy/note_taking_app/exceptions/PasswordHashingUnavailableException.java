@@ -0,0 +1,22 @@
+package app.diy.note_taking_app.exceptions;
+
+import java.time.Duration;
+
+import lombok.Getter;
+
+@Getter
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+	// how long the client should wait before retrying
+	private final Duration retryAfter;
+
+	public PasswordHashingUnavailableException(String message, Duration retryAfter) {
+		super(message);
+		this.retryAfter = retryAfter;
+	}
+
+	public PasswordHashingUnavailableException(String message, Duration retryAfter, Throwable cause) {
+		super(message, cause);
+		this.retryAfter = retryAfter;
+	}
+}
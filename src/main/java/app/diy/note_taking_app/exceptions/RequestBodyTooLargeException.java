@@ -0,0 +1,12 @@
+package app.diy.note_taking_app.exceptions;
+
+public class RequestBodyTooLargeException extends RuntimeException {
+
+	public RequestBodyTooLargeException(String message) {
+		super(message);
+	}
+
+	public RequestBodyTooLargeException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
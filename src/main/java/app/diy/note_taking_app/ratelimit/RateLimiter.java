@@ -0,0 +1,20 @@
+package app.diy.note_taking_app.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Counts requests per key and tells whether one more request is allowed.
+ * The default implementation keeps the counters in memory, an implementation
+ * backed by a shared store can be provided as a bean when running several
+ * nodes.
+ */
+public interface RateLimiter {
+
+	/**
+	 * @param key    identifies who sends the request, e.g. an IP address
+	 * @param limit  maximum number of requests within the window
+	 * @param window length of the sliding window
+	 * @return true if the request is allowed and was counted
+	 */
+	boolean tryAcquire(String key, int limit, Duration window);
+}
@@ -0,0 +1,85 @@
+package app.diy.note_taking_app.ratelimit;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Sliding window counter kept in memory.
+ * The count of the previous fixed window is weighted by how much of it still
+ * overlaps the sliding window, so only two counters are kept per key.
+ * Counters are updated with compare-and-set, no lock is taken.
+ */
+public class SlidingWindowRateLimiter implements RateLimiter {
+
+	private static final String CACHE_NAME = "rateLimitCounters";
+
+	private final Cache<String, AtomicReference<Window>> counters;
+
+	private final Clock clock;
+
+	public SlidingWindowRateLimiter(long maximumKeys, Duration maximumWindow, MeterRegistry meterRegistry) {
+		this(maximumKeys, maximumWindow, meterRegistry, Clock.systemUTC());
+	}
+
+	SlidingWindowRateLimiter(long maximumKeys, Duration maximumWindow, MeterRegistry meterRegistry, Clock clock) {
+		this.clock = clock;
+		this.counters = Caffeine.newBuilder()
+				.maximumSize(maximumKeys)
+				// a key which was idle for two windows has no count left
+				.expireAfterAccess(maximumWindow.multipliedBy(2))
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, counters, CACHE_NAME);
+	}
+
+	@Override
+	public boolean tryAcquire(String key, int limit, Duration window) {
+		long now = clock.millis();
+		long windowMillis = window.toMillis();
+		AtomicReference<Window> counter = counters.get(
+				key,
+				k -> new AtomicReference<>(new Window(now - now % windowMillis, 0, 0)));
+
+		while (true) {
+			Window current = counter.get();
+			Window rolled = current.roll(now, windowMillis);
+
+			if (rolled.estimate(now, windowMillis) + 1 > limit) {
+				// keep the rolled window even if the request is rejected
+				counter.compareAndSet(current, rolled);
+				return false;
+			}
+			if (counter.compareAndSet(current, rolled.increment())) {
+				return true;
+			}
+		}
+	}
+
+	private record Window(long start, int previous, int current) {
+
+		Window roll(long now, long windowMillis) {
+			long start = now - now % windowMillis;
+			if (start == this.start) {
+				return this;
+			}
+			// the previous window is only relevant when it is the adjacent one
+			return new Window(start, start - this.start == windowMillis ? current : 0, 0);
+		}
+
+		double estimate(long now, long windowMillis) {
+			double previousWeight = 1 - (double) (now - start) / windowMillis;
+			return previous * previousWeight + current;
+		}
+
+		Window increment() {
+			return new Window(start, previous, current + 1);
+		}
+	}
+}
@@ -1,6 +1,8 @@
 package app.diy.note_taking_app.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -8,6 +10,10 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import app.diy.note_taking_app.domain.dto.NoteContents;
+import app.diy.note_taking_app.domain.dto.NoteListVersion;
+import app.diy.note_taking_app.domain.dto.NoteVersion;
+import app.diy.note_taking_app.domain.dto.PreviewNoteRow;
 import app.diy.note_taking_app.domain.entity.Note;
 import app.diy.note_taking_app.domain.entity.User;
 
@@ -18,6 +24,124 @@ public interface NoteRepository extends JpaRepository<Note, Integer> {
 
 	List<Note> findByCreatedUser_IdAndDeletedFlagFalse(Integer id);
 
+	/**
+	 * notes written by the user and undeleted notes shared with the user after
+	 * the cursor, newest first. Each note is returned once even if the user has
+	 * more than one permission for it. Only the leading characters of the
+	 * contents are read.
+	 * <p>
+	 * Written notes and shared notes are read by separate branches, each
+	 * following its own index in the order of the page and stopping at the
+	 * limit, and the two branches are merged and limited again
+	 *
+	 * @param limit maximum number of notes
+	 */
+	@Query("select new app.diy.note_taking_app.domain.dto.PreviewNoteRow("
+			+ "n.id, n.title, substring(n.contents, 1, :previewLength), "
+			+ "case when length(n.contents) > :previewLength then true else false end, "
+			+ "n.createdAt, n.createdUser.id, n.createdUser.name, "
+			+ "n.updatedAt, n.updatedUser.name, n.deletedFlag, "
+			+ "case when exists (select 1 from UserPermission p where p.note = n and p.user.id = :userId "
+			+ "and p.deletedFlag = false and p.acceptedFlag = true and p.readWrite = true) "
+			+ "then true else false end) "
+			+ "from ("
+			+ "(select o.id as id from Note o "
+			+ "where o.createdUser.id = :userId "
+			+ "and (o.updatedAt < :updatedAt or (o.updatedAt = :updatedAt and o.id < :id)) "
+			+ "order by o.updatedAt desc, o.id desc limit :limit) "
+			+ "union all "
+			+ "(select s.id as id from Note s "
+			+ "where s.deletedFlag = false and s.createdUser.id <> :userId and s.id in ("
+			+ "select p.note.id from UserPermission p where p.user.id = :userId "
+			+ "and p.deletedFlag = false and p.acceptedFlag = true) "
+			+ "and (s.updatedAt < :updatedAt or (s.updatedAt = :updatedAt and s.id < :id)) "
+			+ "order by s.updatedAt desc, s.id desc limit :limit)"
+			+ ") page "
+			+ "join Note n on n.id = page.id "
+			+ "order by n.updatedAt desc, n.id desc "
+			+ "limit :limit")
+	List<PreviewNoteRow> findPreviewPageByUser_Id(
+			@Param("userId") Integer userId,
+			@Param("updatedAt") LocalDateTime updatedAt,
+			@Param("id") Integer id,
+			@Param("previewLength") int previewLength,
+			@Param("limit") int limit);
+
+	@Query("select n from Note n join fetch n.createdUser join fetch n.updatedUser where n.id = :noteId")
+	Optional<Note> findWithUsersById(@Param("noteId") Integer noteId);
+
+	/**
+	 * aggregate of the notes written by the user, read from the index on the
+	 * author and updatedAt without reading the notes
+	 */
+	@Query("select new app.diy.note_taking_app.domain.dto.NoteListVersion(count(n), max(n.updatedAt)) "
+			+ "from Note n where n.createdUser.id = :userId")
+	NoteListVersion findListVersionByCreatedUser_Id(@Param("userId") Integer userId);
+
+	@Query("select new app.diy.note_taking_app.domain.dto.NoteVersion("
+			+ "n.createdUser.id, n.updatedAt, n.deletedFlag, n.version) "
+			+ "from Note n where n.id = :noteId")
+	Optional<NoteVersion> findVersionById(@Param("noteId") Integer noteId);
+
+	@Query("select new app.diy.note_taking_app.domain.dto.NoteContents(n.contents, n.version) "
+			+ "from Note n where n.id = :noteId")
+	Optional<NoteContents> findContentsById(@Param("noteId") Integer noteId);
+
+	/**
+	 * replaces the title and contents only if the note is still at the version
+	 * it was read at and not deleted
+	 *
+	 * @return 0 if the note was updated or deleted since it was read
+	 */
+	@Modifying
+	@Query("update Note set title = :title, contents = :contents, version = version + 1, "
+			+ "updatedAt = :updatedAt, updatedUser = :user "
+			+ "where id = :noteId and version = :version and deletedFlag = false")
+	int updateNote(
+			@Param("noteId") Integer noteId,
+			@Param("title") String title,
+			@Param("contents") String contents,
+			@Param("version") long version,
+			@Param("updatedAt") LocalDateTime updatedAt,
+			@Param("user") User user);
+
+	/**
+	 * replaces the contents only if the note is still at the base version and
+	 * not deleted
+	 *
+	 * @return 0 if the note was updated or deleted since the base version
+	 */
+	@Modifying
+	@Query("update Note set contents = :contents, version = version + 1, updatedAt = :updatedAt, updatedUser = :user "
+			+ "where id = :noteId and version = :baseVersion and deletedFlag = false")
+	int updateContents(
+			@Param("noteId") Integer noteId,
+			@Param("contents") String contents,
+			@Param("baseVersion") long baseVersion,
+			@Param("updatedAt") LocalDateTime updatedAt,
+			@Param("user") User user);
+
+	/**
+	 * writes updates buffered in memory only if the note is still at the
+	 * version the updates were based on and not deleted
+	 *
+	 * @param versionIncrement number of updates written at once
+	 * @param baseVersion      version of the note before the first of them
+	 * @return 0 if the note was updated or deleted since the base version
+	 */
+	@Modifying
+	@Query("update Note set title = :title, contents = :contents, version = version + :versionIncrement, "
+			+ "updatedAt = :updatedAt, updatedUser = :user "
+			+ "where id = :noteId and version = :baseVersion and deletedFlag = false")
+	int updateBufferedNote(
+			@Param("noteId") Integer noteId,
+			@Param("title") String title,
+			@Param("contents") String contents,
+			@Param("versionIncrement") long versionIncrement,
+			@Param("baseVersion") long baseVersion,
+			@Param("updatedAt") LocalDateTime updatedAt,
+			@Param("user") User user);
+
 	@Modifying
 	@Query("update Note set deletedFlag = true, updatedAt = now(), updatedUser = :user where id = :noteId")
 	void deleteNote(@Param("noteId") Integer noteId, @Param("user") User user);
@@ -0,0 +1,32 @@
+package app.diy.note_taking_app.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import app.diy.note_taking_app.domain.entity.RefreshToken;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Integer> {
+
+	@Query("select r from RefreshToken r join fetch r.user where r.tokenHash = :tokenHash")
+	public Optional<RefreshToken> findByTokenHash(@Param("tokenHash") String tokenHash);
+
+	/**
+	 * marks the token as exchanged unless another request already did, so that
+	 * only one of concurrent rotations of the same token succeeds
+	 *
+	 * @return 1 if the token was marked, 0 if it was already used
+	 */
+	@Modifying
+	@Query("update RefreshToken set usedFlag = true where id = :id and usedFlag = false")
+	int markUsed(@Param("id") Integer id);
+
+	@Modifying
+	@Query("update RefreshToken set revokedFlag = true where familyId = :familyId")
+	void revokeFamily(@Param("familyId") String familyId);
+}
@@ -0,0 +1,24 @@
+package app.diy.note_taking_app.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import app.diy.note_taking_app.domain.entity.RevokedToken;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+	public List<RevokedToken> findByExpiresAtAfter(Instant now);
+
+	public List<RevokedToken> findByRevokedAtAfterAndExpiresAtAfter(Instant since, Instant now);
+
+	@Modifying
+	@Query("delete from RevokedToken where expiresAt <= :now")
+	int deleteExpiredTokens(@Param("now") Instant now);
+}
@@ -9,6 +9,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import app.diy.note_taking_app.domain.dto.PermissionVersion;
+import app.diy.note_taking_app.domain.dto.SharedNoteVersion;
 import app.diy.note_taking_app.domain.entity.Note;
 import app.diy.note_taking_app.domain.entity.UserPermission;
 
@@ -25,6 +27,21 @@ public interface UserPermissionRepository extends JpaRepository<UserPermission,
 			Integer noteId,
 			Integer userId);
 
+	@Query("select new app.diy.note_taking_app.domain.dto.PermissionVersion(p.id, p.user.id, p.type) "
+			+ "from UserPermission p where p.note.id = :noteId and p.deletedFlag = false and p.acceptedFlag = true "
+			+ "order by p.id")
+	public List<PermissionVersion> findVersionsByNote_Id(@Param("noteId") Integer noteId);
+
+	/**
+	 * permissions of the undeleted notes shared with the user, read from the
+	 * index on the user and the notes by id
+	 */
+	@Query("select new app.diy.note_taking_app.domain.dto.SharedNoteVersion(p.id, p.type, n.id, n.version) "
+			+ "from UserPermission p join p.note n "
+			+ "where p.user.id = :userId and p.deletedFlag = false and p.acceptedFlag = true and n.deletedFlag = false "
+			+ "order by p.id")
+	public List<SharedNoteVersion> findSharedNoteVersionsByUser_Id(@Param("userId") Integer userId);
+
 	public boolean existsByIdAndDeletedFlagFalse(Integer id);
 
 	public boolean existsByNote(Note note);
@@ -1,5 +1,6 @@
 package app.diy.note_taking_app.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -7,7 +8,10 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import app.diy.note_taking_app.domain.dto.AuthenticatedUser;
+import app.diy.note_taking_app.domain.dto.UserIdentity;
 import app.diy.note_taking_app.domain.entity.User;
 
 @Repository
@@ -15,15 +19,24 @@ public interface UserRepository extends JpaRepository<User, Integer> {
 
 	Optional<User> findByIdAndDeletedFlagFalse(int id);
 
+	@Query("select new app.diy.note_taking_app.domain.dto.AuthenticatedUser(u.id, u.name, u.email, u.role, u.deletedFlag) "
+			+ "from User u where u.id = :id and u.deletedFlag = false")
+	Optional<AuthenticatedUser> findAuthenticatedUserById(@Param("id") int id);
+
 	Optional<User> findByEmail(String username);
 
 	Optional<User> findByEmailAndDeletedFlagFalse(String email);
 
-	boolean existsByEmailAndDeletedFlagFalse(String email);
-
-	boolean existsByNameAndDeletedFlagFalse(String username);
+	@Query("select new app.diy.note_taking_app.domain.dto.UserIdentity(u.name, u.email) "
+			+ "from User u where u.deletedFlag = false and (u.name = :name or u.email = :email)")
+	List<UserIdentity> findIdentitiesByNameOrEmail(@Param("name") String name, @Param("email") String email);
 
 	@Modifying
-	@Query("update User set deletedFlag = true, updatedAt = now() where id = :userId")
+	@Query("update User set deletedFlag = true, activeEmail = null, updatedAt = now() where id = :userId")
 	void deleteUser(@Param("userId") Integer userId);
+
+	@Transactional
+	@Modifying
+	@Query("update User set password = :password where id = :userId")
+	void updatePassword(@Param("userId") Integer userId, @Param("password") String password);
 }
@@ -1,6 +1,7 @@
 package app.diy.note_taking_app.service;
 
 import app.diy.note_taking_app.domain.dto.request.AuthenticationRequest;
+import app.diy.note_taking_app.domain.dto.request.RefreshRequest;
 import app.diy.note_taking_app.domain.dto.request.RegisterRequest;
 import app.diy.note_taking_app.domain.dto.response.AuthenticationResponse;
 
@@ -9,4 +10,8 @@ public interface AuthenticationService {
 	AuthenticationResponse register(RegisterRequest request);
 
 	AuthenticationResponse authenticate(AuthenticationRequest request);
+
+	AuthenticationResponse refresh(RefreshRequest request);
+
+	void logout(String jwtToken, RefreshRequest request);
 }
@@ -1,17 +1,22 @@
 package app.diy.note_taking_app.service;
 
+import java.util.Locale;
+
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import app.diy.note_taking_app.constant.Role;
+import app.diy.note_taking_app.domain.dto.RefreshTokenRotation;
 import app.diy.note_taking_app.domain.dto.request.AuthenticationRequest;
+import app.diy.note_taking_app.domain.dto.request.RefreshRequest;
 import app.diy.note_taking_app.domain.dto.request.RegisterRequest;
 import app.diy.note_taking_app.domain.dto.response.AuthenticationResponse;
 import app.diy.note_taking_app.domain.entity.User;
 import app.diy.note_taking_app.exceptions.DatabaseTransactionalException;
-import app.diy.note_taking_app.exceptions.UserNotFoundException;
+import app.diy.note_taking_app.exceptions.DuplicateAccountException;
 import app.diy.note_taking_app.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 
@@ -27,17 +32,36 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
 	private final AuthenticationManager authenticationManager;
 
+	private final TokenRevocationService tokenRevocationService;
+
+	private final RefreshTokenService refreshTokenService;
+
 	@Override
 	public AuthenticationResponse register(RegisterRequest request) {
+		// hashed outside the try, so that a saturated encoder is answered with 503
+		// instead of being taken for a database failure
+		String encodedPassword = passwordEncoder.encode(request.getPassword());
 		try {
+			User user = userRepository.save(User.builder()
+					.name(request.getUsername())
+					.email(request.getEmail())
+					.password(encodedPassword)
+					.role(Role.USER)
+					.build());
+
 			return AuthenticationResponse.builder()
-					.token(jwtService.generateToken(userRepository.save(User.builder()
-							.name(request.getUsername())
-							.email(request.getEmail())
-							.password(passwordEncoder.encode(request.getPassword()))
-							.role(Role.USER)
-							.build())))
+					.token(jwtService.generateToken(user))
+					.refreshToken(refreshTokenService.create(user))
 					.build();
+		} catch (DataIntegrityViolationException e) {
+			// the username or email was taken by a concurrent registration after validation
+			if (isUniqueViolation(e, User.NAME_UNIQUE_CONSTRAINT)) {
+				throw new DuplicateAccountException("username", "Entered Username is already Used", e);
+			}
+			if (isUniqueViolation(e, User.ACTIVE_EMAIL_UNIQUE_CONSTRAINT)) {
+				throw new DuplicateAccountException("email", "Entered Email is already Used", e);
+			}
+			throw new DatabaseTransactionalException("Failed to register user", e);
 		} catch (Exception e) {
 			throw new DatabaseTransactionalException("Failed to register user", e);
 		}
@@ -45,14 +69,40 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
 	@Override
 	public AuthenticationResponse authenticate(AuthenticationRequest request) {
-		authenticationManager.authenticate(
-				new UsernamePasswordAuthenticationToken(
+		// the authenticated principal is the user loaded for the password check,
+		// so the token is issued without querying the user again
+		User user = (User) authenticationManager
+				.authenticate(new UsernamePasswordAuthenticationToken(
 						request.getEmail(),
-						request.getPassword()));
-		String jwtToken = jwtService.generateToken(userRepository
-				.findByEmailAndDeletedFlagFalse(request.getEmail())
-				.orElseThrow(() -> new UserNotFoundException("User was not found")));
+						request.getPassword()))
+				.getPrincipal();
+
+		return AuthenticationResponse.builder()
+				.token(jwtService.generateToken(user))
+				.refreshToken(refreshTokenService.create(user))
+				.build();
+	}
+
+	@Override
+	public AuthenticationResponse refresh(RefreshRequest request) {
+		RefreshTokenRotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+
+		return AuthenticationResponse.builder()
+				.token(jwtService.generateToken(rotation.getUser()))
+				.refreshToken(rotation.getRefreshToken())
+				.build();
+	}
+
+	@Override
+	public void logout(String jwtToken, RefreshRequest request) {
+		tokenRevocationService.revoke(jwtService.parseToken(jwtToken));
+		if (request != null && request.getRefreshToken() != null) {
+			refreshTokenService.revoke(request.getRefreshToken());
+		}
+	}
 
-		return AuthenticationResponse.builder().token(jwtToken).build();
+	private boolean isUniqueViolation(DataIntegrityViolationException e, String constraintName) {
+		return e.getMostSpecificCause().getMessage() != null
+				&& e.getMostSpecificCause().getMessage().toLowerCase(Locale.ROOT).contains(constraintName);
 	}
 }
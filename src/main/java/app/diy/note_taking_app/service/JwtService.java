@@ -1,10 +1,12 @@
 package app.diy.note_taking_app.service;
 
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
-import org.springframework.security.core.userdetails.UserDetails;
-
+import app.diy.note_taking_app.domain.dto.AuthenticatedUser;
+import app.diy.note_taking_app.domain.dto.TokenClaims;
+import app.diy.note_taking_app.domain.dto.response.JwkSetResponse;
 import app.diy.note_taking_app.domain.entity.User;
 import io.jsonwebtoken.Claims;
 
@@ -12,11 +14,19 @@ public interface JwtService {
 
 	String extractUserId(String token);
 
+	TokenClaims parseToken(String token);
+
 	<T> T extractClaim(String token, Function<Claims, T> claimsResolver);
 
 	String generateToken(User userDetails);
 
 	String generateToken(Map<String, Object> extraClaims, User userDetails);
 
-	boolean isTokenValid(String token, UserDetails userDetails);
+	Optional<AuthenticatedUser> extractAuthenticatedUser(TokenClaims tokenClaims);
+
+	boolean isTokenValid(String token, AuthenticatedUser user);
+
+	boolean isTokenValid(TokenClaims tokenClaims, AuthenticatedUser user);
+
+	JwkSetResponse getJwkSet();
 }
@@ -1,45 +1,78 @@
 package app.diy.note_taking_app.service;
 
-import java.security.Key;
+import java.math.BigInteger;
+import java.security.interfaces.ECPublicKey;
 import java.time.Clock;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Function;
 
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import app.diy.note_taking_app.configuration.JwtKeyManager;
+import app.diy.note_taking_app.configuration.JwtKeyRing;
 import app.diy.note_taking_app.configuration.NoteTakingAppConfigProperties;
+import app.diy.note_taking_app.constant.Role;
+import app.diy.note_taking_app.domain.dto.AuthenticatedUser;
+import app.diy.note_taking_app.domain.dto.TokenClaims;
+import app.diy.note_taking_app.domain.dto.response.JsonWebKey;
+import app.diy.note_taking_app.domain.dto.response.JwkSetResponse;
 import app.diy.note_taking_app.domain.entity.User;
-import app.diy.note_taking_app.exceptions.UserNotFoundException;
-import app.diy.note_taking_app.repository.UserRepository;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.io.Encoders;
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class JwtServiceImpl implements JwtService {
 
+	private static final String ROLE_CLAIM = "role";
+	private static final String NAME_CLAIM = "name";
+	private static final int EC_COORDINATE_LENGTH = 32;
+
+	private final JwtKeyManager jwtKeyManager;
+
 	private final NoteTakingAppConfigProperties ntaProp;
-	private final UserRepository userRepository;
 
 	@Override
 	public String extractUserId(String token) {
-		return extractClaim(token, Claims::getSubject);
+		return parseToken(token).getSubject();
+	}
+
+	@Override
+	public TokenClaims parseToken(String token) {
+		// verify the signature only once and keep every claim the callers need
+		return extractClaim(token, claims -> {
+			Map<String, Object> extraClaims = new HashMap<>(claims);
+			extraClaims.remove(Claims.ID);
+			extraClaims.remove(Claims.SUBJECT);
+			extraClaims.remove(Claims.ISSUED_AT);
+			extraClaims.remove(Claims.EXPIRATION);
+
+			return TokenClaims.builder()
+					.tokenId(claims.getId())
+					.subject(claims.getSubject())
+					.issuedAt(claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null)
+					.expiration(claims.getExpiration() != null ? claims.getExpiration().toInstant() : null)
+					.extraClaims(Collections.unmodifiableMap(extraClaims))
+					.build();
+		});
 	}
 
 	@Override
 	public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-		final Claims claims = Jwts
-				.parserBuilder()
-				.setSigningKey(getSignInKey()) // To create to generate or decode token, it needs signing key
-				.build()
+		final Claims claims = jwtKeyManager
+				.getParser() // Parser is built once with the signing key and shared
 				.parseClaimsJws(token) // To parse token
 				.getBody();
 		return claimsResolver.apply(claims); // extract all claims method
@@ -54,39 +87,100 @@ public class JwtServiceImpl implements JwtService {
 	@Override
 	public String generateToken(Map<String, Object> extraClaims, User userDetails) {
 		Clock systemClock = Clock.systemUTC();
+		JwtKeyRing keyRing = jwtKeyManager.getKeyRing();
+		Map<String, Object> claims = new HashMap<>(extraClaims);
+		if (userDetails.getRole() != null) {
+			claims.put(ROLE_CLAIM, userDetails.getRole().name());
+		}
+		if (userDetails.getName() != null) {
+			claims.put(NAME_CLAIM, userDetails.getName());
+		}
 
 		return Jwts
 				.builder()
-				.setClaims(extraClaims)
+				.setHeaderParam(JwsHeader.KEY_ID, keyRing.activeKeyId()) // to pick the key on verification
+				.setClaims(claims)
+				.setId(UUID.randomUUID().toString()) // to revoke the token individually
 				.setSubject(userDetails.getId().toString())
 				.setIssuedAt(Date.from(Instant.now(systemClock)))
-				.setExpiration(Date.from(Instant.now(systemClock).plusSeconds(31536000))) // expired 1 year
-				.signWith(getSignInKey(), SignatureAlgorithm.HS256)
+				.setExpiration(Date.from(Instant.now(systemClock)
+						.plus(ntaProp.tokenLifetime().accessTokenTtl()))) // short-lived, renewed by refresh token
+				.signWith(keyRing.signingKey(), keyRing.algorithm())
 				.compact();
 	}
 
+	/**
+	 * Build the user out of the verified claims only, the access token is short
+	 * lived so its claims are trusted until it expires.
+	 * Tokens without the role claim need the user to be loaded by the caller
+	 */
+	@Override
+	public Optional<AuthenticatedUser> extractAuthenticatedUser(TokenClaims tokenClaims) {
+		Object role = tokenClaims.getExtraClaims().get(ROLE_CLAIM);
+		if (role == null) {
+			return Optional.empty();
+		}
+
+		// email is not embedded in the token, so it is not available here
+		return Optional.of(AuthenticatedUser.builder()
+				.id(Integer.parseInt(tokenClaims.getSubject()))
+				.name((String) tokenClaims.getExtraClaims().get(NAME_CLAIM))
+				.role(Role.valueOf(role.toString()))
+				.deletedFlag(false)
+				.build());
+	}
+
 	@Override
-	public boolean isTokenValid(String token, UserDetails userDetails) {
-		final String userIdInToken = extractUserId(token);
-		final String userIdFromDb = userRepository
-				.findByEmailAndDeletedFlagFalse(userDetails.getUsername())
-				.orElseThrow(() -> new UserNotFoundException("User was not found"))
-				.getId()
-				.toString();
-
-		return userIdInToken.equals(userIdFromDb) && !isTokenExpired(token);
+	public boolean isTokenValid(String token, AuthenticatedUser user) {
+		return isTokenValid(parseToken(token), user);
 	}
 
-	private boolean isTokenExpired(String token) {
-		return extractExpiration(token).before(Date.from(Instant.now(Clock.systemUTC())));
+	/**
+	 * Verify the token against the user which is already loaded by the caller,
+	 * no additional query is issued
+	 */
+	@Override
+	public boolean isTokenValid(TokenClaims tokenClaims, AuthenticatedUser user) {
+		return !user.isDeletedFlag()
+				&& tokenClaims.getSubject().equals(user.getId().toString())
+				&& !isTokenExpired(tokenClaims);
+	}
+
+	/**
+	 * Public keys of the key ring, so that other services can verify tokens
+	 * without calling this application. Secret keys of HS256 are never published
+	 */
+	@Override
+	public JwkSetResponse getJwkSet() {
+		List<JsonWebKey> keys = new ArrayList<>();
+		jwtKeyManager.getKeyRing().verificationKeys().forEach((keyId, key) -> {
+			if (key instanceof ECPublicKey publicKey) {
+				keys.add(JsonWebKey.builder()
+						.kty("EC")
+						.crv("P-256")
+						.kid(keyId)
+						.use("sig")
+						.alg(SignatureAlgorithm.ES256.getValue())
+						.x(encodeCoordinate(publicKey.getW().getAffineX()))
+						.y(encodeCoordinate(publicKey.getW().getAffineY()))
+						.build());
+			}
+		});
+		return JwkSetResponse.builder().keys(keys).build();
 	}
 
-	private Date extractExpiration(String token) {
-		return extractClaim(token, Claims::getExpiration);
+	private boolean isTokenExpired(TokenClaims tokenClaims) {
+		return tokenClaims.getExpiration().isBefore(Instant.now(Clock.systemUTC()));
 	}
 
-	private Key getSignInKey() {
-		byte[] keyBytes = Decoders.BASE64.decode(ntaProp.decodeSecretKey());
-		return Keys.hmacShaKeyFor(keyBytes);
+	/**
+	 * Coordinate of P-256 as 32 bytes unsigned big-endian, Base64url encoded
+	 */
+	private String encodeCoordinate(BigInteger coordinate) {
+		byte[] bytes = coordinate.toByteArray();
+		byte[] unsigned = new byte[EC_COORDINATE_LENGTH];
+		int length = Math.min(bytes.length, EC_COORDINATE_LENGTH);
+		System.arraycopy(bytes, bytes.length - length, unsigned, EC_COORDINATE_LENGTH - length, length);
+		return Encoders.BASE64URL.encode(unsigned);
 	}
 }
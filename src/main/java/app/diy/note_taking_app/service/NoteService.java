@@ -1,25 +1,32 @@
 package app.diy.note_taking_app.service;
 
-import java.util.List;
 import java.util.Optional;
 
+import app.diy.note_taking_app.domain.dto.AuthenticatedUser;
+import app.diy.note_taking_app.domain.dto.NoteView;
+import app.diy.note_taking_app.domain.dto.PreviewNotePage;
+import app.diy.note_taking_app.domain.dto.request.NotePatchRequest;
 import app.diy.note_taking_app.domain.dto.request.NoteUpdateRequest;
 import app.diy.note_taking_app.domain.dto.response.NoteDetailResponse;
-import app.diy.note_taking_app.domain.dto.response.PreviewNoteResponse;
-import app.diy.note_taking_app.domain.entity.Note;
-import app.diy.note_taking_app.domain.entity.User;
+import app.diy.note_taking_app.domain.dto.response.NotePatchResponse;
 
 public interface NoteService {
 
-	List<PreviewNoteResponse> getNoteList(Integer userId);
+	PreviewNotePage getNoteList(Integer userId, String cursor, Integer size);
 
-	Optional<Note> getNote(Integer noteId);
+	Optional<String> getNoteListETag(Integer userId, String cursor, Integer size);
 
-	NoteDetailResponse getNoteDetail(Note note, Integer userId);
+	Optional<NoteView> getNote(Integer noteId);
 
-	NoteDetailResponse create(User user);
+	Optional<String> getNoteDetailETag(Integer noteId, Integer userId);
 
-	NoteDetailResponse update(Integer noteId, NoteUpdateRequest request, User user);
+	NoteDetailResponse getNoteDetail(NoteView note, Integer userId);
 
-	void delete(Note note, User user);
+	NoteDetailResponse create(AuthenticatedUser user);
+
+	NoteDetailResponse update(NoteView note, NoteUpdateRequest request, Long expectedVersion, AuthenticatedUser user);
+
+	NotePatchResponse patchContents(NoteView note, NotePatchRequest request, AuthenticatedUser user);
+
+	void delete(Integer noteId, AuthenticatedUser user);
 }
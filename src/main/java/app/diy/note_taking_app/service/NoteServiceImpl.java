@@ -1,20 +1,40 @@
 package app.diy.note_taking_app.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 
+import app.diy.note_taking_app.cache.NoteDetailCache;
+import app.diy.note_taking_app.cache.NoteWriteBuffer;
+import app.diy.note_taking_app.configuration.NoteTakingAppConfigProperties;
+import app.diy.note_taking_app.domain.dto.AuthenticatedUser;
+import app.diy.note_taking_app.domain.dto.NoteContents;
+import app.diy.note_taking_app.domain.dto.NoteCursor;
+import app.diy.note_taking_app.domain.dto.NoteDetailETag;
+import app.diy.note_taking_app.domain.dto.NoteListVersion;
+import app.diy.note_taking_app.domain.dto.NoteVersion;
+import app.diy.note_taking_app.domain.dto.NoteView;
+import app.diy.note_taking_app.domain.dto.PermissionVersion;
+import app.diy.note_taking_app.domain.dto.PreviewNotePage;
+import app.diy.note_taking_app.domain.dto.PreviewNoteRow;
+import app.diy.note_taking_app.domain.dto.SharedNoteVersion;
+import app.diy.note_taking_app.domain.dto.request.NotePatchRequest;
 import app.diy.note_taking_app.domain.dto.request.NoteUpdateRequest;
 import app.diy.note_taking_app.domain.dto.response.NoteDetailResponse;
-import app.diy.note_taking_app.domain.dto.response.PreviewNoteResponse;
+import app.diy.note_taking_app.domain.dto.response.NotePatchResponse;
 import app.diy.note_taking_app.domain.entity.Note;
 import app.diy.note_taking_app.domain.entity.User;
-import app.diy.note_taking_app.domain.entity.UserPermission;
 import app.diy.note_taking_app.exceptions.DatabaseTransactionalException;
+import app.diy.note_taking_app.exceptions.InvalidNoteCursorException;
+import app.diy.note_taking_app.exceptions.NoteNotFoundException;
+import app.diy.note_taking_app.exceptions.NoteVersionConflictException;
 import app.diy.note_taking_app.repository.NoteRepository;
 import app.diy.note_taking_app.repository.UserPermissionRepository;
 import app.diy.note_taking_app.service.factory.NoteFactory;
@@ -29,74 +49,241 @@ public class NoteServiceImpl implements NoteService {
 	private final NoteRepository noteRepository;
 	private final NoteFactory noteFactory;
 	private final EntityManager entityManager;
+	private final NoteTakingAppConfigProperties ntaProp;
+	private final NoteDetailCache noteDetailCache;
+	private final NoteWriteBuffer noteWriteBuffer;
 
+	/**
+	 * Notes written by the user and shared with the user after the cursor,
+	 * newest first. A single query reads at most one page, so the cost does not
+	 * grow with the number of notes the user has. A request with neither a
+	 * cursor nor a size is from a client written before the list was paginated
+	 * and gets every note in one response, as it did before.
+	 */
 	@Override
-	public List<PreviewNoteResponse> getNoteList(Integer userId) {
-		List<Note> notesWrittenByUser = noteRepository.findByCreatedUser_Id(userId);
-		List<Note> notesWrittenByOther = userPermissionRepository
-				.findByUser_IdAndDeletedFlagFalseAndAcceptedFlagTrue(userId)
-				.stream()
-				.filter(userPermission -> !userPermission.getNote().isDeletedFlag())
-				.map(UserPermission::getNote)
-				.toList();
+	public PreviewNotePage getNoteList(Integer userId, String cursor, Integer size) {
+		NoteCursor position = NoteCursor.decode(cursor);
+		boolean wholeList = isWholeList(cursor, size);
+		int pageSize = toPageSize(size);
+		noteWriteBuffer.flushVisibleTo(userId);
 
-		if (notesWrittenByUser.isEmpty() && notesWrittenByOther.isEmpty()) {
-			return List.of();
+		// one more note than the page size tells whether there is a next page
+		List<PreviewNoteRow> notes = noteRepository.findPreviewPageByUser_Id(
+				userId,
+				position.updatedAt(),
+				position.id(),
+				ntaProp.noteList().previewLength(),
+				wholeList ? Integer.MAX_VALUE : pageSize + 1);
+
+		if (notes.isEmpty()) {
+			return PreviewNotePage.builder().notes(List.of()).build();
+		}
+
+		boolean hasNextPage = !wholeList && notes.size() > pageSize;
+		List<PreviewNoteRow> page = hasNextPage ? notes.subList(0, pageSize) : notes;
+		PreviewNoteRow lastNote = page.get(page.size() - 1);
+
+		return PreviewNotePage.builder()
+				.notes(noteFactory.createPreviewNoteResponseList(page, userId))
+				.nextCursor(hasNextPage ? new NoteCursor(lastNote.updatedAt(), lastNote.id()).encode() : null)
+				.build();
+	}
+
+	/**
+	 * ETag of the note list built without reading the notes, changes whenever a
+	 * note in the list is added, updated, deleted, shared or unshared, or a
+	 * permission for it is changed. The notes written by the user are
+	 * represented by an aggregate read from the index, the shared notes by the
+	 * version of each note and permission. The position and the size of the
+	 * page are part of it, so that each page has its own ETag
+	 *
+	 * @return empty if the cursor is invalid, such requests are left to the
+	 *         note list to fail
+	 */
+	@Override
+	public Optional<String> getNoteListETag(Integer userId, String cursor, Integer size) {
+		NoteCursor position;
+		try {
+			position = NoteCursor.decode(cursor);
+		} catch (InvalidNoteCursorException e) {
+			return Optional.empty();
 		}
+		int pageSize = isWholeList(cursor, size) ? Integer.MAX_VALUE : toPageSize(size);
+		noteWriteBuffer.flushVisibleTo(userId);
+		NoteListVersion writtenNotes = noteRepository.findListVersionByCreatedUser_Id(userId);
+		List<SharedNoteVersion> sharedNotes = userPermissionRepository.findSharedNoteVersionsByUser_Id(userId);
 
-		return noteFactory.createPreviewNoteResponseList(
-				Stream.of(notesWrittenByUser, notesWrittenByOther)
-						.flatMap(notes -> notes.stream())
-						.collect(Collectors.toList()),
-				userId);
+		return Optional.of(toETag(
+				userId,
+				ntaProp.noteList().previewLength(),
+				position.updatedAt(),
+				position.id(),
+				pageSize,
+				writtenNotes,
+				sharedNotes));
 	}
 
 	@Override
-	public Optional<Note> getNote(Integer noteId) {
-		return noteRepository.findById(noteId);
+	public Optional<NoteView> getNote(Integer noteId) {
+		return noteDetailCache.get(noteId);
 	}
 
+	/**
+	 * ETag of the note detail built without reading the note, changes whenever
+	 * the note or its permissions are updated. The versions are taken from the
+	 * cached note and read from the database only if it is not cached
+	 *
+	 * @return empty if the note does not exist or the user is not allowed to see
+	 *         it, such requests are left to the note detail to fail
+	 */
 	@Override
-	public NoteDetailResponse getNoteDetail(Note note, Integer userId) {
+	public Optional<String> getNoteDetailETag(Integer noteId, Integer userId) {
+		noteWriteBuffer.flush(noteId);
+		Optional<NoteView> cachedNote = noteDetailCache.getIfPresent(noteId);
+		Optional<NoteVersion> note = cachedNote.isPresent()
+				? cachedNote.map(NoteVersion::of)
+				: noteRepository.findVersionById(noteId);
+		if (note.isEmpty()) {
+			return Optional.empty();
+		}
 
-		List<UserPermission> userPermissions = userPermissionRepository
-				.findByNote_IdAndDeletedFlagFalseAndAcceptedFlagTrue(note.getId());
+		// ordered by id as read from the database, so both give the same ETag
+		List<PermissionVersion> permissions = cachedNote.isPresent()
+				? cachedNote.get().sharedUsers().stream()
+						.map(PermissionVersion::of)
+						.sorted(Comparator.comparing(PermissionVersion::id))
+						.toList()
+				: userPermissionRepository.findVersionsByNote_Id(noteId);
+		if (!userId.equals(note.get().createdUserId())
+				&& permissions.stream().noneMatch(permission -> userId.equals(permission.userId()))) {
+			return Optional.empty();
+		}
 
-		return noteFactory.createNoteDetailResponse(note, userPermissions, userId);
+		return Optional.of(new NoteDetailETag(note.get().version(), digest(userId, noteId, note.get(), permissions))
+				.encode());
+	}
+
+	@Override
+	public NoteDetailResponse getNoteDetail(NoteView note, Integer userId) {
+		// the note was read before its buffered update was written
+		if (noteWriteBuffer.flush(note.id())) {
+			note = getNote(note.id()).orElse(note);
+		}
+		return noteFactory.createNoteDetailResponse(note, userId);
 	}
 
 	@Override
 	@Transactional
-	public NoteDetailResponse create(User user) {
+	public NoteDetailResponse create(AuthenticatedUser user) {
 		try {
-			Note savedNote = noteRepository.save(noteFactory.createNote(user));
+			Note savedNote = noteRepository.save(noteFactory.createNote(getUserReference(user)));
 			return noteFactory.createNoteDetailResponse(savedNote, user.getId());
 		} catch (Exception e) {
 			throw new DatabaseTransactionalException("Failed to save note", e);
 		}
 	}
 
+	/**
+	 * Writes the title and contents with a single UPDATE conditioned on the
+	 * version the note was read at, and builds the response from the note and
+	 * the request instead of reading the note again. A note read from a cache
+	 * behind a write on another node is read from the database and written
+	 * once more, unless the client asked for the update to be applied only at
+	 * the expected version.
+	 */
+	@Override
+	@Transactional
+	public NoteDetailResponse update(
+			NoteView note,
+			NoteUpdateRequest request,
+			Long expectedVersion,
+			AuthenticatedUser user) {
+		// the cached note may be behind a write on another node
+		if (expectedVersion != null && expectedVersion != note.version()) {
+			note = reloadNote(note.id());
+		}
+
+		// acknowledged from memory and written later together with the following updates
+		if (noteWriteBuffer.isEnabled()) {
+			Optional<NoteView> bufferedNote = noteWriteBuffer.buffer(note, request, expectedVersion, user);
+			if (bufferedNote.isPresent()) {
+				return noteFactory.createNoteDetailResponse(bufferedNote.get(), user.getId());
+			}
+		}
+
+		if (expectedVersion != null && expectedVersion != note.version()) {
+			throw new NoteVersionConflictException("Note was updated to version " + note.version(), note.version());
+		}
+
+		LocalDateTime updatedAt = LocalDateTime.now();
+		NoteView baseNote = note;
+		int updatedCount = writeNote(baseNote, request, updatedAt, user);
+		if (updatedCount == 0 && expectedVersion == null) {
+			baseNote = reloadNote(note.id());
+			updatedCount = writeNote(baseNote, request, updatedAt, user);
+		}
+		if (updatedCount == 0) {
+			throw conflictWithCurrentVersion(note.id());
+		}
+		noteDetailCache.invalidate(note.id());
+
+		return noteFactory.createNoteDetailResponse(
+				baseNote.updated(request.getTitle(), request.getContents(), updatedAt, user.getName()),
+				user.getId());
+	}
+
+	/**
+	 * Applies the operations to the contents at the base version and writes
+	 * them only if the note is still at that version. The cached note is used
+	 * as the base when it is at the base version, otherwise the contents are
+	 * read from the database.
+	 */
 	@Override
 	@Transactional
-	public NoteDetailResponse update(Integer noteId, NoteUpdateRequest request, User user) {
+	public NotePatchResponse patchContents(NoteView note, NotePatchRequest request, AuthenticatedUser user) {
+		if (noteWriteBuffer.flush(note.id())) {
+			note = getNote(note.id()).orElseThrow(() -> new NoteNotFoundException("Note was not found"));
+		}
+		NoteContents base = note.version() == request.getBaseVersion()
+				? new NoteContents(note.contents(), note.version())
+				: noteRepository.findContentsById(note.id())
+						.orElseThrow(() -> new NoteNotFoundException("Note was not found"));
+		if (base.version() != request.getBaseVersion()) {
+			throw new NoteVersionConflictException("Note was updated to version " + base.version(), base.version());
+		}
+
+		String contents = noteFactory.patchContents(base.contents(), request.getOperations());
+		LocalDateTime updatedAt = LocalDateTime.now();
+		int updatedCount;
 		try {
-			Note savedNote = noteRepository.saveAndFlush(noteFactory.updateNote(noteId, request, user));
-			// Refresh DB instance and synchronize to updated DB data
-			entityManager.refresh(savedNote);
-			return noteFactory.createNoteDetailResponse(
-					savedNote,
-					userPermissionRepository.findByNote_IdAndDeletedFlagFalseAndAcceptedFlagTrue(noteId),
-					user.getId());
+			updatedCount = noteRepository.updateContents(
+					note.id(),
+					contents,
+					request.getBaseVersion(),
+					updatedAt,
+					getUserReference(user));
 		} catch (Exception e) {
 			throw new DatabaseTransactionalException("Failed to update note", e);
 		}
+		if (updatedCount == 0) {
+			throw conflictWithCurrentVersion(note.id());
+		}
+		noteDetailCache.invalidate(note.id());
+
+		return NotePatchResponse.builder()
+				.id(note.id())
+				.version(request.getBaseVersion() + 1)
+				.updatedAt(updatedAt)
+				.build();
 	}
 
 	@Override
 	@Transactional
-	public void delete(Note note, User user) {
+	public void delete(Integer noteId, AuthenticatedUser user) {
+		noteWriteBuffer.flush(noteId);
 		try {
-			noteRepository.deleteNote(note.getId(), user);
+			Note note = entityManager.getReference(Note.class, noteId);
+			noteRepository.deleteNote(noteId, getUserReference(user));
 			// delete permissions liked to the note
 			if (userPermissionRepository.existsByNote(note)) {
 				userPermissionRepository.deleteUserPermissionsByNote(note);
@@ -104,5 +291,80 @@ public class NoteServiceImpl implements NoteService {
 		} catch (Exception e) {
 			throw new DatabaseTransactionalException("Failed to delete note", e);
 		}
+		noteDetailCache.invalidate(noteId);
+	}
+
+	/**
+	 * reads the note from the database instead of the cache, failing if it was
+	 * deleted in the meantime
+	 */
+	private NoteView reloadNote(Integer noteId) {
+		noteDetailCache.invalidate(noteId);
+		return getNote(noteId)
+				.filter(latestNote -> !latestNote.deletedFlag())
+				.orElseThrow(() -> new NoteNotFoundException("Note was not found"));
+	}
+
+	/**
+	 * builds the conflict of a conditioned write that updated no row, with the
+	 * version the note was moved to by the other request, failing instead if
+	 * the other request deleted the note
+	 */
+	private NoteVersionConflictException conflictWithCurrentVersion(Integer noteId) {
+		long currentVersion = noteRepository.findVersionById(noteId)
+				.filter(note -> !note.deletedFlag())
+				.map(NoteVersion::version)
+				.orElseThrow(() -> new NoteNotFoundException("Note was not found"));
+		return new NoteVersionConflictException("Note was updated by another request", currentVersion);
+	}
+
+	private int writeNote(NoteView note, NoteUpdateRequest request, LocalDateTime updatedAt, AuthenticatedUser user) {
+		try {
+			return noteRepository.updateNote(
+					note.id(),
+					request.getTitle(),
+					request.getContents(),
+					note.version(),
+					updatedAt,
+					getUserReference(user));
+		} catch (Exception e) {
+			throw new DatabaseTransactionalException("Failed to update note", e);
+		}
+	}
+
+	/**
+	 * returns a reference to the user for associating with a note without
+	 * loading the user
+	 */
+	private User getUserReference(AuthenticatedUser user) {
+		return entityManager.getReference(User.class, user.getId());
+	}
+
+	/**
+	 * strong ETag digesting the given values
+	 */
+	private String toETag(Integer userId, Object... versions) {
+		return "\"" + digest(userId, versions) + "\"";
+	}
+
+	/**
+	 * digest of the given values, the response differs by user so the user is
+	 * always one of them
+	 */
+	private String digest(Integer userId, Object... versions) {
+		String source = userId + "|" + Arrays.deepToString(versions);
+		return DigestUtils.md5DigestAsHex(source.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private boolean isWholeList(String cursor, Integer size) {
+		return cursor == null && size == null;
+	}
+
+	private int toPageSize(Integer size) {
+		NoteTakingAppConfigProperties.NoteList noteListProp = ntaProp.noteList();
+		if (size == null) {
+			return noteListProp.defaultPageSize();
+		}
+		return Math.max(1, Math.min(size, noteListProp.maximumPageSize()));
 	}
 }
@@ -0,0 +1,13 @@
+package app.diy.note_taking_app.service;
+
+import app.diy.note_taking_app.domain.dto.RefreshTokenRotation;
+import app.diy.note_taking_app.domain.entity.User;
+
+public interface RefreshTokenService {
+
+	String create(User user);
+
+	RefreshTokenRotation rotate(String refreshToken);
+
+	void revoke(String refreshToken);
+}
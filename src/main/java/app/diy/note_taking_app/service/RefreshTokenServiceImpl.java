@@ -0,0 +1,120 @@
+package app.diy.note_taking_app.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import app.diy.note_taking_app.configuration.NoteTakingAppConfigProperties;
+import app.diy.note_taking_app.domain.dto.RefreshTokenRotation;
+import app.diy.note_taking_app.domain.entity.RefreshToken;
+import app.diy.note_taking_app.domain.entity.User;
+import app.diy.note_taking_app.exceptions.InvalidRefreshTokenException;
+import app.diy.note_taking_app.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Refresh tokens are opaque random values, only their digest is stored.
+ * Each token can be exchanged once, presenting a token which was already
+ * exchanged revokes every token of the same login, since either the client or
+ * an attacker holds a stolen copy.
+ */
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+	private static final int TOKEN_BYTES = 32;
+
+	private final SecureRandom secureRandom = new SecureRandom();
+
+	private final RefreshTokenRepository refreshTokenRepository;
+
+	private final NoteTakingAppConfigProperties ntaProp;
+
+	@Override
+	@Transactional
+	public String create(User user) {
+		return create(user, UUID.randomUUID().toString());
+	}
+
+	@Override
+	@Transactional(noRollbackFor = InvalidRefreshTokenException.class) // revoked family must be kept
+	public RefreshTokenRotation rotate(String refreshToken) {
+		RefreshToken current = findValidToken(refreshToken);
+		// the token may have been exchanged by a concurrent request since it was read
+		if (refreshTokenRepository.markUsed(current.getId()) == 0) {
+			throw reuseOf(current);
+		}
+
+		return RefreshTokenRotation.builder()
+				.user(current.getUser())
+				.refreshToken(create(current.getUser(), current.getFamilyId()))
+				.build();
+	}
+
+	@Override
+	@Transactional
+	public void revoke(String refreshToken) {
+		refreshTokenRepository
+				.findByTokenHash(digest(refreshToken))
+				.ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+	}
+
+	private RefreshToken findValidToken(String refreshToken) {
+		RefreshToken token = refreshTokenRepository
+				.findByTokenHash(digest(refreshToken))
+				.orElseThrow(() -> new InvalidRefreshTokenException("Refresh token is invalid"));
+
+		if (token.isUsedFlag()) {
+			throw reuseOf(token);
+		}
+		if (token.isRevokedFlag()
+				|| token.getUser().isDeletedFlag()
+				|| !token.getExpiresAt().isAfter(Instant.now(Clock.systemUTC()))) {
+			throw new InvalidRefreshTokenException("Refresh token is invalid");
+		}
+		return token;
+	}
+
+	/**
+	 * revokes every token of the same login, as a used token is presented by
+	 * either the client or an attacker holding a stolen copy
+	 */
+	private InvalidRefreshTokenException reuseOf(RefreshToken token) {
+		refreshTokenRepository.revokeFamily(token.getFamilyId());
+		return new InvalidRefreshTokenException("Refresh token was already used");
+	}
+
+	private String create(User user, String familyId) {
+		byte[] randomBytes = new byte[TOKEN_BYTES];
+		secureRandom.nextBytes(randomBytes);
+		String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes);
+
+		refreshTokenRepository.save(RefreshToken.builder()
+				.user(user)
+				.tokenHash(digest(refreshToken))
+				.familyId(familyId)
+				.expiresAt(Instant.now(Clock.systemUTC()).plus(ntaProp.tokenLifetime().refreshTokenTtl()))
+				.usedFlag(false)
+				.revokedFlag(false)
+				.build());
+		return refreshToken;
+	}
+
+	private String digest(String refreshToken) {
+		try {
+			return Base64.getEncoder().encodeToString(MessageDigest
+					.getInstance("SHA-256")
+					.digest(refreshToken.getBytes(StandardCharsets.US_ASCII)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e.getMessage(), e);
+		}
+	}
+}
@@ -0,0 +1,16 @@
+package app.diy.note_taking_app.service;
+
+import app.diy.note_taking_app.domain.dto.TokenClaims;
+
+public interface TokenRevocationService {
+
+	void revoke(TokenClaims tokenClaims);
+
+	void revokeUser(Integer userId);
+
+	boolean isRevoked(TokenClaims tokenClaims);
+
+	void purgeExpiredTokens();
+
+	void reloadRevokedTokens();
+}
@@ -0,0 +1,144 @@
+package app.diy.note_taking_app.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import app.diy.note_taking_app.configuration.NoteTakingAppConfigProperties;
+import app.diy.note_taking_app.domain.dto.TokenClaims;
+import app.diy.note_taking_app.domain.entity.RevokedToken;
+import app.diy.note_taking_app.exceptions.DatabaseTransactionalException;
+import app.diy.note_taking_app.repository.RevokedTokenRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Keeps every revoked token which is not expired yet in memory, so that the
+ * revocation is checked on each request without any query.
+ * The table is written on revocation, read fully on startup and read for the
+ * revocations of other nodes on a schedule, never on the request path.
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+	// prefix of the entries revoking every token of a user, a jti is a UUID and
+	// never starts with it
+	private static final String USER_PREFIX = "user:";
+
+	private final RevokedTokenRepository revokedTokenRepository;
+
+	private final NoteTakingAppConfigProperties ntaProp;
+
+	// revocations committed late or stamped by a node whose clock is behind are
+	// still picked up, reading a revocation twice does no harm
+	private static final Duration RELOAD_OVERLAP = Duration.ofMinutes(1);
+
+	// jti or "user:" + user id -> expiration of the tokens
+	private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+
+	// when the table was last read, null until it is read on startup
+	private volatile Instant loadedAt;
+
+	@Override
+	@Transactional
+	public void revoke(TokenClaims tokenClaims) {
+		if (tokenClaims.getTokenId() == null) {
+			// tokens issued before jti was introduced cannot be revoked one by one
+			return;
+		}
+
+		try {
+			revokedTokenRepository.save(RevokedToken.builder()
+					.tokenId(tokenClaims.getTokenId())
+					.expiresAt(tokenClaims.getExpiration())
+					.revokedAt(Instant.now(Clock.systemUTC()))
+					.build());
+		} catch (Exception e) {
+			throw new DatabaseTransactionalException("Failed to revoke token", e);
+		}
+		revokedTokens.put(tokenClaims.getTokenId(), tokenClaims.getExpiration());
+	}
+
+	/**
+	 * Revokes every access token issued to the user so far, which is every
+	 * token of a deleted user as no token is issued to it anymore. The entry is
+	 * kept as long as the last token issued can be valid.
+	 */
+	@Override
+	@Transactional
+	public void revokeUser(Integer userId) {
+		Instant now = Instant.now(Clock.systemUTC());
+		Instant expiresAt = now.plus(ntaProp.tokenLifetime().accessTokenTtl());
+
+		try {
+			revokedTokenRepository.save(RevokedToken.builder()
+					.tokenId(USER_PREFIX + userId)
+					.expiresAt(expiresAt)
+					.revokedAt(now)
+					.build());
+		} catch (Exception e) {
+			throw new DatabaseTransactionalException("Failed to revoke token", e);
+		}
+		revokedTokens.put(USER_PREFIX + userId, expiresAt);
+	}
+
+	@Override
+	public boolean isRevoked(TokenClaims tokenClaims) {
+		return (tokenClaims.getTokenId() != null && revokedTokens.containsKey(tokenClaims.getTokenId()))
+				|| revokedTokens.containsKey(USER_PREFIX + tokenClaims.getSubject());
+	}
+
+	/**
+	 * Revoked tokens are dropped once they are expired, an expired token is
+	 * rejected anyway
+	 */
+	@Override
+	@Transactional
+	@Scheduled(fixedDelay = 10, timeUnit = TimeUnit.MINUTES)
+	public void purgeExpiredTokens() {
+		Instant now = Instant.now(Clock.systemUTC());
+
+		revokedTokens.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+		revokedTokenRepository.deleteExpiredTokens(now);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void loadRevokedTokens() {
+		Instant now = Instant.now(Clock.systemUTC());
+
+		revokedTokenRepository.findByExpiresAtAfter(now).forEach(this::putRevokedToken);
+		loadedAt = now;
+	}
+
+	/**
+	 * Reads the tokens revoked since the table was last read, so that a logout
+	 * on another node is rejected by this node as well
+	 */
+	@Override
+	@Scheduled(fixedDelayString = "#{@'note-taking-app.diy.note_taking_app.configuration.NoteTakingAppConfigProperties'.tokenRevocation().reloadInterval().toMillis()}")
+	public void reloadRevokedTokens() {
+		if (loadedAt == null) {
+			loadRevokedTokens();
+			return;
+		}
+		Instant now = Instant.now(Clock.systemUTC());
+
+		revokedTokenRepository
+				.findByRevokedAtAfterAndExpiresAtAfter(loadedAt.minus(RELOAD_OVERLAP), now)
+				.forEach(this::putRevokedToken);
+		loadedAt = now;
+	}
+
+	private void putRevokedToken(RevokedToken revokedToken) {
+		revokedTokens.put(revokedToken.getTokenId(), revokedToken.getExpiresAt());
+	}
+}
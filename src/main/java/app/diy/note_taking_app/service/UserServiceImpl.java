@@ -1,13 +1,17 @@
 package app.diy.note_taking_app.service;
 
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import app.diy.note_taking_app.cache.NoteDetailCache;
+import app.diy.note_taking_app.cache.PrincipalCache;
+import app.diy.note_taking_app.domain.dto.AuthenticatedUser;
 import app.diy.note_taking_app.domain.dto.response.UserDetailResponse;
 import app.diy.note_taking_app.domain.entity.Note;
-import app.diy.note_taking_app.domain.entity.User;
 import app.diy.note_taking_app.domain.entity.UserPermission;
 import app.diy.note_taking_app.exceptions.DatabaseTransactionalException;
 import app.diy.note_taking_app.exceptions.UserNotFoundException;
@@ -25,6 +29,11 @@ public class UserServiceImpl implements UserService {
 	private final NoteRepository noteRepository;
 	private final UserPermissionRepository userPermissionRepository;
 
+	private final TokenRevocationService tokenRevocationService;
+
+	private final PrincipalCache principalCache;
+	private final NoteDetailCache noteDetailCache;
+
 	private final UserDetailFactory userDetailFactory;
 
 	@Override
@@ -36,7 +45,7 @@ public class UserServiceImpl implements UserService {
 
 	@Override
 	@Transactional
-	public void delete(User user) {
+	public void delete(AuthenticatedUser user) {
 		Integer userId = user.getId();
 		List<Note> notes = noteRepository.findByCreatedUser_IdAndDeletedFlagFalse(userId);
 		List<UserPermission> userPermissions = userPermissionRepository.findByUser_IdAndDeletedFlagFalse(userId);
@@ -45,7 +54,9 @@ public class UserServiceImpl implements UserService {
 			userRepository.deleteUser(userId);
 			// delete linked notes and permissions if they existed
 			if (!notes.isEmpty()) {
-				noteRepository.deleteNotes(notes.stream().map(note -> note.getId()).toList(), user);
+				noteRepository.deleteNotes(
+						notes.stream().map(note -> note.getId()).toList(),
+						userRepository.getReferenceById(userId));
 			}
 			if (!userPermissions.isEmpty()) {
 				userPermissionRepository.deleteUserPermissionsByIds(userPermissions.stream()
@@ -55,5 +66,13 @@ public class UserServiceImpl implements UserService {
 		} catch (Exception e) {
 			throw new DatabaseTransactionalException("Failed to delete user", e);
 		}
+		// deleted user must be locked out from the next request, including reads
+		// authenticated by the claims of the token
+		tokenRevocationService.revokeUser(userId);
+		principalCache.invalidate(userId);
+		noteDetailCache.invalidateAll(Stream.concat(
+				notes.stream().map(note -> note.getId()),
+				userPermissions.stream().map(userPermission -> userPermission.getNote().getId()))
+				.collect(Collectors.toSet()));
 	}
 }
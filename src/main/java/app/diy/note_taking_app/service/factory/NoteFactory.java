@@ -1,74 +1,59 @@
 package app.diy.note_taking_app.service.factory;
 
 import java.util.List;
+import java.util.Objects;
 
 import org.springframework.stereotype.Component;
 
-import app.diy.note_taking_app.domain.dto.UserAuthorization;
+import app.diy.note_taking_app.domain.dto.NoteView;
+import app.diy.note_taking_app.domain.dto.PreviewNoteRow;
+import app.diy.note_taking_app.domain.dto.request.NoteEditOperation;
 import app.diy.note_taking_app.domain.dto.request.NoteUpdateRequest;
 import app.diy.note_taking_app.domain.dto.response.NoteDetailResponse;
 import app.diy.note_taking_app.domain.dto.response.PreviewNoteResponse;
 import app.diy.note_taking_app.domain.entity.Note;
 import app.diy.note_taking_app.domain.entity.User;
-import app.diy.note_taking_app.domain.entity.UserPermission;
-import app.diy.note_taking_app.repository.UserPermissionRepository;
-import lombok.RequiredArgsConstructor;
+import app.diy.note_taking_app.exceptions.InvalidNotePatchException;
 
 @Component
-@RequiredArgsConstructor
 public class NoteFactory {
 
-	private final UserPermissionRepository userPermissionRepository;
-
-	public List<PreviewNoteResponse> createPreviewNoteResponseList(List<Note> notes, Integer userId) {
+	public List<PreviewNoteResponse> createPreviewNoteResponseList(List<PreviewNoteRow> notes, Integer userId) {
 		return notes.stream()
 				.map(note -> PreviewNoteResponse.builder()
-						.id(note.getId())
-						.title(note.getTitle())
-						.contents(note.getContents())
-						.createdAt(note.getCreatedAt())
-						.createdBy(note.getCreatedUser().getName())
-						.updatedAt(note.getUpdatedAt())
-						.updatedBy(note.getUpdatedUser().getName())
-						.deletedFlag(note.isDeletedFlag())
+						.id(note.id())
+						.title(note.title())
+						.contents(note.contents())
+						.truncated(note.truncated())
+						.createdAt(note.createdAt())
+						.createdBy(note.createdBy())
+						.updatedAt(note.updatedAt())
+						.updatedBy(note.updatedBy())
+						.deletedFlag(note.deletedFlag())
 						// if note is not deleted and
 						// log-in user is author or shared user with read-write permission, return true
 						.deletableFlag(
-								!note.isDeletedFlag()
-										&& (note.getCreatedUser().getId() == userId
-												|| userPermissionRepository
-														.findByNote_IdAndUser_IdAndDeletedFlagFalseAndAcceptedFlagTrue(note.getId(), userId)
-														.filter(userPermission -> userPermission.toPermissionType().isReadWrite())
-														.isPresent()))
+								!note.deletedFlag()
+										&& (userId.equals(note.createdUserId()) || note.readWrite()))
 						.build())
 				.toList();
 	}
 
-	public NoteDetailResponse createNoteDetailResponse(
-			Note note,
-			List<UserPermission> userPermissions,
-			Integer userId) {
-		boolean isAuthor = note.getCreatedUser().getId() == userId;
+	public NoteDetailResponse createNoteDetailResponse(NoteView note, Integer userId) {
+		boolean isAuthor = userId.equals(note.createdUserId());
 
 		return NoteDetailResponse.builder()
-				.id(note.getId())
-				.title(note.getTitle())
-				.contents(note.getContents())
+				.id(note.id())
+				.title(note.title())
+				.contents(note.contents())
 				.userIsAuthor(isAuthor)
-				.sharedUsers(!isAuthor && !userPermissions.isEmpty()
-						? userPermissions.stream()
-								.map(userPermission -> UserAuthorization.builder()
-										.permissionId(userPermission.getId())
-										.userId(userPermission.getUser().getId())
-										.type(userPermission.toPermissionType())
-										.build())
-								.toList()
-						: List.of())
-				.createdAt(note.getCreatedAt())
-				.createdBy(note.getCreatedUser().getName())
-				.updatedAt(note.getUpdatedAt())
-				.updatedBy(note.getUpdatedUser().getName())
-				.deletedFlag(note.isDeletedFlag())
+				.sharedUsers(!isAuthor ? note.sharedUsers() : List.of())
+				.createdAt(note.createdAt())
+				.createdBy(note.createdBy())
+				.updatedAt(note.updatedAt())
+				.updatedBy(note.updatedBy())
+				.deletedFlag(note.deletedFlag())
+				.version(note.version())
 				.build();
 	}
 
@@ -77,13 +62,14 @@ public class NoteFactory {
 				.id(note.getId())
 				.title(note.getTitle())
 				.contents(note.getContents())
-				.userIsAuthor(note.getCreatedUser().getId() == userId)
+				.userIsAuthor(Objects.equals(note.getCreatedUser().getId(), userId))
 				.sharedUsers(List.of())
 				.createdAt(note.getCreatedAt())
 				.createdBy(note.getCreatedUser().getName())
 				.updatedAt(note.getUpdatedAt())
 				.updatedBy(note.getUpdatedUser().getName())
 				.deletedFlag(note.isDeletedFlag())
+				.version(note.getVersion())
 				.build();
 	}
 
@@ -96,12 +82,43 @@ public class NoteFactory {
 				.build();
 	}
 
-	public Note updateNote(Integer noteId, NoteUpdateRequest request, User user) {
-		return Note.builder()
-				.id(noteId)
-				.title(request.getTitle())
-				.contents(request.getContents())
-				.updatedUser(user)
-				.build();
+	/**
+	 * Applies the operations to the contents in order
+	 *
+	 * @param contents   contents at the base version of the patch
+	 * @param operations operations of the patch
+	 * @return patched contents
+	 * @throws InvalidNotePatchException if an operation is out of the contents,
+	 *                                   misses its text or length, or the
+	 *                                   patched contents are too long
+	 */
+	public String patchContents(String contents, List<NoteEditOperation> operations) {
+		StringBuilder patched = new StringBuilder(contents != null ? contents : "");
+		for (NoteEditOperation operation : operations) {
+			int position = operation.getPosition();
+			if (position > patched.length()) {
+				throw new InvalidNotePatchException("Position " + position + " is out of the contents");
+			}
+			switch (operation.getType()) {
+				case INSERT -> {
+					if (operation.getText() == null) {
+						throw new InvalidNotePatchException("Text is required to insert");
+					}
+					patched.insert(position, operation.getText());
+				}
+				case DELETE -> {
+					if (operation.getLength() == null || position + operation.getLength() > patched.length()) {
+						throw new InvalidNotePatchException("Length is required and should be within the contents");
+					}
+					patched.delete(position, position + operation.getLength());
+				}
+			}
+		}
+
+		if (patched.length() > NoteUpdateRequest.CONTENTS_MAX_SIZE) {
+			throw new InvalidNotePatchException(
+					"Contents should be " + NoteUpdateRequest.CONTENTS_MAX_SIZE + " words or less");
+		}
+		return patched.toString();
 	}
 }
@@ -0,0 +1,32 @@
+package app.diy.note_taking_app.validation.uniqueAccount;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+/**
+ * Checks that neither the username nor the email of a registration is used by
+ * another user, both with a single query.
+ * Violations are reported on the username and email fields.
+ */
+@Constraint(validatedBy = UniqueAccountValidator.class)
+@Target({ ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface UniqueAccount {
+
+	String message() default "Entered account is already Used";
+
+	String usernameMessage() default "Entered Username is already Used";
+
+	String emailMessage() default "Entered Email is already Used";
+
+	Class<?>[] groups() default {};
+
+	Class<? extends Payload>[] payload() default {};
+}
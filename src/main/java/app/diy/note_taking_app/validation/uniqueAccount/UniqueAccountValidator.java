@@ -0,0 +1,50 @@
+package app.diy.note_taking_app.validation.uniqueAccount;
+
+import java.util.List;
+
+import app.diy.note_taking_app.domain.dto.UserIdentity;
+import app.diy.note_taking_app.domain.dto.request.RegisterRequest;
+import app.diy.note_taking_app.repository.UserRepository;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class UniqueAccountValidator implements ConstraintValidator<UniqueAccount, RegisterRequest> {
+
+	private final UserRepository userRepository;
+
+	private String usernameMessage;
+	private String emailMessage;
+
+	@Override
+	public void initialize(UniqueAccount constraintAnnotation) {
+		this.usernameMessage = constraintAnnotation.usernameMessage();
+		this.emailMessage = constraintAnnotation.emailMessage();
+	}
+
+	@Override
+	public boolean isValid(RegisterRequest value, ConstraintValidatorContext context) {
+		List<UserIdentity> identities = userRepository.findIdentitiesByNameOrEmail(
+				value.getUsername(),
+				value.getEmail());
+		// the database may compare case-insensitively, so the result is compared the same way
+		boolean isUsernameUsed = identities.stream()
+				.anyMatch(identity -> identity.name().equalsIgnoreCase(value.getUsername()));
+		boolean isEmailUsed = identities.stream()
+				.anyMatch(identity -> identity.email().equalsIgnoreCase(value.getEmail()));
+
+		context.disableDefaultConstraintViolation();
+		if (isUsernameUsed) {
+			context.buildConstraintViolationWithTemplate(usernameMessage)
+					.addPropertyNode("username")
+					.addConstraintViolation();
+		}
+		if (isEmailUsed) {
+			context.buildConstraintViolationWithTemplate(emailMessage)
+					.addPropertyNode("email")
+					.addConstraintViolation();
+		}
+		return !isUsernameUsed && !isEmailUsed;
+	}
+}
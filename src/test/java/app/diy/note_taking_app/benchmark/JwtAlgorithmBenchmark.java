@@ -0,0 +1,135 @@
+package app.diy.note_taking_app.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import app.diy.note_taking_app.configuration.JwtKeyRing;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Tokens/sec of signing and verifying JWT tokens with each algorithm.
+ * jjwt 0.11 does not support EdDSA, so its tokens are built by jjwt without
+ * signature and signed with Ed25519 of JCA, the claims are encoded and parsed
+ * the same way as with the other algorithms.
+ *
+ * mvn -P benchmark test-compile exec:exec -Dbenchmark.includes=JwtAlgorithmBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtAlgorithmBenchmark {
+
+	private static final String EDDSA = "EdDSA";
+
+	@Param({ "HS256", "ES256", EDDSA })
+	private String algorithm;
+
+	private JwtKeyRing keyRing;
+	private KeyPair edDsaKeyPair;
+	private JwtParser parser;
+	private String token;
+
+	@Setup
+	public void setUp() throws GeneralSecurityException {
+		switch (algorithm) {
+			case "HS256" -> keyRing = JwtKeyRing.hmac(
+					JwtKeyRing.DEFAULT_KEY_ID,
+					Map.of(JwtKeyRing.DEFAULT_KEY_ID,
+							Encoders.BASE64.encode(Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded())));
+			case "ES256" -> keyRing = generateEcdsa();
+			default -> edDsaKeyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+		}
+		parser = keyRing != null
+				? Jwts.parserBuilder().setSigningKey(keyRing.verificationKey(keyRing.activeKeyId())).build()
+				: Jwts.parserBuilder().build();
+		token = sign();
+	}
+
+	@Benchmark
+	public String sign() throws GeneralSecurityException {
+		if (keyRing == null) {
+			return signWithEdDsa();
+		}
+		return Jwts.builder()
+				.setHeaderParam(JwsHeader.KEY_ID, keyRing.activeKeyId())
+				.setSubject("1")
+				.setIssuedAt(new Date())
+				.setExpiration(Date.from(Instant.now().plusSeconds(900)))
+				.signWith(keyRing.signingKey(), keyRing.algorithm())
+				.compact();
+	}
+
+	@Benchmark
+	public Claims verify() throws GeneralSecurityException {
+		if (keyRing == null) {
+			return verifyWithEdDsa();
+		}
+		return parser.parseClaimsJws(token).getBody();
+	}
+
+	private JwtKeyRing generateEcdsa() {
+		KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+		return new JwtKeyRing(
+				SignatureAlgorithm.ES256,
+				JwtKeyRing.DEFAULT_KEY_ID,
+				keyPair.getPrivate(),
+				Map.of(JwtKeyRing.DEFAULT_KEY_ID, keyPair.getPublic()));
+	}
+
+	private String signWithEdDsa() throws GeneralSecurityException {
+		// "<header>.<payload>." as no signature is given to jjwt
+		String unsignedToken = Jwts.builder()
+				.setHeaderParam(JwsHeader.KEY_ID, EDDSA)
+				.setSubject("1")
+				.setIssuedAt(new Date())
+				.setExpiration(Date.from(Instant.now().plusSeconds(900)))
+				.compact();
+		String signingInput = unsignedToken.substring(0, unsignedToken.length() - 1);
+
+		Signature signer = Signature.getInstance("Ed25519");
+		signer.initSign(edDsaKeyPair.getPrivate());
+		signer.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+		return signingInput + "." + Encoders.BASE64URL.encode(signer.sign());
+	}
+
+	private Claims verifyWithEdDsa() throws GeneralSecurityException {
+		int signatureStart = token.lastIndexOf('.');
+
+		Signature verifier = Signature.getInstance("Ed25519");
+		verifier.initVerify(edDsaKeyPair.getPublic());
+		verifier.update(token.substring(0, signatureStart).getBytes(StandardCharsets.US_ASCII));
+		if (!verifier.verify(Decoders.BASE64URL.decode(token.substring(signatureStart + 1)))) {
+			throw new IllegalStateException("Invalid signature");
+		}
+		return parser.parseClaimsJwt(token.substring(0, signatureStart + 1)).getBody();
+	}
+}
@@ -0,0 +1,89 @@
+package app.diy.note_taking_app.benchmark;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import app.diy.note_taking_app.configuration.JwtKeyManager;
+import app.diy.note_taking_app.configuration.TestConfigProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Tokens/sec of signing and verifying JWT tokens when the key and the parser
+ * are built on every call (before) and when they are built once (after).
+ *
+ * mvn -P benchmark test-compile exec:exec -Dbenchmark.includes=JwtServiceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtServiceBenchmark {
+
+	private String decodeSecretKey;
+	private JwtKeyManager jwtKeyManager;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		decodeSecretKey = Encoders.BASE64.encode(Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded());
+		jwtKeyManager = new JwtKeyManager(
+				TestConfigProperties.bind(Map.of("decode-secret-key", decodeSecretKey)),
+				event -> {
+				});
+		token = signWithPrebuiltKey();
+	}
+
+	@Benchmark
+	public String signWithKeyBuiltPerCall() {
+		return Jwts.builder()
+				.setSubject("1")
+				.setIssuedAt(new Date())
+				.setExpiration(Date.from(Instant.now().plusSeconds(3600)))
+				.signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(decodeSecretKey)), SignatureAlgorithm.HS256)
+				.compact();
+	}
+
+	@Benchmark
+	public String signWithPrebuiltKey() {
+		return Jwts.builder()
+				.setSubject("1")
+				.setIssuedAt(new Date())
+				.setExpiration(Date.from(Instant.now().plusSeconds(3600)))
+				.signWith(jwtKeyManager.getKeyRing().signingKey(), SignatureAlgorithm.HS256)
+				.compact();
+	}
+
+	@Benchmark
+	public Claims verifyWithParserBuiltPerCall() {
+		return Jwts.parserBuilder()
+				.setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(decodeSecretKey)))
+				.build()
+				.parseClaimsJws(token)
+				.getBody();
+	}
+
+	@Benchmark
+	public Claims verifyWithPrebuiltParser() {
+		return jwtKeyManager.getParser().parseClaimsJws(token).getBody();
+	}
+}
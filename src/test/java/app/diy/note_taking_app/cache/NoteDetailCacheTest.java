@@ -0,0 +1,141 @@
+package app.diy.note_taking_app.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import app.diy.note_taking_app.configuration.TestConfigProperties;
+import app.diy.note_taking_app.domain.entity.Note;
+import app.diy.note_taking_app.domain.entity.User;
+import app.diy.note_taking_app.domain.entity.UserPermission;
+import app.diy.note_taking_app.repository.NoteRepository;
+import app.diy.note_taking_app.repository.UserPermissionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class NoteDetailCacheTest {
+
+	private NoteDetailCache target;
+
+	private NoteRepository mockNoteRepository;
+
+	private UserPermissionRepository mockUserPermissionRepository;
+
+	private InJvmNoteInvalidationBroadcast broadcast;
+
+	private Note note;
+
+	@BeforeEach
+	void init() {
+		mockNoteRepository = mock(NoteRepository.class);
+		mockUserPermissionRepository = mock(UserPermissionRepository.class);
+		broadcast = new InJvmNoteInvalidationBroadcast();
+		target = newNoteDetailCache();
+		note = Note.builder()
+				.id(1)
+				.title("Title 1")
+				.contents("First note")
+				.deletedFlag(false)
+				.createdAt(LocalDateTime.of(2024, 1, 1, 9, 0))
+				.createdUser(User.builder().id(1).name("tester").build())
+				.updatedAt(LocalDateTime.of(2024, 1, 2, 9, 0))
+				.updatedUser(User.builder().id(1).name("tester").build())
+				.build();
+	}
+
+	@Test
+	void get_CalledTwice_LoadNoteOnce() {
+		List<UserPermission> userPermissions = List.of(UserPermission.builder()
+				.id(100)
+				.user(User.builder().id(2).build())
+				.type("{\"readOnly\": true, \"readWrite\": false}")
+				.build());
+		when(mockNoteRepository.findWithUsersById(1)).thenReturn(Optional.of(note));
+		when(mockUserPermissionRepository.findByNote_IdAndDeletedFlagFalseAndAcceptedFlagTrue(1))
+				.thenReturn(userPermissions);
+
+		assertEquals("First note", target.get(1).get().contents());
+		assertEquals(2, target.get(1).get().sharedUsers().get(0).getUserId());
+		verify(mockNoteRepository, times(1)).findWithUsersById(1);
+		verify(mockUserPermissionRepository, times(1)).findByNote_IdAndDeletedFlagFalseAndAcceptedFlagTrue(1);
+	}
+
+	@Test
+	void get_InexistentNote_ReturnEmptyAndNotCache() {
+		when(mockNoteRepository.findWithUsersById(1)).thenReturn(Optional.empty());
+
+		assertTrue(target.get(1).isEmpty());
+		assertTrue(target.get(1).isEmpty());
+		verify(mockNoteRepository, times(2)).findWithUsersById(1);
+		verify(mockUserPermissionRepository, never()).findByNote_IdAndDeletedFlagFalseAndAcceptedFlagTrue(1);
+	}
+
+	@Test
+	void getIfPresent_NotCachedNote_ReturnEmptyWithoutLoading() {
+		when(mockNoteRepository.findWithUsersById(1)).thenReturn(Optional.of(note));
+		when(mockUserPermissionRepository.findByNote_IdAndDeletedFlagFalseAndAcceptedFlagTrue(1))
+				.thenReturn(List.of());
+
+		assertTrue(target.getIfPresent(1).isEmpty());
+		target.get(1);
+
+		assertEquals("First note", target.getIfPresent(1).get().contents());
+		verify(mockNoteRepository, times(1)).findWithUsersById(1);
+	}
+
+	@Test
+	void invalidate_CachedNote_LoadNoteAgain() {
+		Note updatedNote = Note.builder()
+				.id(1)
+				.title("Title 1")
+				.contents("Updated note")
+				.createdUser(note.getCreatedUser())
+				.updatedUser(note.getUpdatedUser())
+				.build();
+		when(mockNoteRepository.findWithUsersById(1))
+				.thenReturn(Optional.of(note))
+				.thenReturn(Optional.of(updatedNote));
+		when(mockUserPermissionRepository.findByNote_IdAndDeletedFlagFalseAndAcceptedFlagTrue(1))
+				.thenReturn(List.of());
+
+		target.get(1);
+		target.invalidate(1);
+
+		assertEquals("Updated note", target.get(1).get().contents());
+		verify(mockNoteRepository, times(2)).findWithUsersById(1);
+	}
+
+	@Test
+	void invalidate_NoteCachedOnAnotherNode_LoadNoteAgainOnThatNode() {
+		NoteDetailCache anotherNode = newNoteDetailCache();
+		when(mockNoteRepository.findWithUsersById(1)).thenReturn(Optional.of(note));
+		when(mockUserPermissionRepository.findByNote_IdAndDeletedFlagFalseAndAcceptedFlagTrue(1))
+				.thenReturn(List.of());
+
+		anotherNode.get(1);
+		target.invalidate(1);
+		anotherNode.get(1);
+
+		verify(mockNoteRepository, times(2)).findWithUsersById(1);
+	}
+
+	private NoteDetailCache newNoteDetailCache() {
+		return new NoteDetailCache(
+				TestConfigProperties.bind(Map.of("note-cache.maximum-size", "100")),
+				mockNoteRepository,
+				mockUserPermissionRepository,
+				broadcast,
+				new SimpleMeterRegistry());
+	}
+}
@@ -0,0 +1,254 @@
+package app.diy.note_taking_app.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import app.diy.note_taking_app.configuration.TestConfigProperties;
+import app.diy.note_taking_app.domain.dto.AuthenticatedUser;
+import app.diy.note_taking_app.domain.dto.NoteView;
+import app.diy.note_taking_app.domain.dto.UserAuthorization;
+import app.diy.note_taking_app.domain.dto.request.NoteUpdateRequest;
+import app.diy.note_taking_app.domain.entity.User;
+import app.diy.note_taking_app.exceptions.NoteVersionConflictException;
+import app.diy.note_taking_app.repository.NoteRepository;
+import jakarta.persistence.EntityManager;
+
+public class NoteWriteBufferTest {
+
+	private NoteWriteBuffer target;
+
+	private NoteRepository mockNoteRepository;
+
+	private NoteDetailCache mockNoteDetailCache;
+
+	private EntityManager mockEntityManager;
+
+	private PlatformTransactionManager mockTransactionManager;
+
+	private AuthenticatedUser user;
+
+	private User userReference;
+
+	@BeforeEach
+	void init() {
+		mockNoteRepository = mock(NoteRepository.class);
+		mockNoteDetailCache = mock(NoteDetailCache.class);
+		mockEntityManager = mock(EntityManager.class);
+		mockTransactionManager = mock(PlatformTransactionManager.class);
+		target = newNoteWriteBuffer(2);
+		user = AuthenticatedUser.builder().id(1).name("tester").build();
+		userReference = User.builder().id(1).build();
+		when(mockEntityManager.getReference(User.class, 1)).thenReturn(userReference);
+		when(mockNoteRepository.updateBufferedNote(anyInt(), any(), any(), anyLong(), anyLong(), any(), any()))
+				.thenReturn(1);
+	}
+
+	@Test
+	void buffer_UpdatedTwice_WriteLatestUpdateOnce() {
+		target.buffer(noteView(1, 3), updateRequest("First"), null, user);
+		NoteView acknowledged = target.buffer(noteView(1, 3), updateRequest("Second"), null, user).get();
+
+		assertEquals("Second", acknowledged.contents());
+		assertEquals(5, acknowledged.version());
+		assertEquals("tester", acknowledged.updatedBy());
+		verify(mockNoteRepository, never())
+				.updateBufferedNote(anyInt(), any(), any(), anyLong(), anyLong(), any(), any());
+
+		assertTrue(target.flush(1));
+		assertFalse(target.flush(1), "Written update should not be written again");
+		verify(mockNoteRepository, times(1)).updateBufferedNote(
+				1, "Title", "Second", 2, 3, acknowledged.updatedAt(), userReference);
+		verify(mockNoteDetailCache, times(1)).invalidate(1);
+	}
+
+	@Test
+	void buffer_BufferIsFull_ReturnEmpty() {
+		target.buffer(noteView(1, 0), updateRequest("First"), null, user);
+		target.buffer(noteView(2, 0), updateRequest("First"), null, user);
+
+		assertTrue(target.buffer(noteView(3, 0), updateRequest("First"), null, user).isEmpty());
+		assertTrue(target.buffer(noteView(1, 0), updateRequest("Second"), null, user).isPresent(),
+				"Note already buffered should still be buffered");
+	}
+
+	@Test
+	void buffer_NoteIsAheadOfExpectedVersion_ThrowNoteVersionConflictException() {
+		target.buffer(noteView(1, 3), updateRequest("First"), 3L, user);
+
+		NoteVersionConflictException e = assertThrows(
+				NoteVersionConflictException.class,
+				() -> target.buffer(noteView(1, 3), updateRequest("Second"), 3L, user));
+		assertEquals(4, e.getCurrentVersion());
+		assertEquals(5, target.buffer(noteView(1, 3), updateRequest("Second"), 4L, user).get().version());
+	}
+
+	@Test
+	void flushVisibleTo_NotesOfOtherUsers_NotWrite() {
+		target.buffer(noteView(1, 0), updateRequest("Author"), null, user);
+		target.buffer(
+				new NoteView(2, "Title", "Contents", null, 2, "other", null, "other", false, 0,
+						List.of(UserAuthorization.builder().userId(1).build())),
+				updateRequest("Shared"),
+				null,
+				user);
+		target.buffer(
+				new NoteView(3, "Title", "Contents", null, 2, "other", null, "other", false, 0, List.of()),
+				updateRequest("Unshared"),
+				null,
+				user);
+
+		target.flushVisibleTo(1);
+
+		verify(mockNoteRepository, times(2))
+				.updateBufferedNote(anyInt(), any(), any(), anyLong(), anyLong(), any(), any());
+		verify(mockNoteRepository, never()).updateBufferedNote(eq(3), any(), any(), anyLong(), anyLong(), any(), any());
+	}
+
+	@Test
+	void flushAll_WriteFailed_KeepUpdateBuffered() {
+		target.buffer(noteView(1, 0), updateRequest("First"), null, user);
+		doThrow(new RuntimeException()).when(mockNoteRepository)
+				.updateBufferedNote(anyInt(), any(), any(), anyLong(), anyLong(), any(), any());
+
+		assertThrows(RuntimeException.class, target::flushAll);
+		verify(mockNoteDetailCache, never()).invalidate(anyInt());
+
+		doReturn(1).when(mockNoteRepository)
+				.updateBufferedNote(anyInt(), any(), any(), anyLong(), anyLong(), any(), any());
+		assertTrue(target.flush(1), "Failed update should be written next time");
+	}
+
+	@Test
+	void flush_JoinTransactionOfCaller() {
+		target.buffer(noteView(1, 0), updateRequest("First"), null, user);
+
+		target.flush(1);
+
+		ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+		verify(mockTransactionManager).getTransaction(definition.capture());
+		assertEquals(TransactionDefinition.PROPAGATION_REQUIRED, definition.getValue().getPropagationBehavior());
+	}
+
+	@Test
+	void flush_TransactionRolledBack_KeepUpdateBuffered() {
+		target.buffer(noteView(1, 3), updateRequest("First"), null, user);
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			assertTrue(target.flush(1));
+			NoteView acknowledged = target.buffer(noteView(1, 3), updateRequest("Second"), null, user).get();
+			assertEquals(5, acknowledged.version(), "Update while writing should be based on the written update");
+
+			TransactionSynchronizationManager.getSynchronizations()
+					.forEach(synchronization -> synchronization.afterCompletion(
+							TransactionSynchronization.STATUS_ROLLED_BACK));
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertTrue(target.flush(1), "Rolled back update should be written next time");
+		verify(mockNoteRepository, times(1)).updateBufferedNote(
+				eq(1), eq("Title"), eq("Second"), eq(2L), eq(3L), any(), eq(userReference));
+	}
+
+	@Test
+	void flush_TransactionCommitted_NotWriteAgain() {
+		target.buffer(noteView(1, 3), updateRequest("First"), null, user);
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			target.flush(1);
+			TransactionSynchronizationManager.getSynchronizations()
+					.forEach(synchronization -> synchronization.afterCompletion(
+							TransactionSynchronization.STATUS_COMMITTED));
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertFalse(target.flush(1));
+		assertEquals(11, target.buffer(noteView(1, 10), updateRequest("Second"), null, user).get().version(),
+				"Update after commit should be based on the note");
+	}
+
+	@Test
+	void flush_UpdateBufferedWhileWriting_WriteOnWrittenVersion() {
+		target.buffer(noteView(1, 3), updateRequest("First"), null, user);
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			target.flush(1);
+			target.buffer(noteView(1, 3), updateRequest("Second"), null, user);
+			TransactionSynchronizationManager.getSynchronizations()
+					.forEach(synchronization -> synchronization.afterCompletion(
+							TransactionSynchronization.STATUS_COMMITTED));
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertTrue(target.flush(1));
+		verify(mockNoteRepository, times(1)).updateBufferedNote(
+				eq(1), eq("Title"), eq("First"), eq(1L), eq(3L), any(), eq(userReference));
+		verify(mockNoteRepository, times(1)).updateBufferedNote(
+				eq(1), eq("Title"), eq("Second"), eq(1L), eq(4L), any(), eq(userReference));
+	}
+
+	@Test
+	void flush_NoteWasUpdatedMeanwhile_DropUpdate() {
+		target.buffer(noteView(1, 3), updateRequest("First"), null, user);
+		when(mockNoteRepository.updateBufferedNote(anyInt(), any(), any(), anyLong(), anyLong(), any(), any()))
+				.thenReturn(0);
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			assertTrue(target.flush(1));
+			assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty(),
+					"Dropped update should not be buffered again on rollback");
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		verify(mockNoteDetailCache, times(1)).invalidate(1);
+		assertFalse(target.flush(1), "Dropped update should not be written again");
+		assertEquals(11, target.buffer(noteView(1, 10), updateRequest("Second"), null, user).get().version(),
+				"Update after the dropped one should be based on the note");
+	}
+
+	private NoteWriteBuffer newNoteWriteBuffer(int maximumPendingNotes) {
+		return new NoteWriteBuffer(
+				TestConfigProperties.bind(Map.of(
+						"note-write-behind.enabled", "true",
+						"note-write-behind.maximum-pending-notes", String.valueOf(maximumPendingNotes))),
+				mockNoteRepository,
+				mockNoteDetailCache,
+				mockEntityManager,
+				mockTransactionManager);
+	}
+
+	private NoteView noteView(Integer id, long version) {
+		return new NoteView(id, "Title", "Contents", null, 1, "tester", null, "tester", false, version, List.of());
+	}
+
+	private NoteUpdateRequest updateRequest(String contents) {
+		return NoteUpdateRequest.builder().title("Title").contents(contents).build();
+	}
+}
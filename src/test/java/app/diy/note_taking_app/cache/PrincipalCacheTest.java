@@ -0,0 +1,91 @@
+package app.diy.note_taking_app.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import app.diy.note_taking_app.configuration.TestConfigProperties;
+import app.diy.note_taking_app.constant.Role;
+import app.diy.note_taking_app.domain.dto.AuthenticatedUser;
+import app.diy.note_taking_app.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class PrincipalCacheTest {
+
+	private PrincipalCache target;
+
+	private UserRepository mockUserRepository;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private AuthenticatedUser user;
+
+	@BeforeEach
+	void init() {
+		mockUserRepository = mock(UserRepository.class);
+		meterRegistry = new SimpleMeterRegistry();
+		target = new PrincipalCache(
+				TestConfigProperties.bind(Map.of("principal-cache.maximum-size", "100")),
+				mockUserRepository,
+				meterRegistry);
+		user = AuthenticatedUser.builder()
+				.id(1)
+				.name("tester")
+				.email("test@gmail.com")
+				.role(Role.USER)
+				.deletedFlag(false)
+				.build();
+	}
+
+	@Test
+	void get_CalledTwice_LoadUserOnce() {
+		when(mockUserRepository.findAuthenticatedUserById(1)).thenReturn(Optional.of(user));
+
+		assertEquals(user, target.get(1).get());
+		assertEquals(user, target.get(1).get());
+		verify(mockUserRepository, times(1)).findAuthenticatedUserById(1);
+	}
+
+	@Test
+	void get_InexistentUser_ReturnEmptyAndNotCache() {
+		when(mockUserRepository.findAuthenticatedUserById(1)).thenReturn(Optional.empty());
+
+		assertTrue(target.get(1).isEmpty());
+		assertTrue(target.get(1).isEmpty());
+		verify(mockUserRepository, times(2)).findAuthenticatedUserById(1);
+	}
+
+	@Test
+	void invalidate_CachedUser_LoadUserAgain() {
+		when(mockUserRepository.findAuthenticatedUserById(1))
+				.thenReturn(Optional.of(user))
+				.thenReturn(Optional.empty());
+
+		target.get(1);
+		target.invalidate(1);
+
+		assertTrue(target.get(1).isEmpty(), "Deleted user should not be returned");
+		verify(mockUserRepository, times(2)).findAuthenticatedUserById(1);
+	}
+
+	@Test
+	void get_HitAndMiss_RecordMetrics() {
+		when(mockUserRepository.findAuthenticatedUserById(1)).thenReturn(Optional.of(user));
+
+		target.get(1);
+		target.get(1);
+
+		assertEquals(1, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+		assertEquals(1, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+		assertEquals(1, meterRegistry.get("cache.load").tag("result", "success").functionCounter().count());
+	}
+}
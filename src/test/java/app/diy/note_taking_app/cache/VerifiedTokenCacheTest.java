@@ -0,0 +1,76 @@
+package app.diy.note_taking_app.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import app.diy.note_taking_app.configuration.TestConfigProperties;
+import app.diy.note_taking_app.domain.dto.TokenClaims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class VerifiedTokenCacheTest {
+
+	private VerifiedTokenCache target;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void init() {
+		meterRegistry = new SimpleMeterRegistry();
+		target = new VerifiedTokenCache(
+				TestConfigProperties.bind(Map.of("verified-token-cache.maximum-size", "100")),
+				meterRegistry);
+	}
+
+	@Test
+	void get_PutToken_ReturnTokenClaims() {
+		TokenClaims tokenClaims = tokenClaims(Instant.now(Clock.systemUTC()).plusSeconds(60));
+
+		target.put("token", tokenClaims);
+
+		assertEquals(tokenClaims, target.get("token").get());
+		assertTrue(target.get("other token").isEmpty());
+	}
+
+	@Test
+	void get_ExpiredToken_ReturnEmpty() {
+		target.put("token", tokenClaims(Instant.now(Clock.systemUTC()).minusSeconds(1)));
+
+		assertTrue(target.get("token").isEmpty());
+	}
+
+	@Test
+	void invalidateAll_PutToken_ReturnEmpty() {
+		target.put("token", tokenClaims(Instant.now(Clock.systemUTC()).plusSeconds(60)));
+
+		target.invalidateAll();
+
+		assertTrue(target.get("token").isEmpty());
+	}
+
+	@Test
+	void get_HitAndMiss_RecordMetrics() {
+		target.put("token", tokenClaims(Instant.now(Clock.systemUTC()).plusSeconds(60)));
+
+		target.get("token");
+		target.get("other token");
+
+		assertEquals(1, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+		assertEquals(1, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+	}
+
+	private TokenClaims tokenClaims(Instant expiration) {
+		return TokenClaims.builder()
+				.subject("1")
+				.issuedAt(Instant.now(Clock.systemUTC()))
+				.expiration(expiration)
+				.extraClaims(Map.of())
+				.build();
+	}
+}
@@ -0,0 +1,142 @@
+package app.diy.note_taking_app.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import app.diy.note_taking_app.exceptions.PasswordHashingUnavailableException;
+
+public class BoundedPasswordEncoderTest {
+
+	private BoundedPasswordEncoder target;
+
+	@AfterEach
+	void cleanUpEach() {
+		target.destroy();
+	}
+
+	@Test
+	void matches_EncodedPassword_ReturnTrue() {
+		target = new BoundedPasswordEncoder(delegatingEncoder(4), hashingProp(1, 1));
+
+		String encoded = target.encode("password");
+
+		assertTrue(encoded.startsWith("{bcrypt}"));
+		assertTrue(target.matches("password", encoded));
+		assertFalse(target.matches("other password", encoded));
+	}
+
+	@Test
+	void upgradeEncoding_HashWithoutPrefixOrWeakerStrength_ReturnTrue() {
+		target = new BoundedPasswordEncoder(delegatingEncoder(5), hashingProp(1, 1));
+
+		assertTrue(target.upgradeEncoding(new BCryptPasswordEncoder(5).encode("password")));
+		assertTrue(target.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(4).encode("password")));
+		assertFalse(target.upgradeEncoding(target.encode("password")));
+	}
+
+	@Test
+	void encode_ThreadAndQueueAreBusy_ThrowException() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		PasswordEncoder blockingEncoder = new PasswordEncoder() {
+			@Override
+			public String encode(CharSequence rawPassword) {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return rawPassword.toString();
+			}
+
+			@Override
+			public boolean matches(CharSequence rawPassword, String encodedPassword) {
+				return rawPassword.toString().equals(encodedPassword);
+			}
+		};
+		target = new BoundedPasswordEncoder(blockingEncoder, hashingProp(1, 1));
+
+		// one call occupies the thread and the other one waits in the queue
+		CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> target.encode("first"));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> target.encode("second"));
+		Thread.sleep(100);
+
+		try {
+			PasswordHashingUnavailableException e = assertThrows(
+					PasswordHashingUnavailableException.class,
+					() -> target.encode("third"));
+			assertEquals(Duration.ofSeconds(3), e.getRetryAfter());
+		} finally {
+			release.countDown();
+		}
+		assertEquals("first", running.get(5, TimeUnit.SECONDS));
+		assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void encode_NotDoneWithinMaximumWait_ThrowException() throws Exception {
+		CountDownLatch interrupted = new CountDownLatch(1);
+		PasswordEncoder blockingEncoder = new PasswordEncoder() {
+			@Override
+			public String encode(CharSequence rawPassword) {
+				try {
+					Thread.sleep(Duration.ofSeconds(10).toMillis());
+				} catch (InterruptedException e) {
+					interrupted.countDown();
+				}
+				return rawPassword.toString();
+			}
+
+			@Override
+			public boolean matches(CharSequence rawPassword, String encodedPassword) {
+				return rawPassword.toString().equals(encodedPassword);
+			}
+		};
+		target = new BoundedPasswordEncoder(
+				blockingEncoder,
+				new NoteTakingAppConfigProperties.PasswordHashing(
+						4,
+						1,
+						1,
+						Duration.ofSeconds(3),
+						Duration.ofMillis(100)));
+
+		PasswordHashingUnavailableException e = assertThrows(
+				PasswordHashingUnavailableException.class,
+				() -> target.encode("password"));
+		assertEquals(Duration.ofSeconds(3), e.getRetryAfter());
+		assertTrue(interrupted.await(5, TimeUnit.SECONDS), "Hashing thread should be released");
+	}
+
+	private PasswordEncoder delegatingEncoder(int strength) {
+		BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+		DelegatingPasswordEncoder delegatingEncoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+		delegatingEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+		return delegatingEncoder;
+	}
+
+	private NoteTakingAppConfigProperties.PasswordHashing hashingProp(int threads, int queueCapacity) {
+		return new NoteTakingAppConfigProperties.PasswordHashing(
+				4,
+				threads,
+				queueCapacity,
+				Duration.ofSeconds(3),
+				Duration.ofSeconds(5));
+	}
+}
@@ -0,0 +1,212 @@
+package app.diy.note_taking_app.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.Key;
+import java.security.KeyPair;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+
+public class JwtKeyManagerTest {
+
+	@TempDir
+	Path tempDir;
+
+	private Path keyRingFile;
+	private String firstKey;
+	private String secondKey;
+	private List<Object> publishedEvents;
+
+	@BeforeEach
+	void init() {
+		keyRingFile = tempDir.resolve("jwt-keys.json");
+		firstKey = Encoders.BASE64.encode(Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded());
+		secondKey = Encoders.BASE64.encode(Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded());
+		publishedEvents = new ArrayList<>();
+	}
+
+	@Test
+	void getParser_KeyRingFile_VerifyTokensOfEveryKey() throws IOException {
+		writeKeyRingFile("second", Instant.parse("2024-01-01T09:00:00Z"));
+		JwtKeyManager target = newKeyManager();
+
+		assertEquals("second", target.getKeyRing().activeKeyId());
+		assertEquals("1", target.getParser().parseClaimsJws(sign("first", firstKey)).getBody().getSubject());
+		assertEquals("1", target.getParser().parseClaimsJws(sign("second", secondKey)).getBody().getSubject());
+		assertThrows(SignatureException.class, () -> target.getParser().parseClaimsJws(sign("second", firstKey)));
+		assertThrows(SignatureException.class, () -> target.getParser().parseClaimsJws(sign("third", firstKey)));
+	}
+
+	@Test
+	void reloadKeyRing_FileWasModified_ReplaceKeyRing() throws IOException {
+		writeKeyRingFile("first", Instant.parse("2024-01-01T09:00:00Z"));
+		JwtKeyManager target = newKeyManager();
+
+		writeKeyRingFile("second", Instant.parse("2024-01-01T10:00:00Z"));
+		target.reloadKeyRing();
+
+		assertEquals("second", target.getKeyRing().activeKeyId());
+		assertEquals(1, publishedEvents.size());
+	}
+
+	@Test
+	void reloadKeyRing_FileWasNotModified_KeepKeyRing() throws IOException {
+		writeKeyRingFile("first", Instant.parse("2024-01-01T09:00:00Z"));
+		JwtKeyManager target = newKeyManager();
+		JwtKeyRing keyRing = target.getKeyRing();
+
+		target.reloadKeyRing();
+
+		assertEquals(keyRing, target.getKeyRing());
+		assertEquals(0, publishedEvents.size());
+	}
+
+	@Test
+	void reloadKeyRing_BrokenFile_KeepKeyRing() throws IOException {
+		writeKeyRingFile("first", Instant.parse("2024-01-01T09:00:00Z"));
+		JwtKeyManager target = newKeyManager();
+		JwtKeyRing keyRing = target.getKeyRing();
+
+		Files.writeString(keyRingFile, "{\"activeKeyId\":\"unknown\",\"keys\":{}}");
+		Files.setLastModifiedTime(keyRingFile, FileTime.from(Instant.parse("2024-01-01T10:00:00Z")));
+
+		assertThrows(IllegalArgumentException.class, target::reloadKeyRing);
+		assertEquals(keyRing, target.getKeyRing());
+	}
+
+	@Test
+	void retire_ActiveKey_ThrowIllegalArgumentException() {
+		keyRingFile = null;
+		JwtKeyManager target = newKeyManager();
+
+		assertThrows(IllegalArgumentException.class, () -> target.retire(JwtKeyRing.DEFAULT_KEY_ID));
+	}
+
+	@Test
+	void rotate_KeyRingFile_ThrowIllegalStateException() throws IOException {
+		writeKeyRingFile("first", Instant.parse("2024-01-01T09:00:00Z"));
+		JwtKeyManager target = newKeyManager();
+
+		assertThrows(IllegalStateException.class, () -> target.rotate("third", secondKey));
+		assertThrows(IllegalStateException.class, () -> target.retire("second"));
+		assertEquals("first", target.getKeyRing().activeKeyId());
+		assertEquals(2, target.getKeyRing().verificationKeys().size());
+	}
+
+	@Test
+	void rotate_WithoutKeyRingFile_SignWithNewKeyAndVerifyPreviousKey() {
+		keyRingFile = null;
+		JwtKeyManager target = newKeyManager();
+
+		target.rotate("next", secondKey);
+
+		assertEquals("next", target.getKeyRing().activeKeyId());
+		assertEquals("1", target.getParser().parseClaimsJws(sign("next", secondKey)).getBody().getSubject());
+		assertEquals(Set.of(JwtKeyRing.DEFAULT_KEY_ID, "next"), target.getKeyRing().verificationKeys().keySet());
+	}
+
+	@Test
+	void getParser_Es256KeyRingFile_VerifyTokensOfEveryPublicKey() throws IOException {
+		KeyPair firstKeyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+		KeyPair secondKeyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+		Files.writeString(keyRingFile, """
+				{"activeKeyId":"second","privateKey":"%s","publicKeys":{"first":"%s","second":"%s"}}
+				""".formatted(
+				Encoders.BASE64.encode(secondKeyPair.getPrivate().getEncoded()),
+				Encoders.BASE64.encode(firstKeyPair.getPublic().getEncoded()),
+				Encoders.BASE64.encode(secondKeyPair.getPublic().getEncoded())));
+		JwtKeyManager target = newKeyManager(NoteTakingAppConfigProperties.SigningAlgorithm.ES256);
+
+		assertEquals(SignatureAlgorithm.ES256, target.getKeyRing().algorithm());
+		assertEquals(secondKeyPair.getPrivate(), target.getKeyRing().signingKey());
+		assertEquals("1", target.getParser()
+				.parseClaimsJws(sign("first", firstKeyPair.getPrivate(), SignatureAlgorithm.ES256))
+				.getBody()
+				.getSubject());
+		assertEquals("1", target.getParser()
+				.parseClaimsJws(sign("second", secondKeyPair.getPrivate(), SignatureAlgorithm.ES256))
+				.getBody()
+				.getSubject());
+		assertThrows(SignatureException.class, () -> target.getParser()
+				.parseClaimsJws(sign("second", firstKeyPair.getPrivate(), SignatureAlgorithm.ES256)));
+	}
+
+	@Test
+	void new_Es256WithoutKeyRingFile_ThrowIllegalStateException() {
+		keyRingFile = null;
+
+		assertThrows(
+				IllegalStateException.class,
+				() -> newKeyManager(NoteTakingAppConfigProperties.SigningAlgorithm.ES256));
+	}
+
+	@Test
+	void rotate_Es256KeyRing_ThrowIllegalStateException() throws IOException {
+		KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+		Files.writeString(keyRingFile, """
+				{"activeKeyId":"first","privateKey":"%s","publicKeys":{"first":"%s"}}
+				""".formatted(
+				Encoders.BASE64.encode(keyPair.getPrivate().getEncoded()),
+				Encoders.BASE64.encode(keyPair.getPublic().getEncoded())));
+		JwtKeyManager target = newKeyManager(NoteTakingAppConfigProperties.SigningAlgorithm.ES256);
+
+		assertThrows(IllegalStateException.class, () -> target.rotate("next", firstKey));
+	}
+
+	private JwtKeyManager newKeyManager() {
+		return newKeyManager(NoteTakingAppConfigProperties.SigningAlgorithm.HS256);
+	}
+
+	private JwtKeyManager newKeyManager(NoteTakingAppConfigProperties.SigningAlgorithm algorithm) {
+		return new JwtKeyManager(
+				TestConfigProperties.bind(keyRingFile != null
+						? Map.of(
+								"signing-keys.key-ring-file", keyRingFile.toString(),
+								"signing-keys.algorithm", algorithm.name())
+						: Map.of(
+								"decode-secret-key", firstKey,
+								"signing-keys.algorithm", algorithm.name())),
+				publishedEvents::add);
+	}
+
+	private void writeKeyRingFile(String activeKeyId, Instant modifiedAt) throws IOException {
+		Files.writeString(keyRingFile, """
+				{"activeKeyId":"%s","keys":{"first":"%s","second":"%s"}}
+				""".formatted(activeKeyId, firstKey, secondKey));
+		Files.setLastModifiedTime(keyRingFile, FileTime.from(modifiedAt));
+	}
+
+	private String sign(String keyId, String secretKey) {
+		return sign(keyId, Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)), SignatureAlgorithm.HS256);
+	}
+
+	private String sign(String keyId, Key key, SignatureAlgorithm algorithm) {
+		return Jwts.builder()
+				.setHeaderParam(JwsHeader.KEY_ID, keyId)
+				.setSubject("1")
+				.setExpiration(Date.from(Instant.now().plusSeconds(60)))
+				.signWith(key, algorithm)
+				.compact();
+	}
+}
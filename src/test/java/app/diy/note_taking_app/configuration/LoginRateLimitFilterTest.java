@@ -0,0 +1,114 @@
+package app.diy.note_taking_app.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.diy.note_taking_app.Util.StringUtil;
+import app.diy.note_taking_app.domain.dto.request.AuthenticationRequest;
+import app.diy.note_taking_app.domain.dto.response.AuthenticationResponse;
+import app.diy.note_taking_app.service.AuthenticationService;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(webEnvironment = WebEnvironment.MOCK)
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+		"note-taking.login-rate-limit.ip-limit=3",
+		"note-taking.login-rate-limit.email-limit=2",
+})
+public class LoginRateLimitFilterTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@MockBean
+	private AuthenticationService mockAuthService;
+
+	@Test
+	void authenticate_SameEmailOverLimit_TooManyRequests() throws Exception {
+		when(mockAuthService.authenticate(any())).thenReturn(new AuthenticationResponse());
+		double rejected = meterRegistry.get("auth.rate.limit.rejected").tag("key", "email").counter().count();
+
+		mockMvc.perform(authenticate("10.0.0.1", "Limited@gmail.com")).andExpect(status().isOk());
+		mockMvc.perform(authenticate("10.0.0.2", "limited@gmail.com")).andExpect(status().isOk());
+		mockMvc.perform(authenticate("10.0.0.3", "limited@gmail.com"))
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().string(HttpHeaders.RETRY_AFTER, "60"));
+
+		verify(mockAuthService, times(2)).authenticate(any());
+		assertEquals(
+				rejected + 1,
+				meterRegistry.get("auth.rate.limit.rejected").tag("key", "email").counter().count());
+	}
+
+	@Test
+	void authenticate_SameIpOverLimit_TooManyRequests() throws Exception {
+		when(mockAuthService.authenticate(any())).thenReturn(new AuthenticationResponse());
+
+		mockMvc.perform(authenticate("10.0.1.1", "first@gmail.com")).andExpect(status().isOk());
+		mockMvc.perform(authenticate("10.0.1.1", "second@gmail.com")).andExpect(status().isOk());
+		mockMvc.perform(authenticate("10.0.1.1", "third@gmail.com")).andExpect(status().isOk());
+		mockMvc.perform(authenticate("10.0.1.1", "fourth@gmail.com")).andExpect(status().isTooManyRequests());
+		mockMvc.perform(authenticate("10.0.1.2", "fourth@gmail.com")).andExpect(status().isOk());
+	}
+
+	@Test
+	void authenticate_BodyOverMaximumSize_PayloadTooLarge() throws Exception {
+		mockMvc.perform(post("/v1/auth/authenticate")
+				.with(request -> {
+					request.setRemoteAddr("10.0.2.1");
+					return request;
+				})
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(StringUtil.convertJsonToString(
+						AuthenticationRequest.builder()
+								.email("large@gmail.com")
+								.password("a".repeat(8 * 1024))
+								.build(),
+						objectMapper)))
+				.andExpect(status().isPayloadTooLarge());
+
+		verify(mockAuthService, never()).authenticate(any());
+	}
+
+	private MockHttpServletRequestBuilder authenticate(String remoteAddr, String email) {
+		return post("/v1/auth/authenticate")
+				.with(request -> {
+					request.setRemoteAddr(remoteAddr);
+					return request;
+				})
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(StringUtil.convertJsonToString(
+						AuthenticationRequest.builder()
+								.email(email)
+								.password("test")
+								.build(),
+						objectMapper));
+	}
+}
@@ -0,0 +1,40 @@
+package app.diy.note_taking_app.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTask;
+import org.springframework.scheduling.config.ScheduledTaskHolder;
+import org.springframework.test.context.TestPropertySource;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+		"note-taking.signing-keys.reload-interval=45s",
+		"note-taking.note-write-behind.flush-interval=3s",
+		"note-taking.token-revocation.reload-interval=7s",
+})
+public class SchedulingConfigurationTest {
+
+	@Autowired
+	private ScheduledTaskHolder scheduledTaskHolder;
+
+	@Test
+	void scheduledTasks_DurationProperties_ScheduleWithBoundIntervals() {
+		Set<Duration> actual = scheduledTaskHolder.getScheduledTasks().stream()
+				.map(ScheduledTask::getTask)
+				.filter(FixedDelayTask.class::isInstance)
+				.map(task -> ((FixedDelayTask) task).getIntervalDuration())
+				.collect(Collectors.toSet());
+
+		assertEquals(
+				Set.of(Duration.ofSeconds(45), Duration.ofSeconds(3), Duration.ofSeconds(7), Duration.ofMinutes(10)),
+				actual);
+	}
+}
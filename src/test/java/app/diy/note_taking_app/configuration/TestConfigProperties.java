@@ -0,0 +1,31 @@
+package app.diy.note_taking_app.configuration;
+
+import java.util.Map;
+
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+/**
+ * Builds {@link NoteTakingAppConfigProperties} for tests the way the
+ * application binds them, so that a test sets only the properties it depends
+ * on and everything else takes the default of @DefaultValue
+ */
+public final class TestConfigProperties {
+
+	private TestConfigProperties() {
+	}
+
+	public static NoteTakingAppConfigProperties defaults() {
+		return bind(Map.of());
+	}
+
+	/**
+	 * @param properties properties without the note-taking prefix, like
+	 *                   {@code principal-cache.maximum-size}
+	 */
+	public static NoteTakingAppConfigProperties bind(Map<String, String> properties) {
+		MapConfigurationPropertySource source = new MapConfigurationPropertySource();
+		properties.forEach((name, value) -> source.put("note-taking." + name, value));
+		return new Binder(source).bindOrCreate("note-taking", NoteTakingAppConfigProperties.class);
+	}
+}
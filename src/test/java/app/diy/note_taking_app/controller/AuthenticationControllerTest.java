@@ -6,14 +6,19 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -29,8 +34,10 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -38,10 +45,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import app.diy.note_taking_app.Util.StringUtil;
 import app.diy.note_taking_app.configuration.NoteTakingAppConfigProperties;
 import app.diy.note_taking_app.domain.dto.ApiError;
+import app.diy.note_taking_app.domain.dto.UserIdentity;
 import app.diy.note_taking_app.domain.dto.request.AuthenticationRequest;
 import app.diy.note_taking_app.domain.dto.request.RegisterRequest;
 import app.diy.note_taking_app.domain.dto.response.AuthenticationResponse;
+import app.diy.note_taking_app.domain.dto.response.JsonWebKey;
+import app.diy.note_taking_app.domain.dto.response.JwkSetResponse;
 import app.diy.note_taking_app.exceptions.DatabaseTransactionalException;
+import app.diy.note_taking_app.exceptions.PasswordHashingUnavailableException;
 import app.diy.note_taking_app.exceptions.UserNotFoundException;
 import app.diy.note_taking_app.repository.UserRepository;
 import app.diy.note_taking_app.service.AuthenticationService;
@@ -53,6 +64,7 @@ import io.jsonwebtoken.security.Keys;
 
 @SpringBootTest(webEnvironment = WebEnvironment.MOCK)
 @AutoConfigureMockMvc
+@TestPropertySource(properties = "note-taking.login-rate-limit.enabled=false")
 public class AuthenticationControllerTest {
 
 	@Autowired
@@ -97,8 +109,7 @@ public class AuthenticationControllerTest {
 
 	@Test
 	void register_GivenNormalRequest_Successful() throws Exception {
-		when(mockUserRepository.existsByNameAndDeletedFlagFalse(any())).thenReturn(false);
-		when(mockUserRepository.existsByEmailAndDeletedFlagFalse(any())).thenReturn(false);
+		when(mockUserRepository.findIdentitiesByNameOrEmail(any(), any())).thenReturn(List.of());
 		when(mockAuthService.register(any())).thenReturn(authenticationResponse);
 
 		mockMvc.perform(
@@ -114,9 +125,8 @@ public class AuthenticationControllerTest {
 
 	@Test
 	void register_GivenNormalRequest_InternalServerError() throws Exception {
-		when(mockUserRepository.existsByNameAndDeletedFlagFalse(any())).thenReturn(false);
-		when(mockUserRepository.existsByEmailAndDeletedFlagFalse(any())).thenReturn(false);
-		when(mockAuthService.register(any())).thenThrow(new DatabaseTransactionalException(anyString()));
+		when(mockUserRepository.findIdentitiesByNameOrEmail(any(), any())).thenReturn(List.of());
+		when(mockAuthService.register(any())).thenThrow(new DatabaseTransactionalException(""));
 
 		mockMvc.perform(
 				post("/v1/auth/register")
@@ -134,6 +144,21 @@ public class AuthenticationControllerTest {
 				.andReturn();
 	}
 
+	@Test
+	void register_PasswordHashingSaturated_ServiceUnavailable() throws Exception {
+		when(mockUserRepository.findIdentitiesByNameOrEmail(any(), any())).thenReturn(List.of());
+		when(mockAuthService.register(any())).thenThrow(
+				new PasswordHashingUnavailableException("Too many authentication requests", Duration.ofSeconds(1)));
+
+		mockMvc.perform(
+				post("/v1/auth/register")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(StringUtil.convertJsonToString(registerRequest, objectMapper)))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+				.andReturn();
+	}
+
 	@ParameterizedTest
 	@ValueSource(strings = { " " })
 	@NullAndEmptySource
@@ -143,8 +168,7 @@ public class AuthenticationControllerTest {
 		registerRequest.setUsername(testVal);
 		registerRequest.setPassword(testVal);
 
-		when(mockUserRepository.existsByNameAndDeletedFlagFalse(any())).thenReturn(false);
-		when(mockUserRepository.existsByEmailAndDeletedFlagFalse(any())).thenReturn(false);
+		when(mockUserRepository.findIdentitiesByNameOrEmail(any(), any())).thenReturn(List.of());
 
 		try (MockedStatic<LocalDateTime> mock = Mockito.mockStatic(LocalDateTime.class, Mockito.CALLS_REAL_METHODS)) {
 			var time = LocalDateTime.of(2024, 1, 1, 9, 0);
@@ -167,8 +191,7 @@ public class AuthenticationControllerTest {
 		// change the test data
 		registerRequest.setUsername(RandomStringUtils.random(121, true, true));
 
-		when(mockUserRepository.existsByNameAndDeletedFlagFalse(any())).thenReturn(false);
-		when(mockUserRepository.existsByEmailAndDeletedFlagFalse(any())).thenReturn(false);
+		when(mockUserRepository.findIdentitiesByNameOrEmail(any(), any())).thenReturn(List.of());
 
 		try (MockedStatic<LocalDateTime> mock = Mockito.mockStatic(LocalDateTime.class, Mockito.CALLS_REAL_METHODS)) {
 			var time = LocalDateTime.of(2024, 1, 1, 9, 0);
@@ -188,8 +211,7 @@ public class AuthenticationControllerTest {
 
 	@Test
 	void register_BelowMaxLength_Successful() throws Exception {
-		when(mockUserRepository.existsByNameAndDeletedFlagFalse(any())).thenReturn(false);
-		when(mockUserRepository.existsByEmailAndDeletedFlagFalse(any())).thenReturn(false);
+		when(mockUserRepository.findIdentitiesByNameOrEmail(any(), any())).thenReturn(List.of());
 		when(mockAuthService.register(any())).thenReturn(authenticationResponse);
 
 		mockMvc.perform(
@@ -211,8 +233,16 @@ public class AuthenticationControllerTest {
 			String fileName,
 			boolean isUsernameDuplicate,
 			boolean isEmailDuplicate) throws Exception {
-		when(mockUserRepository.existsByNameAndDeletedFlagFalse(any())).thenReturn(isUsernameDuplicate);
-		when(mockUserRepository.existsByEmailAndDeletedFlagFalse(any())).thenReturn(isEmailDuplicate);
+		List<UserIdentity> identities = new ArrayList<>();
+		if (isUsernameDuplicate) {
+			identities.add(new UserIdentity(registerRequest.getUsername(), "other@gmail.com"));
+		}
+		if (isEmailDuplicate) {
+			identities.add(new UserIdentity("other", registerRequest.getEmail()));
+		}
+		when(mockUserRepository.findIdentitiesByNameOrEmail(
+				registerRequest.getUsername(),
+				registerRequest.getEmail())).thenReturn(identities);
 
 		try (MockedStatic<LocalDateTime> mock = Mockito.mockStatic(LocalDateTime.class, Mockito.CALLS_REAL_METHODS)) {
 			var time = LocalDateTime.of(2024, 1, 1, 9, 0);
@@ -242,8 +272,7 @@ public class AuthenticationControllerTest {
 		// change the test data
 		registerRequest.setEmail(emailVal);
 
-		when(mockUserRepository.existsByNameAndDeletedFlagFalse(any())).thenReturn(false);
-		when(mockUserRepository.existsByEmailAndDeletedFlagFalse(any())).thenReturn(false);
+		when(mockUserRepository.findIdentitiesByNameOrEmail(any(), any())).thenReturn(List.of());
 
 		try (MockedStatic<LocalDateTime> mock = Mockito.mockStatic(LocalDateTime.class, Mockito.CALLS_REAL_METHODS)) {
 			var time = LocalDateTime.of(2024, 1, 1, 9, 0);
@@ -305,4 +334,53 @@ public class AuthenticationControllerTest {
 						objectMapper)))
 				.andReturn();
 	}
+
+	@Test
+	void authenticate_PasswordHashingSaturated_ServiceUnavailable() throws Exception {
+		when(mockAuthService.authenticate(any())).thenThrow(
+				new PasswordHashingUnavailableException("Too many authentication requests", Duration.ofSeconds(1)));
+
+		mockMvc.perform(
+				post("/v1/auth/authenticate")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(StringUtil.convertJsonToString(
+								AuthenticationRequest.builder()
+										.email("test@gmail.com")
+										.password("test")
+										.build(),
+								objectMapper)))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+				.andExpect(content().json(StringUtil.convertJsonToString(
+						ApiError.builder()
+								.path("/v1/auth/authenticate")
+								.message("Too many authentication requests")
+								.statusCode(HttpStatus.SERVICE_UNAVAILABLE.value())
+								.localDateTime(LocalDateTime.now())
+								.build(),
+						objectMapper)))
+				.andReturn();
+	}
+
+	@Test
+	void jwks_GivenKeys_ReturnKeysWithoutAuthentication() throws Exception {
+		JwkSetResponse jwkSet = JwkSetResponse.builder()
+				.keys(List.of(JsonWebKey.builder()
+						.kty("EC")
+						.crv("P-256")
+						.kid("kid")
+						.use("sig")
+						.alg("ES256")
+						.x("x")
+						.y("y")
+						.build()))
+				.build();
+		when(mockJwtService.getJwkSet()).thenReturn(jwkSet);
+
+		mockMvc.perform(get("/v1/auth/jwks"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=300, public"))
+				.andExpect(content().json(StringUtil.convertJsonToString(jwkSet, objectMapper)))
+				.andReturn();
+	}
 }
@@ -2,14 +2,19 @@ package app.diy.note_taking_app.controller;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.time.LocalDateTime;
@@ -32,6 +37,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
@@ -41,14 +47,23 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import app.diy.note_taking_app.Util.StringUtil;
 import app.diy.note_taking_app.configuration.NoteTakingAppConfigProperties;
+import app.diy.note_taking_app.constant.NoteEditType;
 import app.diy.note_taking_app.constant.Role;
 import app.diy.note_taking_app.domain.dto.ApiError;
+import app.diy.note_taking_app.domain.dto.ApiVersionConflictError;
+import app.diy.note_taking_app.domain.dto.AuthenticatedUser;
+import app.diy.note_taking_app.domain.dto.NoteDetailETag;
+import app.diy.note_taking_app.domain.dto.NoteView;
 import app.diy.note_taking_app.domain.dto.UserAuthorization;
+import app.diy.note_taking_app.domain.dto.request.NoteEditOperation;
+import app.diy.note_taking_app.domain.dto.request.NotePatchRequest;
 import app.diy.note_taking_app.domain.dto.request.NoteUpdateRequest;
 import app.diy.note_taking_app.domain.dto.response.NoteDetailResponse;
+import app.diy.note_taking_app.domain.dto.response.NotePatchResponse;
 import app.diy.note_taking_app.domain.entity.Note;
 import app.diy.note_taking_app.domain.entity.User;
 import app.diy.note_taking_app.exceptions.DatabaseTransactionalException;
+import app.diy.note_taking_app.exceptions.NoteVersionConflictException;
 import app.diy.note_taking_app.service.NoteService;
 import app.diy.note_taking_app.service.UserPermissionService;
 import io.jsonwebtoken.Jwts;
@@ -76,7 +91,7 @@ public class NoteByIdControllerTest {
 	private UserPermissionService mockUserPermissionService;
 
 	private Note note;
-	private User accessUser;
+	private AuthenticatedUser accessUser;
 	private NoteDetailResponse noteDetailResponse;
 	private NoteUpdateRequest noteUpdateRequest;
 	private MockedStatic<LocalDateTime> mockTime;
@@ -98,7 +113,7 @@ public class NoteByIdControllerTest {
 						SignatureAlgorithm.HS256)
 				.compact();
 
-		accessUser = User.builder()
+		accessUser = AuthenticatedUser.builder()
 				.id(1)
 				.name("tester")
 				.email("test@gmail.com")
@@ -111,7 +126,12 @@ public class NoteByIdControllerTest {
 				.title("Title")
 				.contents("Contents")
 				.deletedFlag(false)
-				.createdUser(accessUser)
+				.createdUser(User.builder()
+						.id(1)
+						.name("tester")
+						.email("test@gmail.com")
+						.deletedFlag(false)
+						.build())
 				.updatedUser(User.builder()
 						.id(2)
 						.name("sampler")
@@ -151,8 +171,8 @@ public class NoteByIdControllerTest {
 	void getNoteDetail_UserIsAuthorAndHasZeroSharedUser_Successful() throws Exception {
 		noteDetailResponse.setSharedUsers(List.of());
 
-		when(mockNoteService.getNote(anyInt())).thenReturn(Optional.ofNullable(note));
-		when(mockNoteService.getNoteDetail(note, accessUser.getId())).thenReturn(noteDetailResponse);
+		when(mockNoteService.getNote(anyInt())).thenReturn(Optional.of(NoteView.of(note, List.of())));
+		when(mockNoteService.getNoteDetail(NoteView.of(note, List.of()), accessUser.getId())).thenReturn(noteDetailResponse);
 
 		mockMvc.perform(
 				get("/v1/notes/1")
@@ -163,7 +183,7 @@ public class NoteByIdControllerTest {
 						objectMapper)))
 				.andReturn();
 
-		verify(mockNoteService, times(1)).getNoteDetail(note, 1);
+		verify(mockNoteService, times(1)).getNoteDetail(NoteView.of(note, List.of()), 1);
 	}
 
 	@Test
@@ -172,8 +192,8 @@ public class NoteByIdControllerTest {
 		note.setDeletedFlag(true);
 		noteDetailResponse.setDeletedFlag(true);
 
-		when(mockNoteService.getNote(anyInt())).thenReturn(Optional.ofNullable(note));
-		when(mockNoteService.getNoteDetail(note, accessUser.getId())).thenReturn(noteDetailResponse);
+		when(mockNoteService.getNote(anyInt())).thenReturn(Optional.of(NoteView.of(note, List.of())));
+		when(mockNoteService.getNoteDetail(NoteView.of(note, List.of()), accessUser.getId())).thenReturn(noteDetailResponse);
 
 		mockMvc.perform(
 				get("/v1/notes/1")
@@ -184,13 +204,13 @@ public class NoteByIdControllerTest {
 						objectMapper)))
 				.andReturn();
 
-		verify(mockNoteService, times(1)).getNoteDetail(note, 1);
+		verify(mockNoteService, times(1)).getNoteDetail(NoteView.of(note, List.of()), 1);
 	}
 
 	@Test
 	void getNoteDetail_UserIsAuthorAndHasSharedUsers_Successful() throws Exception {
-		when(mockNoteService.getNote(anyInt())).thenReturn(Optional.ofNullable(note));
-		when(mockNoteService.getNoteDetail(note, accessUser.getId())).thenReturn(noteDetailResponse);
+		when(mockNoteService.getNote(anyInt())).thenReturn(Optional.of(NoteView.of(note, List.of())));
+		when(mockNoteService.getNoteDetail(NoteView.of(note, List.of()), accessUser.getId())).thenReturn(noteDetailResponse);
 
 		mockMvc.perform(
 				get("/v1/notes/1")
@@ -201,15 +221,15 @@ public class NoteByIdControllerTest {
 						objectMapper)))
 				.andReturn();
 
-		verify(mockNoteService, times(1)).getNoteDetail(note, 1);
+		verify(mockNoteService, times(1)).getNoteDetail(NoteView.of(note, List.of()), 1);
 	}
 
 	@Test
 	void getNoteDetail_UserIsSharedUser_Successful() throws Exception {
 		noteDetailResponse.setUserIsAuthor(false);
 
-		when(mockNoteService.getNote(any())).thenReturn(Optional.ofNullable(note));
-		when(mockNoteService.getNoteDetail(note, accessUser.getId())).thenReturn(noteDetailResponse);
+		when(mockNoteService.getNote(any())).thenReturn(Optional.of(NoteView.of(note, List.of())));
+		when(mockNoteService.getNoteDetail(NoteView.of(note, List.of()), accessUser.getId())).thenReturn(noteDetailResponse);
 
 		mockMvc.perform(
 				get("/v1/notes/1")
@@ -220,7 +240,7 @@ public class NoteByIdControllerTest {
 						objectMapper)))
 				.andReturn();
 
-		verify(mockNoteService, times(1)).getNoteDetail(note, 1);
+		verify(mockNoteService, times(1)).getNoteDetail(NoteView.of(note, List.of()), 1);
 	}
 
 	@Test
@@ -242,7 +262,7 @@ public class NoteByIdControllerTest {
 						objectMapper)))
 				.andReturn();
 
-		verify(mockNoteService, times(0)).getNoteDetail(note, 1);
+		verify(mockNoteService, times(0)).getNoteDetail(NoteView.of(note, List.of()), 1);
 	}
 
 	static Stream<List<UserAuthorization>> unsharedUserProvider() {
@@ -265,8 +285,8 @@ public class NoteByIdControllerTest {
 		noteDetailResponse.setUserIsAuthor(false);
 		noteDetailResponse.setSharedUsers(sharedUsers);
 
-		when(mockNoteService.getNote(note.getId())).thenReturn(Optional.ofNullable(note));
-		when(mockNoteService.getNoteDetail(note, accessUser.getId())).thenReturn(noteDetailResponse);
+		when(mockNoteService.getNote(note.getId())).thenReturn(Optional.of(NoteView.of(note, List.of())));
+		when(mockNoteService.getNoteDetail(NoteView.of(note, List.of()), accessUser.getId())).thenReturn(noteDetailResponse);
 
 		mockMvc.perform(
 				get("/v1/notes/1")
@@ -284,10 +304,49 @@ public class NoteByIdControllerTest {
 				.andReturn();
 	}
 
+	@Test
+	void getNoteDetail_IfNoneMatchIsLatestETag_NotModified() throws Exception {
+		when(mockNoteService.getNoteDetailETag(1, accessUser.getId())).thenReturn(Optional.of("\"latest\""));
+
+		mockMvc.perform(
+				get("/v1/notes/1")
+						.header("Authorization", JwtToken)
+						.header(HttpHeaders.IF_NONE_MATCH, "\"latest\"")
+						.with(SecurityMockMvcRequestPostProcessors.user(accessUser)))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"latest\""))
+				.andExpect(content().string(""))
+				.andReturn();
+
+		verify(mockNoteService, never()).getNote(anyInt());
+		verify(mockNoteService, never()).getNoteDetail(any(), anyInt());
+	}
+
+	@Test
+	void getNoteDetail_IfNoneMatchIsOutdatedETag_SuccessfulWithLatestETag() throws Exception {
+		noteDetailResponse.setSharedUsers(List.of());
+
+		when(mockNoteService.getNoteDetailETag(1, accessUser.getId())).thenReturn(Optional.of("\"latest\""));
+		when(mockNoteService.getNote(anyInt())).thenReturn(Optional.of(NoteView.of(note, List.of())));
+		when(mockNoteService.getNoteDetail(NoteView.of(note, List.of()), accessUser.getId())).thenReturn(noteDetailResponse);
+
+		mockMvc.perform(
+				get("/v1/notes/1")
+						.header("Authorization", JwtToken)
+						.header(HttpHeaders.IF_NONE_MATCH, "\"outdated\"")
+						.with(SecurityMockMvcRequestPostProcessors.user(accessUser)))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"latest\""))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+				.andExpect(content().json(StringUtil.convertJsonToString(noteDetailResponse,
+						objectMapper)))
+				.andReturn();
+	}
+
 	@Test
 	void updateNote_UserIsAuthorAndGivenNormalRequest_Successful() throws Exception {
-		when(mockNoteService.getNote(any())).thenReturn(Optional.ofNullable(note));
-		when(mockNoteService.update(any(), any(), any())).thenReturn(noteDetailResponse);
+		when(mockNoteService.getNote(any())).thenReturn(Optional.of(NoteView.of(note, List.of())));
+		when(mockNoteService.update(any(), any(), any(), any())).thenReturn(noteDetailResponse);
 
 		mockMvc.perform(
 				patch("/v1/notes/1")
@@ -299,16 +358,87 @@ public class NoteByIdControllerTest {
 				.andExpect(content().json(StringUtil.convertJsonToString(noteDetailResponse, objectMapper)))
 				.andReturn();
 
-		verify(mockNoteService, times(1)).update(any(), any(), any());
+		verify(mockNoteService, times(1)).update(any(), any(), isNull(), any());
+	}
+
+	@Test
+	void updateNote_IfMatchIsGiven_UpdateAtExpectedVersion() throws Exception {
+		when(mockNoteService.getNote(any())).thenReturn(Optional.of(NoteView.of(note, List.of())));
+		when(mockNoteService.update(any(), any(), eq(3L), any())).thenReturn(noteDetailResponse);
+
+		mockMvc.perform(
+				patch("/v1/notes/1")
+						.header("Authorization", JwtToken)
+						.header(HttpHeaders.IF_MATCH, "\"3\"")
+						.with(SecurityMockMvcRequestPostProcessors.user(accessUser))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(StringUtil.convertJsonToString(noteUpdateRequest, objectMapper)))
+				.andExpect(status().is2xxSuccessful())
+				.andReturn();
+
+		verify(mockNoteService, times(1)).update(any(), any(), eq(3L), any());
+	}
+
+	@Test
+	void updateNote_NoteVersionConflictException_ConflictWithCurrentVersion() throws Exception {
+		when(mockNoteService.getNote(any())).thenReturn(Optional.of(NoteView.of(note, List.of())));
+		when(mockNoteService.update(any(), any(), eq(3L), any()))
+				.thenThrow(new NoteVersionConflictException("Note was updated to version 4", 4));
+
+		mockMvc.perform(
+				patch("/v1/notes/1")
+						.header("Authorization", JwtToken)
+						.header(HttpHeaders.IF_MATCH, "\"3\"")
+						.with(SecurityMockMvcRequestPostProcessors.user(accessUser))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(StringUtil.convertJsonToString(noteUpdateRequest, objectMapper)))
+				.andExpect(status().isConflict())
+				.andExpect(jsonPath("$.currentVersion").value(4))
+				.andReturn();
+	}
+
+	@Test
+	void updateNote_IfMatchIsETagOfNoteDetail_UpdateAtVersionOfETag() throws Exception {
+		when(mockNoteService.getNote(any())).thenReturn(Optional.of(NoteView.of(note, List.of())));
+		when(mockNoteService.update(any(), any(), eq(3L), any())).thenReturn(noteDetailResponse);
+
+		mockMvc.perform(
+				patch("/v1/notes/1")
+						.header("Authorization", JwtToken)
+						.header(HttpHeaders.IF_MATCH, new NoteDetailETag(3, "0cc175b9c0f1b6a831c399e269772661").encode())
+						.with(SecurityMockMvcRequestPostProcessors.user(accessUser))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(StringUtil.convertJsonToString(noteUpdateRequest, objectMapper)))
+				.andExpect(status().is2xxSuccessful())
+				.andReturn();
+
+		verify(mockNoteService, times(1)).update(any(), any(), eq(3L), any());
+	}
+
+	@Test
+	void updateNote_IfMatchIsNotVersion_PreconditionFailed() throws Exception {
+		when(mockNoteService.getNote(any())).thenReturn(Optional.of(NoteView.of(note, List.of())));
+
+		mockMvc.perform(
+				patch("/v1/notes/1")
+						.header("Authorization", JwtToken)
+						.header(HttpHeaders.IF_MATCH, "\"latest\"")
+						.with(SecurityMockMvcRequestPostProcessors.user(accessUser))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(StringUtil.convertJsonToString(noteUpdateRequest, objectMapper)))
+				.andExpect(status().isPreconditionFailed())
+				.andReturn();
+
+		verify(mockNoteService, never()).update(any(), any(), any(), any());
 	}
 
 	@Test
 	void updateNote_UserIsSharedUserAndGivenNormalRequest_Successful() throws Exception {
 		note.setCreatedUser(User.builder().id(2).build());
 
-		when(mockNoteService.getNote(any())).thenReturn(Optional.ofNullable(note));
+		when(mockNoteService.getNote(any())).thenReturn(Optional.of(NoteView.of(note, List.of())));
 		when(mockUserPermissionService.canUpdateNote(note.getId(), accessUser.getId())).thenReturn(true);
-		when(mockNoteService.update(any(), any(), any())).thenReturn(noteDetailResponse);
+		when(mockNoteService.update(any(), any(), any(), any())).thenReturn(noteDetailResponse);
 
 		mockMvc.perform(
 				patch("/v1/notes/1")
@@ -320,7 +450,7 @@ public class NoteByIdControllerTest {
 				.andExpect(content().json(StringUtil.convertJsonToString(noteDetailResponse, objectMapper)))
 				.andReturn();
 
-		verify(mockNoteService, times(1)).update(any(), any(), any());
+		verify(mockNoteService, times(1)).update(any(), any(), any(), any());
 	}
 
 	@Test
@@ -348,7 +478,7 @@ public class NoteByIdControllerTest {
 	@Test
 	void updateNote_NoteIsDeleted_NotFound() throws Exception {
 		note.setDeletedFlag(true);
-		when(mockNoteService.getNote(any())).thenReturn(Optional.ofNullable(note));
+		when(mockNoteService.getNote(any())).thenReturn(Optional.of(NoteView.of(note, List.of())));
 
 		mockMvc.perform(
 				patch("/v1/notes/1")
@@ -372,7 +502,7 @@ public class NoteByIdControllerTest {
 	void updateNote_InsufficientAuthorization_Forbidden() throws Exception {
 		note.setCreatedUser(User.builder().id(2).build());
 
-		when(mockNoteService.getNote(any())).thenReturn(Optional.ofNullable(note));
+		when(mockNoteService.getNote(any())).thenReturn(Optional.of(NoteView.of(note, List.of())));
 		when(mockUserPermissionService.canUpdateNote(note.getId(), accessUser.getId())).thenReturn(false);
 
 		mockMvc.perform(
@@ -395,9 +525,9 @@ public class NoteByIdControllerTest {
 
 	@Test
 	void updateNote_DatabaseTransactionalException_InternalServerError() throws Exception {
-		when(mockNoteService.getNote(any())).thenReturn(Optional.ofNullable(note));
+		when(mockNoteService.getNote(any())).thenReturn(Optional.of(NoteView.of(note, List.of())));
 		when(mockUserPermissionService.canUpdateNote(note.getId(), accessUser.getId())).thenReturn(true);
-		when(mockNoteService.update(any(), any(), any())).thenThrow(new DatabaseTransactionalException(""));
+		when(mockNoteService.update(any(), any(), any(), any())).thenThrow(new DatabaseTransactionalException(""));
 
 		mockMvc.perform(
 				patch("/v1/notes/1")
@@ -422,7 +552,7 @@ public class NoteByIdControllerTest {
 		noteUpdateRequest.setTitle(RandomStringUtils.random(256, true, true));
 		noteUpdateRequest.setContents(RandomStringUtils.random(65536, true, true));
 
-		when(mockNoteService.getNote(any())).thenReturn(Optional.ofNullable(note));
+		when(mockNoteService.getNote(any())).thenReturn(Optional.of(NoteView.of(note, List.of())));
 
 		mockMvc.perform(
 				patch("/v1/notes/1")
@@ -442,8 +572,8 @@ public class NoteByIdControllerTest {
 				"updateNote_max_length_success_response.json"),
 				NoteDetailResponse.class);
 
-		when(mockNoteService.getNote(any())).thenReturn(Optional.ofNullable(note));
-		when(mockNoteService.update(any(), any(), any())).thenReturn(returnVal);
+		when(mockNoteService.getNote(any())).thenReturn(Optional.of(NoteView.of(note, List.of())));
+		when(mockNoteService.update(any(), any(), any(), any())).thenReturn(returnVal);
 
 		mockMvc.perform(
 				patch("/v1/notes/1")
@@ -456,10 +586,95 @@ public class NoteByIdControllerTest {
 				.andReturn();
 	}
 
+	@Test
+	void patchContents_UserIsAuthorAndGivenNormalRequest_Successful() throws Exception {
+		NotePatchResponse notePatchResponse = NotePatchResponse.builder()
+				.id(1)
+				.version(2)
+				.updatedAt(LocalDateTime.now())
+				.build();
+		when(mockNoteService.getNote(any())).thenReturn(Optional.of(NoteView.of(note, List.of())));
+		when(mockNoteService.patchContents(any(), any(), any())).thenReturn(notePatchResponse);
+
+		mockMvc.perform(
+				patch("/v1/notes/1/contents")
+						.header("Authorization", JwtToken)
+						.with(SecurityMockMvcRequestPostProcessors.user(accessUser))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(StringUtil.convertJsonToString(notePatchRequest(), objectMapper)))
+				.andExpect(status().is2xxSuccessful())
+				.andExpect(content().json(StringUtil.convertJsonToString(notePatchResponse, objectMapper)))
+				.andReturn();
+
+		verify(mockNoteService, times(1)).patchContents(any(), any(), any());
+	}
+
+	@Test
+	void patchContents_InsufficientAuthorization_Forbidden() throws Exception {
+		note.setCreatedUser(User.builder().id(2).build());
+
+		when(mockNoteService.getNote(any())).thenReturn(Optional.of(NoteView.of(note, List.of())));
+		when(mockUserPermissionService.canUpdateNote(note.getId(), accessUser.getId())).thenReturn(false);
+
+		mockMvc.perform(
+				patch("/v1/notes/1/contents")
+						.header("Authorization", JwtToken)
+						.with(SecurityMockMvcRequestPostProcessors.user(accessUser))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(StringUtil.convertJsonToString(notePatchRequest(), objectMapper)))
+				.andExpect(status().isForbidden())
+				.andReturn();
+
+		verify(mockNoteService, never()).patchContents(any(), any(), any());
+	}
+
+	@Test
+	void patchContents_NoteVersionConflictException_Conflict() throws Exception {
+		when(mockNoteService.getNote(any())).thenReturn(Optional.of(NoteView.of(note, List.of())));
+		when(mockNoteService.patchContents(any(), any(), any()))
+				.thenThrow(new NoteVersionConflictException("Note was updated to version 2", 2));
+
+		mockMvc.perform(
+				patch("/v1/notes/1/contents")
+						.header("Authorization", JwtToken)
+						.with(SecurityMockMvcRequestPostProcessors.user(accessUser))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(StringUtil.convertJsonToString(notePatchRequest(), objectMapper)))
+				.andExpect(status().isConflict())
+				.andExpect(content().json(StringUtil.convertJsonToString(
+						ApiVersionConflictError.builder()
+								.path("/v1/notes/1/contents")
+								.message("Note was updated to version 2")
+								.statusCode(HttpStatus.CONFLICT.value())
+								.localDateTime(LocalDateTime.now())
+								.currentVersion(2)
+								.build(),
+						objectMapper)))
+				.andReturn();
+	}
+
+	@Test
+	void patchContents_NoOperations_BadRequest() throws Exception {
+		when(mockNoteService.getNote(any())).thenReturn(Optional.of(NoteView.of(note, List.of())));
+
+		mockMvc.perform(
+				patch("/v1/notes/1/contents")
+						.header("Authorization", JwtToken)
+						.with(SecurityMockMvcRequestPostProcessors.user(accessUser))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(StringUtil.convertJsonToString(
+								NotePatchRequest.builder().baseVersion(1L).operations(List.of()).build(),
+								objectMapper)))
+				.andExpect(status().isBadRequest())
+				.andReturn();
+
+		verify(mockNoteService, never()).patchContents(any(), any(), any());
+	}
+
 	@Test
 	void deleteNote_UserIsAuthorAndGivenNormalRequest_Successful() throws Exception {
-		when(mockNoteService.getNote(any())).thenReturn(Optional.ofNullable(note));
-		doNothing().when(mockNoteService).delete(note, accessUser);
+		when(mockNoteService.getNote(any())).thenReturn(Optional.of(NoteView.of(note, List.of())));
+		doNothing().when(mockNoteService).delete(note.getId(), accessUser);
 
 		mockMvc.perform(
 				patch("/v1/notes/1/delete")
@@ -468,16 +683,16 @@ public class NoteByIdControllerTest {
 				.andExpect(status().is2xxSuccessful())
 				.andReturn();
 
-		verify(mockNoteService, times(1)).delete(note, accessUser);
+		verify(mockNoteService, times(1)).delete(note.getId(), accessUser);
 	}
 
 	@Test
 	void deleteNote_UserIsSharedUserAndGivenNormalRequest_Successful() throws Exception {
 		note.setCreatedUser(User.builder().id(2).build());
 
-		when(mockNoteService.getNote(any())).thenReturn(Optional.ofNullable(note));
+		when(mockNoteService.getNote(any())).thenReturn(Optional.of(NoteView.of(note, List.of())));
 		when(mockUserPermissionService.canUpdateNote(note.getId(), accessUser.getId())).thenReturn(true);
-		doNothing().when(mockNoteService).delete(note, accessUser);
+		doNothing().when(mockNoteService).delete(note.getId(), accessUser);
 
 		mockMvc.perform(
 				patch("/v1/notes/1/delete")
@@ -486,7 +701,7 @@ public class NoteByIdControllerTest {
 				.andExpect(status().is2xxSuccessful())
 				.andReturn();
 
-		verify(mockNoteService, times(1)).delete(note, accessUser);
+		verify(mockNoteService, times(1)).delete(note.getId(), accessUser);
 	}
 
 	@Test
@@ -514,7 +729,7 @@ public class NoteByIdControllerTest {
 	@Test
 	void deleteNote_NoteIsDeleted_NotFound() throws Exception {
 		note.setDeletedFlag(true);
-		when(mockNoteService.getNote(any())).thenReturn(Optional.ofNullable(note));
+		when(mockNoteService.getNote(any())).thenReturn(Optional.of(NoteView.of(note, List.of())));
 
 		mockMvc.perform(
 				patch("/v1/notes/1/delete")
@@ -538,7 +753,7 @@ public class NoteByIdControllerTest {
 	void deleteNote_InsufficientAuthorization_Forbidden() throws Exception {
 		note.setCreatedUser(User.builder().id(2).build());
 
-		when(mockNoteService.getNote(any())).thenReturn(Optional.ofNullable(note));
+		when(mockNoteService.getNote(any())).thenReturn(Optional.of(NoteView.of(note, List.of())));
 		when(mockUserPermissionService.canUpdateNote(note.getId(), accessUser.getId())).thenReturn(false);
 
 		mockMvc.perform(
@@ -561,9 +776,9 @@ public class NoteByIdControllerTest {
 
 	@Test
 	void deleteNote_DatabaseTransactionalException_InternalServerError() throws Exception {
-		when(mockNoteService.getNote(any())).thenReturn(Optional.ofNullable(note));
+		when(mockNoteService.getNote(any())).thenReturn(Optional.of(NoteView.of(note, List.of())));
 		when(mockUserPermissionService.canUpdateNote(note.getId(), accessUser.getId())).thenReturn(true);
-		doThrow(new DatabaseTransactionalException("")).when(mockNoteService).delete(note, accessUser);
+		doThrow(new DatabaseTransactionalException("")).when(mockNoteService).delete(note.getId(), accessUser);
 
 		mockMvc.perform(
 				patch("/v1/notes/1/delete")
@@ -581,4 +796,14 @@ public class NoteByIdControllerTest {
 				.andReturn();
 	}
 
+	private NotePatchRequest notePatchRequest() {
+		return NotePatchRequest.builder()
+				.baseVersion(1L)
+				.operations(List.of(NoteEditOperation.builder()
+						.type(NoteEditType.INSERT)
+						.position(8)
+						.text("!")
+						.build()))
+				.build();
+	}
 }
@@ -1,17 +1,21 @@
 package app.diy.note_taking_app.controller;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.time.LocalDateTime;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Optional;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -23,6 +27,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
 import org.springframework.test.web.servlet.MockMvc;
@@ -33,12 +38,18 @@ import app.diy.note_taking_app.Util.StringUtil;
 import app.diy.note_taking_app.configuration.NoteTakingAppConfigProperties;
 import app.diy.note_taking_app.constant.Role;
 import app.diy.note_taking_app.domain.dto.ApiError;
+import app.diy.note_taking_app.domain.dto.AuthenticatedUser;
+import app.diy.note_taking_app.domain.dto.PreviewNotePage;
 import app.diy.note_taking_app.domain.dto.UserAuthorization;
 import app.diy.note_taking_app.domain.dto.response.NoteDetailResponse;
 import app.diy.note_taking_app.domain.dto.response.PreviewNoteResponse;
 import app.diy.note_taking_app.domain.entity.User;
 import app.diy.note_taking_app.exceptions.DatabaseTransactionalException;
+import app.diy.note_taking_app.exceptions.InvalidNoteCursorException;
+import app.diy.note_taking_app.repository.UserRepository;
+import app.diy.note_taking_app.service.JwtService;
 import app.diy.note_taking_app.service.NoteService;
+import app.diy.note_taking_app.service.UserService;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -57,10 +68,19 @@ public class NoteControllerTest {
 	@Autowired
 	private ObjectMapper objectMapper;
 
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private JwtService jwtService;
+
 	@MockBean
 	private NoteService mockNoteService;
 
-	private User accessUser;
+	private AuthenticatedUser accessUser;
 	private MockedStatic<LocalDateTime> mockTime;
 	private LocalDateTime fixedTime = LocalDateTime.of(2024, 1, 1, 9, 0); // "2024/01/01 09:00"
 	private String JwtToken;
@@ -80,7 +100,7 @@ public class NoteControllerTest {
 						SignatureAlgorithm.HS256)
 				.compact();
 
-		accessUser = User.builder()
+		accessUser = AuthenticatedUser.builder()
 				.id(1)
 				.name("tester")
 				.email("test@gmail.com")
@@ -108,24 +128,104 @@ public class NoteControllerTest {
 				.deletableFlag(true)
 				.build());
 
-		when(mockNoteService.getNoteList(accessUser.getId())).thenReturn(previewNoteResponses);
+		when(mockNoteService.getNoteList(accessUser.getId(), null, null)).thenReturn(PreviewNotePage.builder()
+				.notes(previewNoteResponses)
+				.build());
+
+		mockMvc.perform(
+				get("/v1/notes")
+						.header("Authorization", JwtToken)
+						.with(SecurityMockMvcRequestPostProcessors.user(accessUser)))
+				.andExpect(status().is2xxSuccessful())
+				.andExpect(header().doesNotExist(NoteController.NEXT_CURSOR_HEADER))
+				.andExpect(content().json(StringUtil.convertJsonToString(previewNoteResponses, objectMapper)))
+				.andReturn();
+
+		verify(mockNoteService, times(1)).getNoteList(accessUser.getId(), null, null);
+	}
+
+	@Test
+	void getNoteList_TokenOfDeletedUser_Forbidden() throws Exception {
+		User user = userRepository.save(User.builder()
+				.name("Deleted Name")
+				.email("deleted_email@gmail.com")
+				.password("sample")
+				.role(Role.USER)
+				.deletedFlag(false)
+				.build());
+		String accessToken = jwtService.generateToken(user);
+		userService.delete(AuthenticatedUser.builder().id(user.getId()).build());
+
+		// reads are authenticated by the claims of the token, which is still valid
+		mockMvc.perform(
+				get("/v1/notes")
+						.header("Authorization", "Bearer " + accessToken))
+				.andExpect(status().isForbidden())
+				.andReturn();
+
+		verify(mockNoteService, never()).getNoteList(any(), any(), any());
+	}
+
+	@Test
+	void getNoteList_GivenCursorAndSize_ReturnNextCursor() throws Exception {
+		List<PreviewNoteResponse> previewNoteResponses = List.of(PreviewNoteResponse.builder()
+				.id(1)
+				.title("Title")
+				.contents("Preview Contents")
+				.createdAt(LocalDateTime.now())
+				.createdBy("tester")
+				.updatedAt(LocalDateTime.now())
+				.updatedBy("sampler")
+				.deletedFlag(false)
+				.deletableFlag(true)
+				.build());
+
+		when(mockNoteService.getNoteList(accessUser.getId(), "cursor", 1)).thenReturn(PreviewNotePage.builder()
+				.notes(previewNoteResponses)
+				.nextCursor("next cursor")
+				.build());
 
 		mockMvc.perform(
 				get("/v1/notes")
+						.param("cursor", "cursor")
+						.param("size", "1")
 						.header("Authorization", JwtToken)
 						.with(SecurityMockMvcRequestPostProcessors.user(accessUser)))
 				.andExpect(status().is2xxSuccessful())
+				.andExpect(header().string(NoteController.NEXT_CURSOR_HEADER, "next cursor"))
 				.andExpect(content().json(StringUtil.convertJsonToString(previewNoteResponses, objectMapper)))
 				.andReturn();
+	}
 
-		verify(mockNoteService, times(1)).getNoteList(accessUser.getId());
+	@Test
+	void getNoteList_InvalidCursor_BadRequest() throws Exception {
+		when(mockNoteService.getNoteList(accessUser.getId(), "invalid", null))
+				.thenThrow(new InvalidNoteCursorException("Cursor is invalid"));
+
+		mockMvc.perform(
+				get("/v1/notes")
+						.param("cursor", "invalid")
+						.header("Authorization", JwtToken)
+						.with(SecurityMockMvcRequestPostProcessors.user(accessUser)))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().json(StringUtil.convertJsonToString(
+						ApiError.builder()
+								.path("/v1/notes")
+								.message("Cursor is invalid")
+								.statusCode(HttpStatus.BAD_REQUEST.value())
+								.localDateTime(LocalDateTime.now())
+								.build(),
+						objectMapper)))
+				.andReturn();
 	}
 
 	@Test
 	void getNoteList_ReturnEmptyList_Successful() throws Exception {
 		List<PreviewNoteResponse> previewNoteResponses = List.of();
 
-		when(mockNoteService.getNoteList(accessUser.getId())).thenReturn(previewNoteResponses);
+		when(mockNoteService.getNoteList(accessUser.getId(), null, null)).thenReturn(PreviewNotePage.builder()
+				.notes(previewNoteResponses)
+				.build());
 
 		mockMvc.perform(
 				get("/v1/notes")
@@ -135,7 +235,43 @@ public class NoteControllerTest {
 				.andExpect(content().json(StringUtil.convertJsonToString(previewNoteResponses, objectMapper)))
 				.andReturn();
 
-		verify(mockNoteService, times(1)).getNoteList(accessUser.getId());
+		verify(mockNoteService, times(1)).getNoteList(accessUser.getId(), null, null);
+	}
+
+	@Test
+	void getNoteList_IfNoneMatchIsLatestETag_NotModified() throws Exception {
+		when(mockNoteService.getNoteListETag(accessUser.getId(), null, null)).thenReturn(Optional.of("\"latest\""));
+
+		mockMvc.perform(
+				get("/v1/notes")
+						.header("Authorization", JwtToken)
+						.header(HttpHeaders.IF_NONE_MATCH, "\"latest\"")
+						.with(SecurityMockMvcRequestPostProcessors.user(accessUser)))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"latest\""))
+				.andExpect(content().string(""))
+				.andReturn();
+
+		verify(mockNoteService, never()).getNoteList(any(), any(), any());
+	}
+
+	@Test
+	void getNoteList_IfNoneMatchOfPage_ETagOfSamePage() throws Exception {
+		when(mockNoteService.getNoteListETag(accessUser.getId(), "cursor", 1)).thenReturn(Optional.of("\"page\""));
+
+		mockMvc.perform(
+				get("/v1/notes")
+						.param("cursor", "cursor")
+						.param("size", "1")
+						.header("Authorization", JwtToken)
+						.header(HttpHeaders.IF_NONE_MATCH, "\"page\"")
+						.with(SecurityMockMvcRequestPostProcessors.user(accessUser)))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"page\""))
+				.andReturn();
+
+		verify(mockNoteService, times(1)).getNoteListETag(accessUser.getId(), "cursor", 1);
+		verify(mockNoteService, never()).getNoteList(any(), any(), any());
 	}
 
 	@Test
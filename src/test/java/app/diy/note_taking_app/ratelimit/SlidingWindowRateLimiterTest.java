@@ -0,0 +1,106 @@
+package app.diy.note_taking_app.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class SlidingWindowRateLimiterTest {
+
+	private static final Duration WINDOW = Duration.ofMinutes(1);
+
+	private MutableClock clock;
+
+	private SlidingWindowRateLimiter target;
+
+	@BeforeEach
+	void init() {
+		clock = new MutableClock(Instant.parse("2024-01-01T09:00:00Z"));
+		target = new SlidingWindowRateLimiter(100, WINDOW, new SimpleMeterRegistry(), clock);
+	}
+
+	@Test
+	void tryAcquire_OverLimit_ReturnFalse() {
+		assertTrue(target.tryAcquire("key", 2, WINDOW));
+		assertTrue(target.tryAcquire("key", 2, WINDOW));
+		assertFalse(target.tryAcquire("key", 2, WINDOW));
+		assertTrue(target.tryAcquire("other key", 2, WINDOW), "Other key should be counted separately");
+	}
+
+	@Test
+	void tryAcquire_PreviousWindowPartlyOverlaps_CountWeightedPreviousRequests() {
+		IntStream.range(0, 4).forEach(i -> target.tryAcquire("key", 4, WINDOW));
+
+		// half of the previous window overlaps, so 2 of the 4 requests are still counted
+		clock.advance(WINDOW.multipliedBy(3).dividedBy(2));
+
+		assertTrue(target.tryAcquire("key", 4, WINDOW));
+		assertTrue(target.tryAcquire("key", 4, WINDOW));
+		assertFalse(target.tryAcquire("key", 4, WINDOW));
+	}
+
+	@Test
+	void tryAcquire_TwoWindowsLater_ResetCount() {
+		IntStream.range(0, 4).forEach(i -> target.tryAcquire("key", 4, WINDOW));
+
+		clock.advance(WINDOW.multipliedBy(2));
+
+		IntStream.range(0, 4).forEach(i -> assertTrue(target.tryAcquire("key", 4, WINDOW)));
+	}
+
+	@Test
+	void tryAcquire_ConcurrentRequests_AllowExactlyLimit() {
+		AtomicInteger allowed = new AtomicInteger();
+
+		CompletableFuture.allOf(IntStream.range(0, 200)
+				.mapToObj(i -> CompletableFuture.runAsync(() -> {
+					if (target.tryAcquire("key", 50, WINDOW)) {
+						allowed.incrementAndGet();
+					}
+				}))
+				.toArray(CompletableFuture[]::new))
+				.join();
+
+		assertEquals(50, allowed.get());
+	}
+
+	private static class MutableClock extends Clock {
+
+		private Instant instant;
+
+		MutableClock(Instant instant) {
+			this.instant = instant;
+		}
+
+		void advance(Duration duration) {
+			instant = instant.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneId.of("UTC");
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+}
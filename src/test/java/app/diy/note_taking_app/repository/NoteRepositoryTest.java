@@ -8,9 +8,11 @@ import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,8 +22,13 @@ import org.springframework.context.annotation.Import;
 
 import app.diy.note_taking_app.configuration.JPAAuditingConfiguration;
 import app.diy.note_taking_app.constant.Role;
+import app.diy.note_taking_app.domain.dto.NoteContents;
+import app.diy.note_taking_app.domain.dto.NoteListVersion;
+import app.diy.note_taking_app.domain.dto.NoteVersion;
+import app.diy.note_taking_app.domain.dto.PreviewNoteRow;
 import app.diy.note_taking_app.domain.entity.Note;
 import app.diy.note_taking_app.domain.entity.User;
+import app.diy.note_taking_app.domain.entity.UserPermission;
 
 @DataJpaTest(showSql = true)
 @Import(JPAAuditingConfiguration.class)
@@ -33,6 +40,9 @@ public class NoteRepositoryTest {
 	@Autowired
 	UserRepository userRepository;
 
+	@Autowired
+	UserPermissionRepository userPermissionRepository;
+
 	@Autowired
 	private TestEntityManager entityManager;
 
@@ -149,6 +159,406 @@ public class NoteRepositoryTest {
 		assertTrue(returnVal.isEmpty(), "Note should be empty by id of created user because it is deleted");
 	}
 
+	@Test
+	void findPreviewPageByUser_Id_ReturnsNotesAfterCursorNewestFirst() {
+		Note secondNote = noteRepository.save(Note.builder()
+				.createdUser(savedUsers.get(0))
+				.updatedUser(savedUsers.get(0))
+				.build());
+		Note thirdNote = noteRepository.save(Note.builder()
+				.createdUser(savedUsers.get(0))
+				.updatedUser(savedUsers.get(0))
+				.build());
+		LocalDateTime earlier = LocalDateTime.of(2024, 1, 1, 9, 0);
+		LocalDateTime later = LocalDateTime.of(2024, 1, 2, 9, 0);
+		setUpdatedAt(savedNote, earlier);
+		setUpdatedAt(secondNote, later);
+		setUpdatedAt(thirdNote, later);
+		Integer userId = savedUsers.get(0).getId();
+
+		List<PreviewNoteRow> firstPage = noteRepository.findPreviewPageByUser_Id(
+				userId,
+				LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+				Integer.MAX_VALUE,
+				200,
+				2);
+		List<PreviewNoteRow> secondPage = noteRepository.findPreviewPageByUser_Id(
+				userId,
+				firstPage.get(1).updatedAt(),
+				firstPage.get(1).id(),
+				200,
+				2);
+
+		// notes updated at the same time are ordered by id
+		assertEquals(List.of(thirdNote.getId(), secondNote.getId()), firstPage.stream().map(PreviewNoteRow::id).toList());
+		assertEquals(List.of(savedNote.getId()), secondPage.stream().map(PreviewNoteRow::id).toList());
+	}
+
+	@Test
+	void findPreviewPageByUser_Id_LongContents_ReturnsLeadingCharacters() {
+		Integer userId = savedUsers.get(0).getId();
+
+		List<PreviewNoteRow> truncatedNotes = noteRepository.findPreviewPageByUser_Id(
+				userId,
+				LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+				Integer.MAX_VALUE,
+				4,
+				2);
+		List<PreviewNoteRow> notes = noteRepository.findPreviewPageByUser_Id(
+				userId,
+				LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+				Integer.MAX_VALUE,
+				savedNote.getContents().length(),
+				2);
+
+		assertAll(
+				() -> assertEquals("Test", truncatedNotes.get(0).contents()),
+				() -> assertTrue(truncatedNotes.get(0).truncated(), "Contents should be truncated"),
+				() -> assertEquals(savedNote.getContents(), notes.get(0).contents()),
+				() -> assertFalse(notes.get(0).truncated(), "Contents should not be truncated"));
+	}
+
+	@Test
+	void findPreviewPageByUser_Id_InexistentId_ReturnsEmptyList() {
+		List<PreviewNoteRow> returnVal = noteRepository.findPreviewPageByUser_Id(
+				savedUsers.get(1).getId(),
+				LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+				Integer.MAX_VALUE,
+				200,
+				2);
+
+		assertTrue(returnVal.isEmpty(), "Note should be empty by id of user");
+	}
+
+	@Test
+	void findPreviewPageByUser_Id_SharedNote_ReturnsEachNoteOnce() {
+		String type = "{\"readOnly\": false, \"readWrite\": true}";
+		saveUserPermission(savedNote, savedUsers.get(1), type, true);
+		saveUserPermission(savedNote, savedUsers.get(1), type, true);
+
+		List<PreviewNoteRow> returnVal = noteRepository.findPreviewPageByUser_Id(
+				savedUsers.get(1).getId(),
+				LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+				Integer.MAX_VALUE,
+				200,
+				10);
+
+		assertEquals(1, returnVal.size());
+		assertAll(
+				() -> assertEquals(savedNote.getId(), returnVal.get(0).id()),
+				() -> assertEquals(savedUsers.get(0).getId(), returnVal.get(0).createdUserId()),
+				() -> assertEquals(savedUsers.get(0).getName(), returnVal.get(0).createdBy()),
+				() -> assertEquals(savedUsers.get(1).getName(), returnVal.get(0).updatedBy()),
+				() -> assertTrue(returnVal.get(0).readWrite(), "Note should be writable by shared user"));
+	}
+
+	@Test
+	void findPreviewPageByUser_Id_ReadOnlyAndReadWritePermissions_ReturnsReadWrite() {
+		saveUserPermission(savedNote, savedUsers.get(1), "{\"readOnly\": true, \"readWrite\": false}", true);
+		saveUserPermission(savedNote, savedUsers.get(1), "{\"readOnly\":false,\"readWrite\":true}", true);
+
+		List<PreviewNoteRow> returnVal = noteRepository.findPreviewPageByUser_Id(
+				savedUsers.get(1).getId(),
+				LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+				Integer.MAX_VALUE,
+				200,
+				10);
+
+		assertEquals(List.of(savedNote.getId()), returnVal.stream().map(PreviewNoteRow::id).toList());
+		assertTrue(returnVal.get(0).readWrite(), "Note should be writable by shared user");
+	}
+
+	@Test
+	void findPreviewPageByUser_Id_ReadWritePermissionFormattedWithTabs_ReturnsReadWrite() {
+		saveUserPermission(savedNote, savedUsers.get(1), "{\n\t\"readOnly\":\tfalse,\n\t\"readWrite\":\ttrue\n}", true);
+
+		List<PreviewNoteRow> returnVal = noteRepository.findPreviewPageByUser_Id(
+				savedUsers.get(1).getId(),
+				LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+				Integer.MAX_VALUE,
+				200,
+				10);
+
+		assertEquals(1, returnVal.size());
+		assertTrue(returnVal.get(0).readWrite(), "Note should be writable by shared user");
+	}
+
+	@Test
+	void findPreviewPageByUser_Id_ReadOnlyPermission_ReturnsNotReadWrite() {
+		saveUserPermission(savedNote, savedUsers.get(1), "{\"readOnly\": true, \"readWrite\": false}", true);
+
+		List<PreviewNoteRow> returnVal = noteRepository.findPreviewPageByUser_Id(
+				savedUsers.get(1).getId(),
+				LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+				Integer.MAX_VALUE,
+				200,
+				10);
+
+		assertEquals(1, returnVal.size());
+		assertFalse(returnVal.get(0).readWrite(), "Note should not be writable by shared user");
+	}
+
+	@Test
+	void findPreviewPageByUser_Id_WrittenAndSharedNotes_ReturnsMergedPage() {
+		Note sharedNote = noteRepository.save(Note.builder()
+				.createdUser(savedUsers.get(0))
+				.updatedUser(savedUsers.get(0))
+				.build());
+		Note writtenNote = noteRepository.save(Note.builder()
+				.createdUser(savedUsers.get(1))
+				.updatedUser(savedUsers.get(1))
+				.build());
+		saveUserPermission(savedNote, savedUsers.get(1), "{\"readOnly\": true, \"readWrite\": false}", true);
+		saveUserPermission(sharedNote, savedUsers.get(1), "{\"readOnly\": true, \"readWrite\": false}", true);
+		setUpdatedAt(savedNote, LocalDateTime.of(2024, 1, 1, 9, 0));
+		setUpdatedAt(writtenNote, LocalDateTime.of(2024, 1, 2, 9, 0));
+		setUpdatedAt(sharedNote, LocalDateTime.of(2024, 1, 3, 9, 0));
+		Integer userId = savedUsers.get(1).getId();
+
+		List<PreviewNoteRow> firstPage = noteRepository.findPreviewPageByUser_Id(
+				userId,
+				LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+				Integer.MAX_VALUE,
+				200,
+				2);
+		List<PreviewNoteRow> secondPage = noteRepository.findPreviewPageByUser_Id(
+				userId,
+				firstPage.get(1).updatedAt(),
+				firstPage.get(1).id(),
+				200,
+				2);
+
+		assertEquals(List.of(sharedNote.getId(), writtenNote.getId()), firstPage.stream().map(PreviewNoteRow::id).toList());
+		assertEquals(List.of(savedNote.getId()), secondPage.stream().map(PreviewNoteRow::id).toList());
+	}
+
+	@Test
+	void findPreviewPageByUser_Id_DeletedSharedNote_ReturnsOnlyToAuthor() {
+		saveUserPermission(savedNote, savedUsers.get(1), "{\"readOnly\": true, \"readWrite\": false}", true);
+		savedNote.setDeletedFlag(true);
+		noteRepository.saveAndFlush(savedNote);
+
+		List<PreviewNoteRow> returnValOfAuthor = noteRepository.findPreviewPageByUser_Id(
+				savedUsers.get(0).getId(),
+				LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+				Integer.MAX_VALUE,
+				200,
+				10);
+		List<PreviewNoteRow> returnValOfSharedUser = noteRepository.findPreviewPageByUser_Id(
+				savedUsers.get(1).getId(),
+				LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+				Integer.MAX_VALUE,
+				200,
+				10);
+
+		assertEquals(List.of(savedNote.getId()), returnValOfAuthor.stream().map(PreviewNoteRow::id).toList());
+		assertFalse(returnValOfAuthor.get(0).readWrite(), "Note should not be shared with author");
+		assertTrue(returnValOfSharedUser.isEmpty(), "Deleted note should not be found by shared user");
+	}
+
+	@Test
+	void findPreviewPageByUser_Id_Denied_ReturnsEmptyList() {
+		saveUserPermission(savedNote, savedUsers.get(1), "{\"readOnly\": true, \"readWrite\": false}", false);
+
+		List<PreviewNoteRow> returnVal = noteRepository.findPreviewPageByUser_Id(
+				savedUsers.get(1).getId(),
+				LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+				Integer.MAX_VALUE,
+				200,
+				10);
+
+		assertTrue(returnVal.isEmpty(), "Note should not be found by shared user because it is denied");
+	}
+
+	@Test
+	void findListVersionByCreatedUser_Id_ReturnsCountAndLatestUpdatedAt() {
+		Integer userId = savedUsers.get(0).getId();
+		Note secondNote = noteRepository.save(Note.builder()
+				.createdUser(savedUsers.get(0))
+				.updatedUser(savedUsers.get(0))
+				.build());
+		setUpdatedAt(savedNote, LocalDateTime.of(2024, 1, 1, 9, 0));
+		setUpdatedAt(secondNote, LocalDateTime.of(2024, 1, 2, 9, 0));
+
+		NoteListVersion returnVal = noteRepository.findListVersionByCreatedUser_Id(userId);
+
+		assertEquals(new NoteListVersion(2L, LocalDateTime.of(2024, 1, 2, 9, 0)), returnVal);
+	}
+
+	@Test
+	void findListVersionByCreatedUser_Id_NoteIsOnlyShared_ReturnsEmptyVersion() {
+		saveUserPermission(savedNote, savedUsers.get(1), "{\"readOnly\": true, \"readWrite\": false}", true);
+
+		NoteListVersion returnVal = noteRepository.findListVersionByCreatedUser_Id(savedUsers.get(1).getId());
+
+		assertEquals(new NoteListVersion(0L, null), returnVal);
+	}
+
+	@Test
+	void findVersionById_ReturnsAuthorAndUpdatedAt() {
+		Optional<NoteVersion> returnVal = noteRepository.findVersionById(savedNote.getId());
+
+		assertTrue(returnVal.isPresent(), "Version should be found by id of note");
+		assertEquals(savedUsers.get(0).getId(), returnVal.get().createdUserId());
+		assertTrue(noteRepository.findVersionById(savedNote.getId() + 1).isEmpty());
+	}
+
+	@Test
+	void findWithUsersById_ReturnNoteWithAuthors() {
+		entityManager.clear();
+		Optional<Note> returnVal = noteRepository.findWithUsersById(savedNote.getId());
+
+		assertTrue(returnVal.isPresent(), "Note should be found by id");
+		assertTrue(Hibernate.isInitialized(returnVal.get().getCreatedUser()), "CreatedUser should be fetched");
+		assertTrue(Hibernate.isInitialized(returnVal.get().getUpdatedUser()), "UpdatedUser should be fetched");
+		assertTrue(noteRepository.findWithUsersById(savedNote.getId() + 1).isEmpty());
+	}
+
+	@Test
+	void updateContents_BaseVersionMatches_UpdateContentsAndVersion() {
+		int updatedCount = noteRepository.updateContents(
+				savedNote.getId(),
+				"Patched contents",
+				0,
+				LocalDateTime.of(2024, 1, 2, 9, 0),
+				savedUsers.get(0));
+		entityManager.refresh(savedNote);
+
+		assertEquals(1, updatedCount);
+		assertEquals("Patched contents", savedNote.getContents());
+		assertEquals(1, savedNote.getVersion());
+		assertEquals(savedUsers.get(0), savedNote.getUpdatedUser());
+		assertEquals(new NoteContents("Patched contents", 1), noteRepository.findContentsById(savedNote.getId()).get());
+	}
+
+	@Test
+	void updateContents_BaseVersionIsOutdated_NotUpdate() {
+		noteRepository.updateNote(
+				savedNote.getId(),
+				"Test title",
+				"Updated contents",
+				0,
+				LocalDateTime.of(2024, 1, 2, 9, 0),
+				savedUsers.get(0));
+
+		int updatedCount = noteRepository.updateContents(
+				savedNote.getId(),
+				"Patched contents",
+				0,
+				LocalDateTime.of(2024, 1, 2, 9, 0),
+				savedUsers.get(0));
+		entityManager.refresh(savedNote);
+
+		assertEquals(0, updatedCount);
+		assertEquals("Updated contents", savedNote.getContents());
+		assertEquals(1, savedNote.getVersion());
+	}
+
+	@Test
+	void updateContents_DeletedNote_NotUpdate() {
+		noteRepository.deleteNote(savedNote.getId(), savedUsers.get(0));
+
+		int updatedCount = noteRepository.updateContents(
+				savedNote.getId(),
+				"Patched contents",
+				0,
+				LocalDateTime.of(2024, 1, 2, 9, 0),
+				savedUsers.get(0));
+		entityManager.refresh(savedNote);
+
+		assertEquals(0, updatedCount);
+		assertEquals("Test contents", savedNote.getContents());
+		assertEquals(0, savedNote.getVersion());
+	}
+
+	@Test
+	void updateNote_VersionMatches_UpdateNoteAndVersion() {
+		int updatedCount = noteRepository.updateNote(
+				savedNote.getId(),
+				"Updated title",
+				"Updated contents",
+				0,
+				LocalDateTime.of(2024, 1, 2, 9, 0),
+				savedUsers.get(0));
+		entityManager.refresh(savedNote);
+
+		assertEquals(1, updatedCount);
+		assertEquals("Updated title", savedNote.getTitle());
+		assertEquals("Updated contents", savedNote.getContents());
+		assertEquals(1, savedNote.getVersion());
+		assertEquals(savedUsers.get(0), savedNote.getUpdatedUser());
+		assertEquals(savedUsers.get(0), savedNote.getCreatedUser(), "CreatedUser should not be changed");
+	}
+
+	@Test
+	void updateNote_OutdatedVersionOrDeletedNote_NotUpdate() {
+		assertEquals(0, noteRepository.updateNote(
+				savedNote.getId(), "Updated title", "Updated contents", 1, LocalDateTime.now(), savedUsers.get(0)));
+
+		noteRepository.deleteNote(savedNote.getId(), savedUsers.get(0));
+		assertEquals(0, noteRepository.updateNote(
+				savedNote.getId(), "Updated title", "Updated contents", 0, LocalDateTime.now(), savedUsers.get(0)));
+		entityManager.refresh(savedNote);
+
+		assertEquals("Test contents", savedNote.getContents());
+	}
+
+	@Test
+	void updateBufferedNote_UpdateNoteAndAddVersionIncrement() {
+		noteRepository.updateBufferedNote(
+				savedNote.getId(),
+				"Buffered title",
+				"Buffered contents",
+				3,
+				0,
+				LocalDateTime.of(2024, 1, 2, 9, 0),
+				savedUsers.get(0));
+		entityManager.refresh(savedNote);
+
+		assertEquals("Buffered title", savedNote.getTitle());
+		assertEquals("Buffered contents", savedNote.getContents());
+		assertEquals(3, savedNote.getVersion());
+		assertEquals(LocalDateTime.of(2024, 1, 2, 9, 0), savedNote.getUpdatedAt());
+	}
+
+	@Test
+	void updateBufferedNote_NoteWasUpdatedSinceBaseVersion_NotUpdate() {
+		noteRepository.updateContents(
+				savedNote.getId(), "Updated contents", 0, LocalDateTime.of(2024, 1, 2, 8, 0), savedUsers.get(0));
+
+		int updatedCount = noteRepository.updateBufferedNote(
+				savedNote.getId(),
+				"Buffered title",
+				"Buffered contents",
+				3,
+				0,
+				LocalDateTime.of(2024, 1, 2, 9, 0),
+				savedUsers.get(0));
+		entityManager.refresh(savedNote);
+
+		assertEquals(0, updatedCount);
+		assertEquals("Updated contents", savedNote.getContents());
+		assertEquals(1, savedNote.getVersion());
+	}
+
+	@Test
+	void updateBufferedNote_DeletedNote_NotUpdate() {
+		noteRepository.deleteNote(savedNote.getId(), savedUsers.get(0));
+
+		noteRepository.updateBufferedNote(
+				savedNote.getId(),
+				"Buffered title",
+				"Buffered contents",
+				3,
+				0,
+				LocalDateTime.of(2024, 1, 2, 9, 0),
+				savedUsers.get(0));
+		entityManager.refresh(savedNote);
+
+		assertEquals("Test contents", savedNote.getContents());
+		assertEquals(0, savedNote.getVersion());
+	}
+
 	@Test
 	void deleteNote_DeleteNote() {
 		noteRepository.deleteNote(savedNote.getId(), savedNote.getCreatedUser());
@@ -224,4 +634,26 @@ public class NoteRepositoryTest {
 		assertFalse(actual.get().isDeletedFlag(), "DeletedFlag should be false");
 		assertEquals(savedNote, actual.get(), "Note should not be updated");
 	}
+
+	// updatedAt is always overwritten by auditing on save
+	private void setUpdatedAt(Note note, LocalDateTime updatedAt) {
+		entityManager.getEntityManager()
+				.createQuery("update Note set updatedAt = :updatedAt where id = :id")
+				.setParameter("updatedAt", updatedAt)
+				.setParameter("id", note.getId())
+				.executeUpdate();
+		entityManager.clear();
+	}
+
+	private void saveUserPermission(Note note, User user, String type, boolean acceptedFlag) {
+		userPermissionRepository.saveAndFlush(UserPermission.builder()
+				.note(note)
+				.user(user)
+				.hash("PermissionHash".getBytes())
+				.type(type)
+				.invitedUserName(user.getName())
+				.deletedFlag(false)
+				.acceptedFlag(acceptedFlag)
+				.build());
+	}
 }
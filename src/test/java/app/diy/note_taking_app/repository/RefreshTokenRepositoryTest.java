@@ -0,0 +1,62 @@
+package app.diy.note_taking_app.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import app.diy.note_taking_app.configuration.JPAAuditingConfiguration;
+import app.diy.note_taking_app.constant.Role;
+import app.diy.note_taking_app.domain.entity.RefreshToken;
+import app.diy.note_taking_app.domain.entity.User;
+
+@DataJpaTest(showSql = true)
+@Import(JPAAuditingConfiguration.class)
+public class RefreshTokenRepositoryTest {
+
+	@Autowired
+	RefreshTokenRepository refreshTokenRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private RefreshToken savedToken;
+
+	@BeforeEach
+	void setUp() {
+		User user = entityManager.persist(User.builder()
+				.name("Test Name")
+				.email("test_email@gmail.com")
+				.password("sample")
+				.role(Role.USER)
+				.deletedFlag(false)
+				.build());
+
+		savedToken = refreshTokenRepository.saveAndFlush(RefreshToken.builder()
+				.user(user)
+				.tokenHash("hash")
+				.familyId("family")
+				.expiresAt(Instant.now(Clock.systemUTC()).plusSeconds(60))
+				.usedFlag(false)
+				.revokedFlag(false)
+				.build());
+	}
+
+	@Test
+	void markUsed_CalledTwice_MarkTokenOnlyOnce() {
+		assertEquals(1, refreshTokenRepository.markUsed(savedToken.getId()));
+		assertEquals(0, refreshTokenRepository.markUsed(savedToken.getId()),
+				"Token which was already used should not be marked again");
+
+		entityManager.clear();
+		assertTrue(refreshTokenRepository.findById(savedToken.getId()).get().isUsedFlag());
+	}
+}
@@ -24,6 +24,7 @@ import app.diy.note_taking_app.Util.StringUtil;
 import app.diy.note_taking_app.configuration.JPAAuditingConfiguration;
 import app.diy.note_taking_app.constant.Role;
 import app.diy.note_taking_app.domain.dto.PermissionType;
+import app.diy.note_taking_app.domain.dto.SharedNoteVersion;
 import app.diy.note_taking_app.domain.entity.Note;
 import app.diy.note_taking_app.domain.entity.User;
 import app.diy.note_taking_app.domain.entity.UserPermission;
@@ -401,6 +402,31 @@ public class UserPermissionRepositoryTest {
 		assertFalse(returnVal, "Value should be false because the id of note should be inexistent");
 	}
 
+	@Test
+	void findSharedNoteVersionsByUser_Id_ReturnsPermissionAndNoteVersions() {
+		List<SharedNoteVersion> returnVal = userPermissionRepository
+				.findSharedNoteVersionsByUser_Id(savedUsers.get(0).getId());
+
+		assertEquals(
+				List.of(new SharedNoteVersion(
+						savedUserPermission.getId(),
+						savedUserPermission.getType(),
+						savedNote.getId(),
+						savedNote.getVersion())),
+				returnVal);
+	}
+
+	@Test
+	void findSharedNoteVersionsByUser_Id_DeletedNote_ReturnsEmptyList() {
+		savedNote.setDeletedFlag(true);
+		noteRepository.saveAndFlush(savedNote);
+
+		List<SharedNoteVersion> returnVal = userPermissionRepository
+				.findSharedNoteVersionsByUser_Id(savedUsers.get(0).getId());
+
+		assertTrue(returnVal.isEmpty(), "Deleted note should not be found by shared user");
+	}
+
 	@Test
 	void deleteUserPermissionsByIds_DeleteNotes() throws Exception {
 		// Insert another permission
@@ -3,6 +3,8 @@ package app.diy.note_taking_app.repository;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.List;
@@ -14,9 +16,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import app.diy.note_taking_app.configuration.JPAAuditingConfiguration;
 import app.diy.note_taking_app.constant.Role;
+import app.diy.note_taking_app.domain.dto.AuthenticatedUser;
+import app.diy.note_taking_app.domain.dto.UserIdentity;
 import app.diy.note_taking_app.domain.entity.User;
 
 @DataJpaTest(showSql = true)
@@ -73,6 +78,32 @@ public class UserRepositoryTest {
 		assertTrue(returnVal.isEmpty(), "User was not found");
 	}
 
+	@Test
+	void findAuthenticatedUserById_ReturnsAuthenticatedUser() {
+		Optional<AuthenticatedUser> returnVal = userRepository.findAuthenticatedUserById(savedUser.getId());
+
+		assertTrue(returnVal.isPresent(), "User should be found by id unless it is not deleted");
+		assertEquals(
+				new AuthenticatedUser(
+						savedUser.getId(),
+						savedUser.getName(),
+						savedUser.getEmail(),
+						savedUser.getRole(),
+						false),
+				returnVal.get());
+	}
+
+	@Test
+	void findAuthenticatedUserById_DeletedUser_ReturnsEmpty() {
+		// Set deletedFlag=true
+		savedUser.setDeletedFlag(true);
+		userRepository.save(savedUser);
+
+		Optional<AuthenticatedUser> returnVal = userRepository.findAuthenticatedUserById(savedUser.getId());
+
+		assertTrue(returnVal.isEmpty(), "User was not found");
+	}
+
 	@Test
 	void findByEmail_ReturnsUser() {
 		Optional<User> returnVal = userRepository.findByEmail(savedUser.getEmail());
@@ -114,51 +145,42 @@ public class UserRepositoryTest {
 	}
 
 	@Test
-	void existsByEmailAndDeletedFlagFalse_ReturnsTrue() {
-		boolean returnVal = userRepository.existsByEmailAndDeletedFlagFalse(savedUser.getEmail());
+	void findIdentitiesByNameOrEmail_ReturnsUsersMatchingNameOrEmail() {
+		List<UserIdentity> byName = userRepository.findIdentitiesByNameOrEmail(
+				savedUser.getName(),
+				"not_found_email@gmail.com");
+		List<UserIdentity> byEmail = userRepository.findIdentitiesByNameOrEmail(
+				"Not Found Name",
+				savedUser.getEmail());
 
-		assertTrue(returnVal, "User should be found by email unless it is not deleted");
+		assertEquals(List.of(new UserIdentity(savedUser.getName(), savedUser.getEmail())), byName);
+		assertEquals(List.of(new UserIdentity(savedUser.getName(), savedUser.getEmail())), byEmail);
 	}
 
 	@Test
-	void existsByEmailAndDeletedFlagFalse_InexistentEmail_ReturnsFalse() {
-		boolean returnVal = userRepository.existsByEmailAndDeletedFlagFalse("not_found_email@gmail.com");
-
-		assertFalse(returnVal, "User was not found");
-	}
-
-	@Test
-	void existsByEmailAndDeletedFlagFalse_DeletedNote_ReturnsFalse() {
+	void findIdentitiesByNameOrEmail_DeletedUser_ReturnsEmpty() {
 		// Set deletedFlag=true
 		savedUser.setDeletedFlag(true);
 		userRepository.save(savedUser);
 
-		boolean returnVal = userRepository.existsByEmailAndDeletedFlagFalse(savedUser.getEmail());
-		assertFalse(returnVal, "User was not found");
-	}
-
-	@Test
-	void existsByNameAndDeletedFlagFalse_ReturnsTrue() {
-		boolean returnVal = userRepository.existsByNameAndDeletedFlagFalse(savedUser.getName());
-
-		assertTrue(returnVal, "User should be found by email unless it is not deleted");
+		List<UserIdentity> returnVal = userRepository.findIdentitiesByNameOrEmail(
+				savedUser.getName(),
+				savedUser.getEmail());
+		assertTrue(returnVal.isEmpty(), "User was not found");
 	}
 
 	@Test
-	void existsByNameAndDeletedFlagFalse_InexistentName_ReturnsFalse() {
-		boolean returnVal = userRepository.existsByNameAndDeletedFlagFalse("Not Found Name");
-
-		assertFalse(returnVal, "User was not found");
-	}
-
-	@Test
-	void existsByNameAndDeletedFlagFalse_DeletedNote_ReturnsFalse() {
-		// Set deletedFlag=true
-		savedUser.setDeletedFlag(true);
-		userRepository.save(savedUser);
-
-		boolean returnVal = userRepository.existsByNameAndDeletedFlagFalse(savedUser.getName());
-		assertFalse(returnVal, "User was not found");
+	void saveAndFlush_DuplicateName_ThrowsNameUniqueViolation() {
+		DataIntegrityViolationException e = assertThrows(
+				DataIntegrityViolationException.class,
+				() -> userRepository.saveAndFlush(User.builder()
+						.name(savedUser.getName())
+						.email("other_email@gmail.com")
+						.password("sample")
+						.role(Role.USER)
+						.deletedFlag(false)
+						.build()));
+		assertTrue(e.getMostSpecificCause().getMessage().toLowerCase().contains(User.NAME_UNIQUE_CONSTRAINT));
 	}
 
 	@Test
@@ -182,4 +204,35 @@ public class UserRepositoryTest {
 		assertFalse(actual.get().isDeletedFlag(), "DeletedFlag should be false");
 		assertEquals(savedUser, actual.get(), "User should not be updated");
 	}
+
+	@Test
+	void saveAndFlush_DuplicateEmail_ThrowsActiveEmailUniqueViolation() {
+		DataIntegrityViolationException e = assertThrows(
+				DataIntegrityViolationException.class,
+				() -> userRepository.saveAndFlush(User.builder()
+						.name("Other Name")
+						.email(savedUser.getEmail())
+						.password("sample")
+						.role(Role.USER)
+						.deletedFlag(false)
+						.build()));
+		assertTrue(e.getMostSpecificCause().getMessage().toLowerCase().contains(User.ACTIVE_EMAIL_UNIQUE_CONSTRAINT));
+	}
+
+	@Test
+	void saveAndFlush_EmailOfDeletedUser_SaveUser() {
+		userRepository.deleteUser(savedUser.getId());
+		entityManager.clear();
+
+		User returnVal = userRepository.saveAndFlush(User.builder()
+				.name("Other Name")
+				.email(savedUser.getEmail())
+				.password("sample")
+				.role(Role.USER)
+				.deletedFlag(false)
+				.build());
+
+		assertEquals(savedUser.getEmail(), returnVal.getActiveEmail());
+		assertNull(userRepository.findById(savedUser.getId()).get().getActiveEmail());
+	}
 }
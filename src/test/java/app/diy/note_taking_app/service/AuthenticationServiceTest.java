@@ -4,14 +4,19 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.sql.SQLException;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.Optional;
+import java.util.List;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,17 +27,25 @@ import org.mockito.Mockito;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import app.diy.note_taking_app.configuration.NoteTakingAppConfigProperties;
+import app.diy.note_taking_app.domain.dto.RefreshTokenRotation;
+import app.diy.note_taking_app.domain.dto.TokenClaims;
 import app.diy.note_taking_app.domain.dto.request.AuthenticationRequest;
+import app.diy.note_taking_app.domain.dto.request.RefreshRequest;
 import app.diy.note_taking_app.domain.dto.request.RegisterRequest;
+import app.diy.note_taking_app.domain.dto.response.AuthenticationResponse;
 import app.diy.note_taking_app.domain.entity.User;
 import app.diy.note_taking_app.exceptions.DatabaseTransactionalException;
-import app.diy.note_taking_app.exceptions.UserNotFoundException;
+import app.diy.note_taking_app.exceptions.DuplicateAccountException;
+import app.diy.note_taking_app.exceptions.PasswordHashingUnavailableException;
 import app.diy.note_taking_app.repository.UserRepository;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -62,6 +75,12 @@ public class AuthenticationServiceTest {
 	@MockBean
 	private AuthenticationManager spyAuthenticationManager;
 
+	@MockBean
+	private TokenRevocationService mockTokenRevocationService;
+
+	@MockBean
+	private RefreshTokenService mockRefreshTokenService;
+
 	private String jwtToken;
 	private MockedStatic<Clock> mockClock;
 	private MockedStatic<Instant> mockInstant;
@@ -111,8 +130,11 @@ public class AuthenticationServiceTest {
 
 		when(mockUserRepository.save(any(User.class))).thenReturn(user);
 		when(mockJwtService.generateToken(user)).thenReturn(jwtToken);
+		when(mockRefreshTokenService.create(user)).thenReturn("refresh token");
 
-		assertEquals(jwtToken, target.register(request).getToken());
+		AuthenticationResponse actual = target.register(request);
+		assertEquals(jwtToken, actual.getToken());
+		assertEquals("refresh token", actual.getRefreshToken());
 	}
 
 	@Test
@@ -131,6 +153,62 @@ public class AuthenticationServiceTest {
 		assertEquals("Failed to register user", e.getMessage());
 	}
 
+	@Test
+	void register_PasswordHashingSaturated_ThrowPasswordHashingUnavailableException() {
+		RegisterRequest request = RegisterRequest.builder()
+				.username("tester")
+				.email("test@gmail.com")
+				.password("test")
+				.build();
+
+		when(spyPasswordEncoder.encode("test")).thenThrow(
+				new PasswordHashingUnavailableException("Too many authentication requests", Duration.ofSeconds(1)));
+
+		PasswordHashingUnavailableException e = assertThrows(
+				PasswordHashingUnavailableException.class,
+				() -> target.register(request));
+		assertEquals(Duration.ofSeconds(1), e.getRetryAfter());
+		verify(mockUserRepository, never()).save(any(User.class));
+	}
+
+	@Test
+	void register_UsernameTakenConcurrently_ThrowDuplicateAccountException() {
+		RegisterRequest request = RegisterRequest.builder()
+				.username("tester")
+				.email("test@gmail.com")
+				.password("test")
+				.build();
+
+		when(mockUserRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException(
+				"could not execute statement",
+				new SQLException("Duplicate entry 'tester' for key 'users.uk_users_name'")));
+
+		DuplicateAccountException e = assertThrows(
+				DuplicateAccountException.class,
+				() -> target.register(request));
+		assertEquals("username", e.getFieldName());
+		assertEquals("Entered Username is already Used", e.getMessage());
+	}
+
+	@Test
+	void register_EmailTakenConcurrently_ThrowDuplicateAccountException() {
+		RegisterRequest request = RegisterRequest.builder()
+				.username("tester")
+				.email("test@gmail.com")
+				.password("test")
+				.build();
+
+		when(mockUserRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException(
+				"could not execute statement",
+				new SQLException("Duplicate entry 'test@gmail.com' for key 'users.uk_users_active_email'")));
+
+		DuplicateAccountException e = assertThrows(
+				DuplicateAccountException.class,
+				() -> target.register(request));
+		assertEquals("email", e.getFieldName());
+		assertEquals("Entered Email is already Used", e.getMessage());
+	}
+
 	@Test
 	void authenticate_GivenNormalToken_ReturnAuthenticationResponse() {
 		User user = User.builder().id(1).build();
@@ -139,24 +217,60 @@ public class AuthenticationServiceTest {
 				.password("test")
 				.build();
 
-		when(mockUserRepository.findByEmailAndDeletedFlagFalse(request.getEmail())).thenReturn(Optional.of(user));
+		when(spyAuthenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+				.thenReturn(new UsernamePasswordAuthenticationToken(user, null, List.of()));
 		when(mockJwtService.generateToken(user)).thenReturn(jwtToken);
+		when(mockRefreshTokenService.create(user)).thenReturn("refresh token");
 
-		assertEquals(jwtToken, target.authenticate(request).getToken());
+		AuthenticationResponse actual = target.authenticate(request);
+		assertEquals(jwtToken, actual.getToken());
+		assertEquals("refresh token", actual.getRefreshToken());
+		verify(mockUserRepository, never()).findByEmailAndDeletedFlagFalse(any());
 	}
 
 	@Test
-	void authenticate_GivenNormalToken_NotFound() {
+	void authenticate_UnknownOrDeletedUser_BadCredentials() {
 		AuthenticationRequest request = AuthenticationRequest.builder()
 				.email("test@gmail.com")
 				.password("test")
 				.build();
 
-		when(mockUserRepository.findByEmailAndDeletedFlagFalse(request.getEmail())).thenReturn(Optional.empty());
+		when(spyAuthenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+				.thenThrow(new BadCredentialsException("Bad credentials"));
 
-		UserNotFoundException e = assertThrows(
-				UserNotFoundException.class,
+		BadCredentialsException e = assertThrows(
+				BadCredentialsException.class,
 				() -> target.authenticate(request).getToken());
-		assertEquals("User was not found", e.getMessage());
+		assertEquals("Bad credentials", e.getMessage());
+	}
+
+	@Test
+	void logout_GivenNormalToken_RevokeToken() {
+		TokenClaims tokenClaims = TokenClaims.builder()
+				.tokenId("jti")
+				.subject("1")
+				.build();
+
+		when(mockJwtService.parseToken(jwtToken)).thenReturn(tokenClaims);
+
+		target.logout(jwtToken, RefreshRequest.builder().refreshToken("refresh token").build());
+
+		verify(mockTokenRevocationService, times(1)).revoke(tokenClaims);
+		verify(mockRefreshTokenService, times(1)).revoke("refresh token");
+	}
+
+	@Test
+	void refresh_GivenNormalRefreshToken_ReturnAuthenticationResponse() {
+		User user = User.builder().id(1).build();
+
+		when(mockRefreshTokenService.rotate("refresh token")).thenReturn(RefreshTokenRotation.builder()
+				.user(user)
+				.refreshToken("rotated refresh token")
+				.build());
+		when(mockJwtService.generateToken(user)).thenReturn(jwtToken);
+
+		AuthenticationResponse actual = target.refresh(RefreshRequest.builder().refreshToken("refresh token").build());
+		assertEquals(jwtToken, actual.getToken());
+		assertEquals("rotated refresh token", actual.getRefreshToken());
 	}
 }
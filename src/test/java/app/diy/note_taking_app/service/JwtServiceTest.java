@@ -2,46 +2,66 @@ package app.diy.note_taking_app.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.interfaces.ECPublicKey;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.Optional;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
-import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import app.diy.note_taking_app.configuration.JwtKeyManager;
+import app.diy.note_taking_app.configuration.JwtKeyRing;
 import app.diy.note_taking_app.configuration.NoteTakingAppConfigProperties;
+import app.diy.note_taking_app.constant.Role;
+import app.diy.note_taking_app.domain.dto.AuthenticatedUser;
+import app.diy.note_taking_app.domain.dto.TokenClaims;
+import app.diy.note_taking_app.domain.dto.response.JsonWebKey;
 import app.diy.note_taking_app.domain.entity.User;
-import app.diy.note_taking_app.exceptions.UserNotFoundException;
-import app.diy.note_taking_app.repository.UserRepository;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 
 @ExtendWith(SpringExtension.class)
 @EnableConfigurationProperties(NoteTakingAppConfigProperties.class)
 @TestPropertySource("classpath:secrets.properties")
+@Import(JwtKeyManager.class)
 public class JwtServiceTest {
 
 	@SpyBean
@@ -50,8 +70,8 @@ public class JwtServiceTest {
 	@SpyBean
 	private NoteTakingAppConfigProperties spyNtaProp;
 
-	@MockBean
-	private UserRepository mockUserRepository;
+	@Autowired
+	private JwtKeyManager jwtKeyManager;
 
 	private String jwtToken;
 	private MockedStatic<Clock> mockClock;
@@ -103,6 +123,59 @@ public class JwtServiceTest {
 		assertEquals(expected, target.extractClaim(jwtToken, Claims::getExpiration));
 	}
 
+	@Test
+	void parseToken_GivenNormalToken_ReturnTokenClaims() {
+		TokenClaims tokenClaims = target.parseToken(jwtToken);
+
+		assertEquals("1", tokenClaims.getSubject());
+		assertEquals(Date.from(issuedAt).toInstant(), tokenClaims.getIssuedAt());
+		assertEquals(Date.from(expiration).toInstant(), tokenClaims.getExpiration());
+		assertTrue(tokenClaims.getExtraClaims().isEmpty());
+	}
+
+	@Test
+	void parseToken_KeyWasRotated_VerifyWithRetiredKey() {
+		String tokenSignedWithDefaultKey = target.generateToken(User.builder().id(1).build());
+		jwtKeyManager.rotate("next", Encoders.BASE64.encode(Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded()));
+
+		try {
+			assertEquals("1", target.parseToken(tokenSignedWithDefaultKey).getSubject());
+			assertEquals("next", jwtKeyManager.getParser()
+					.parseClaimsJws(target.generateToken(User.builder().id(1).build()))
+					.getHeader()
+					.getKeyId());
+		} finally {
+			restoreDefaultKey();
+		}
+	}
+
+	@Test
+	void parseToken_KeyWasRetired_ThrowSignatureException() {
+		String tokenSignedWithDefaultKey = target.generateToken(User.builder().id(1).build());
+		jwtKeyManager.rotate("next", Encoders.BASE64.encode(Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded()));
+		jwtKeyManager.retire(JwtKeyRing.DEFAULT_KEY_ID);
+
+		try {
+			assertThrows(SignatureException.class, () -> target.parseToken(tokenSignedWithDefaultKey));
+		} finally {
+			restoreDefaultKey();
+		}
+	}
+
+	@Test
+	void parseToken_UnknownKeyId_ThrowSignatureException() {
+		String token = Jwts.builder()
+				.setHeaderParam(JwsHeader.KEY_ID, "unknown")
+				.setSubject("1")
+				.setExpiration(Date.from(expiration))
+				.signWith(Keys.hmacShaKeyFor(
+						Decoders.BASE64.decode(spyNtaProp.decodeSecretKey())),
+						SignatureAlgorithm.HS256)
+				.compact();
+
+		assertThrows(SignatureException.class, () -> target.parseToken(token));
+	}
+
 	@Test
 	void generateToken_GivenUserData_ReturnToken() {
 		User user = User.builder().id(1).build();
@@ -111,31 +184,85 @@ public class JwtServiceTest {
 		assertEquals(jwtToken, target.generateToken(user));
 	}
 
+	@Test
+	void generateToken_GivenUserData_TokenHasUniqueId() {
+		User user = User.builder().id(1).build();
+
+		TokenClaims firstClaims = target.parseToken(target.generateToken(user));
+		TokenClaims secondClaims = target.parseToken(target.generateToken(user));
+
+		assertNotNull(firstClaims.getTokenId());
+		assertNotEquals(firstClaims.getTokenId(), secondClaims.getTokenId());
+		assertTrue(firstClaims.getExtraClaims().isEmpty());
+	}
+
+	@Test
+	void generateToken_GivenUserData_TokenIsShortLivedWithRoleAndName() {
+		User user = User.builder().id(1).name("tester").role(Role.USER).build();
+
+		TokenClaims tokenClaims = target.parseToken(target.generateToken(user));
+
+		assertEquals(issuedAt.plus(spyNtaProp.tokenLifetime().accessTokenTtl()), tokenClaims.getExpiration());
+		assertEquals("USER", tokenClaims.getExtraClaims().get("role"));
+		assertEquals("tester", tokenClaims.getExtraClaims().get("name"));
+	}
+
+	@Test
+	void extractAuthenticatedUser_TokenWithRole_ReturnUserFromClaims() {
+		User user = User.builder().id(1).name("tester").role(Role.USER).build();
+
+		AuthenticatedUser actual = target
+				.extractAuthenticatedUser(target.parseToken(target.generateToken(user)))
+				.get();
+
+		assertEquals(1, actual.getId());
+		assertEquals("tester", actual.getName());
+		assertEquals(Role.USER, actual.getRole());
+		assertFalse(actual.isDeletedFlag());
+	}
+
+	@Test
+	void extractAuthenticatedUser_TokenWithoutRole_ReturnEmpty() {
+		assertTrue(target.extractAuthenticatedUser(target.parseToken(jwtToken)).isEmpty());
+	}
+
 	@Test
 	void isTokenValid_GivenValidTokenAndUser_ReturnTrue() {
-		User user = User.builder()
+		AuthenticatedUser user = AuthenticatedUser.builder()
 				.id(1)
 				.email("sample11@gmail.com")
 				.deletedFlag(false)
 				.build();
 
-		when(mockUserRepository.findByEmailAndDeletedFlagFalse(user.getEmail())).thenReturn(Optional.of(user));
-
 		assertTrue(target.isTokenValid(jwtToken, user));
 	}
 
 	@Test
-	void isTokenValid_FoundDeletedUser_NotFound() {
-		User user = User.builder()
+	void isTokenValid_GivenDeletedUser_ReturnFalse() {
+		AuthenticatedUser user = AuthenticatedUser.builder()
+				.id(1)
 				.email("sample11@gmail.com")
 				.deletedFlag(true)
 				.build();
-		final String errorMessage = "User was not found";
 
-		when(mockUserRepository.findByEmailAndDeletedFlagFalse(user.getEmail())).thenReturn(Optional.empty());
+		assertFalse(target.isTokenValid(jwtToken, user));
+	}
+
+	@Test
+	void isTokenValid_ParsedClaimsAreExpired_ReturnFalse() {
+		TokenClaims tokenClaims = TokenClaims.builder()
+				.subject("1")
+				.issuedAt(issuedAt)
+				.expiration(issuedAt.minusSeconds(1))
+				.extraClaims(Map.of())
+				.build();
+		AuthenticatedUser user = AuthenticatedUser.builder()
+				.id(1)
+				.email("sample11@gmail.com")
+				.deletedFlag(false)
+				.build();
 
-		UserNotFoundException e = assertThrows(UserNotFoundException.class, () -> target.isTokenValid(jwtToken, user));
-		assertEquals(errorMessage, e.getMessage());
+		assertFalse(target.isTokenValid(tokenClaims, user));
 	}
 
 	@ParameterizedTest
@@ -155,14 +282,12 @@ public class JwtServiceTest {
 						Decoders.BASE64.decode(spyNtaProp.decodeSecretKey())),
 						SignatureAlgorithm.HS256)
 				.compact();
-		User user = User.builder()
+		AuthenticatedUser user = AuthenticatedUser.builder()
 				.id(userIdFromDb)
 				.email("sample11@gmail.com")
 				.deletedFlag(false)
 				.build();
 
-		when(mockUserRepository.findByEmailAndDeletedFlagFalse(user.getEmail())).thenReturn(Optional.of(user));
-
 		assertFalse(target.isTokenValid(token, user));
 	}
 
@@ -177,14 +302,53 @@ public class JwtServiceTest {
 						Decoders.BASE64.decode(spyNtaProp.decodeSecretKey())),
 						SignatureAlgorithm.HS256)
 				.compact();
-		User user = User.builder()
+		AuthenticatedUser user = AuthenticatedUser.builder()
 				.id(1)
 				.email("sample11@gmail.com")
 				.deletedFlag(false)
 				.build();
 
-		when(mockUserRepository.findByEmailAndDeletedFlagFalse(user.getEmail())).thenReturn(Optional.of(user));
-
 		assertThrows(ExpiredJwtException.class, () -> target.isTokenValid(expiredToken, user));
 	}
+
+	@Test
+	void getJwkSet_Hs256_ReturnNoKeys() {
+		assertTrue(target.getJwkSet().getKeys().isEmpty());
+	}
+
+	@Test
+	void getJwkSet_Es256_ReturnPublicKeyVerifyingToken(@TempDir Path tempDir) throws IOException {
+		KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+		Path keyRingFile = Files.writeString(tempDir.resolve("jwt-keys.json"), """
+				{"activeKeyId":"first","privateKey":"%s","publicKeys":{"first":"%s"}}
+				""".formatted(
+				Encoders.BASE64.encode(keyPair.getPrivate().getEncoded()),
+				Encoders.BASE64.encode(keyPair.getPublic().getEncoded())));
+		when(spyNtaProp.signingKeys()).thenReturn(new NoteTakingAppConfigProperties.SigningKeys(
+				keyRingFile.toString(),
+				Duration.ofSeconds(30),
+				NoteTakingAppConfigProperties.SigningAlgorithm.ES256));
+		JwtKeyManager es256KeyManager = new JwtKeyManager(spyNtaProp, event -> {
+		});
+		JwtServiceImpl es256Target = new JwtServiceImpl(es256KeyManager, spyNtaProp);
+		ECPublicKey publicKey = (ECPublicKey) es256KeyManager.getKeyRing()
+				.verificationKey(es256KeyManager.getKeyRing().activeKeyId());
+
+		List<JsonWebKey> actual = es256Target.getJwkSet().getKeys();
+
+		assertEquals(1, actual.size());
+		assertEquals("EC", actual.get(0).getKty());
+		assertEquals("P-256", actual.get(0).getCrv());
+		assertEquals("ES256", actual.get(0).getAlg());
+		assertEquals(es256KeyManager.getKeyRing().activeKeyId(), actual.get(0).getKid());
+		assertEquals(publicKey.getW().getAffineX(), new BigInteger(1, Decoders.BASE64URL.decode(actual.get(0).getX())));
+		assertEquals(publicKey.getW().getAffineY(), new BigInteger(1, Decoders.BASE64URL.decode(actual.get(0).getY())));
+		assertEquals("1", es256Target.parseToken(es256Target.generateToken(User.builder().id(1).build())).getSubject());
+	}
+
+	// restore the key for the other tests
+	private void restoreDefaultKey() {
+		jwtKeyManager.rotate(JwtKeyRing.DEFAULT_KEY_ID, spyNtaProp.decodeSecretKey());
+		jwtKeyManager.retire("next");
+	}
 }
@@ -1,10 +1,14 @@
 package app.diy.note_taking_app.service;
 
-import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
@@ -15,25 +19,45 @@ import static org.mockito.Mockito.when;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
-import org.junit.jupiter.params.provider.Arguments;
-import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import app.diy.note_taking_app.cache.NoteDetailCache;
+import app.diy.note_taking_app.cache.NoteWriteBuffer;
+import app.diy.note_taking_app.configuration.NoteTakingAppConfigProperties;
+import app.diy.note_taking_app.constant.NoteEditType;
+import app.diy.note_taking_app.domain.dto.AuthenticatedUser;
+import app.diy.note_taking_app.domain.dto.NoteContents;
+import app.diy.note_taking_app.domain.dto.NoteCursor;
+import app.diy.note_taking_app.domain.dto.NoteDetailETag;
+import app.diy.note_taking_app.domain.dto.NoteListVersion;
+import app.diy.note_taking_app.domain.dto.NoteView;
+import app.diy.note_taking_app.domain.dto.NoteVersion;
+import app.diy.note_taking_app.domain.dto.PermissionVersion;
+import app.diy.note_taking_app.domain.dto.PreviewNotePage;
+import app.diy.note_taking_app.domain.dto.PreviewNoteRow;
+import app.diy.note_taking_app.domain.dto.SharedNoteVersion;
 import app.diy.note_taking_app.domain.dto.UserAuthorization;
+import app.diy.note_taking_app.domain.dto.request.NoteEditOperation;
+import app.diy.note_taking_app.domain.dto.request.NotePatchRequest;
 import app.diy.note_taking_app.domain.dto.request.NoteUpdateRequest;
 import app.diy.note_taking_app.domain.dto.response.NoteDetailResponse;
+import app.diy.note_taking_app.domain.dto.response.NotePatchResponse;
 import app.diy.note_taking_app.domain.dto.response.PreviewNoteResponse;
 import app.diy.note_taking_app.domain.entity.Note;
 import app.diy.note_taking_app.domain.entity.User;
 import app.diy.note_taking_app.domain.entity.UserPermission;
 import app.diy.note_taking_app.exceptions.DatabaseTransactionalException;
+import app.diy.note_taking_app.exceptions.InvalidNoteCursorException;
+import app.diy.note_taking_app.exceptions.NoteNotFoundException;
+import app.diy.note_taking_app.exceptions.NoteVersionConflictException;
 import app.diy.note_taking_app.repository.NoteRepository;
 import app.diy.note_taking_app.repository.UserPermissionRepository;
 import app.diy.note_taking_app.service.factory.NoteFactory;
@@ -57,182 +81,280 @@ public class NoteServiceTest {
 	@Mock
 	private EntityManager mockEntityManager;
 
-	private static Stream<Arguments> getNoteListPatternProvider() {
-		User firstUser = User.builder()
-				.id(1)
-				.name("First user")
-				.deletedFlag(false)
-				.build();
-		User secondUser = User.builder()
-				.id(2)
-				.name("Second user")
-				.deletedFlag(false)
-				.build();
-		Note firstNote = Note.builder()
-				.id(1)
-				.title("Title 1")
-				.contents("First note")
-				.createdAt(LocalDateTime.of(2024, 1, 1, 9, 0))
-				.createdUser(firstUser)
-				.updatedAt(LocalDateTime.of(2024, 1, 2, 9, 0))
-				.updatedUser(firstUser)
-				.build();
-		Note secondNote = Note.builder()
-				.id(2)
-				.title("Title 2")
-				.contents("Second note")
-				.createdAt(LocalDateTime.of(2024, 1, 1, 9, 0))
-				.createdUser(firstUser)
-				.updatedAt(LocalDateTime.of(2024, 1, 2, 9, 0))
-				.updatedUser(secondUser)
-				.build();
-		Note deletedNote = Note.builder()
-				.id(2)
-				.title("Title Deleted")
-				.contents("Deleted note")
-				.createdAt(LocalDateTime.of(2024, 1, 1, 9, 0))
-				.createdUser(firstUser)
-				.updatedAt(LocalDateTime.of(2024, 1, 2, 9, 0))
-				.updatedUser(secondUser)
-				.deletedFlag(true)
-				.build();
-		PreviewNoteResponse firstPreviewNoteResponse = PreviewNoteResponse.builder()
-				.id(firstNote.getId())
-				.title(firstNote.getTitle())
-				.contents(firstNote.getContents())
-				.createdAt(firstNote.getCreatedAt())
-				.createdBy(firstNote.getCreatedUser().getName())
-				.updatedAt(firstNote.getUpdatedAt())
-				.updatedBy(firstNote.getUpdatedUser().getName())
-				.deletedFlag(false)
-				.build();
-		PreviewNoteResponse secondPreviewNoteResponse = PreviewNoteResponse.builder()
-				.id(secondNote.getId())
-				.title(secondNote.getTitle())
-				.contents(secondNote.getContents())
-				.createdAt(secondNote.getCreatedAt())
-				.createdBy(secondNote.getCreatedUser().getName())
-				.updatedAt(secondNote.getUpdatedAt())
-				.updatedBy(secondNote.getUpdatedUser().getName())
-				.build();
-		PreviewNoteResponse previewNoteResponseWithDeletedNote = PreviewNoteResponse.builder()
-				.id(deletedNote.getId())
-				.title(deletedNote.getTitle())
-				.contents(deletedNote.getContents())
-				.createdAt(deletedNote.getCreatedAt())
-				.createdBy(deletedNote.getCreatedUser().getName())
-				.updatedAt(deletedNote.getUpdatedAt())
-				.updatedBy(deletedNote.getUpdatedUser().getName())
-				.deletedFlag(deletedNote.isDeletedFlag())
-				.build();
+	@Mock
+	private NoteTakingAppConfigProperties mockNtaProp;
 
-		return Stream.of(
-				Arguments.of(
-						firstUser.getId(),
-						List.of(firstNote),
-						List.of(),
-						List.of(firstNote),
-						List.of(firstPreviewNoteResponse)),
-				Arguments.of(
-						firstUser.getId(),
-						List.of(firstNote),
-						List.of(UserPermission.builder()
-								.note(Note.builder().deletedFlag(true).build())
-								.deletedFlag(false)
-								.build()),
-						List.of(firstNote),
-						List.of(firstPreviewNoteResponse)),
-				Arguments.of(
-						secondUser.getId(),
-						List.of(),
-						List.of(UserPermission.builder().note(secondNote).deletedFlag(false).build()),
-						List.of(secondNote),
-						List.of(secondPreviewNoteResponse)),
-				Arguments.of(
-						firstUser.getId(),
-						List.of(deletedNote),
-						List.of(UserPermission.builder().note(secondNote).deletedFlag(false).build()),
-						List.of(deletedNote, secondNote),
-						List.of(previewNoteResponseWithDeletedNote, secondPreviewNoteResponse)),
-				Arguments.of(
-						firstUser.getId(),
-						List.of(deletedNote),
-						List.of(UserPermission.builder()
-								.note(Note.builder()
-										.deletedFlag(true)
-										.build())
-								.deletedFlag(false)
-								.build()),
-						List.of(deletedNote),
-						List.of(previewNoteResponseWithDeletedNote)),
-				Arguments.of(
-						firstUser.getId(),
-						List.of(firstNote),
-						List.of(UserPermission.builder().note(secondNote).deletedFlag(false).build()),
-						List.of(firstNote, secondNote),
-						List.of(firstPreviewNoteResponse, secondPreviewNoteResponse)));
-	}
-
-	/*
-	 * 1. Found notesWrittenByUser but none of notesWrittenByOther
-	 * 2. Found notesWrittenByUser and notesWrittenByOther that note is deleted
-	 * 3. Found notesWrittenByOther but none of notesWrittenByUser
-	 * 4. Found notesWrittenByOther and deleted notesWrittenByUser
-	 * 5. Found both deleted notesWrittenByUser and notesWrittenByOther
-	 * 6. Found both notesWrittenByOther and notesWrittenByUser
-	 */
-	@ParameterizedTest
-	@MethodSource({ "getNoteListPatternProvider" })
-	void getNoteList_GivenNormalToken_ReturnPreviewNoteResponse(
-			Integer userId,
-			List<Note> notesWrittenByUser,
-			List<UserPermission> userPermissions,
-			List<Note> allNotes,
-			List<PreviewNoteResponse> expected) {
-		when(mockNoteRepository.findByCreatedUser_Id(userId)).thenReturn(notesWrittenByUser);
-		when(mockUserPermissionRepository.findByUser_IdAndDeletedFlagFalseAndAcceptedFlagTrue(userId))
-				.thenReturn(userPermissions);
-		when(mockNoteFactory.createPreviewNoteResponseList(allNotes, userId)).thenReturn(expected);
-
-		assertArrayEquals(expected.toArray(), target.getNoteList(userId).toArray());
-	}
-
-	private static Stream<Arguments> getNoteListEmptyListProvider() {
-		return Stream.of(
-				Arguments.of(
-						List.of(),
-						List.of()),
-				Arguments.of(
-						List.of(),
-						List.of(UserPermission.builder()
-								.note(Note.builder().deletedFlag(true).build())
-								.deletedFlag(false)
-								.build())));
+	@Mock
+	private NoteDetailCache mockNoteDetailCache;
+
+	@Mock
+	private NoteWriteBuffer mockNoteWriteBuffer;
+
+	@Test
+	void getNoteList_FirstPage_ReturnNotesNewestFirst() {
+		List<PreviewNoteRow> notes = List.of(
+				previewNoteRow(1, LocalDateTime.of(2024, 1, 3, 9, 0)),
+				previewNoteRow(2, LocalDateTime.of(2024, 1, 2, 9, 0)));
+		List<PreviewNoteResponse> expected = List.of(
+				PreviewNoteResponse.builder().id(1).build(),
+				PreviewNoteResponse.builder().id(2).build());
+		when(mockNtaProp.noteList()).thenReturn(new NoteTakingAppConfigProperties.NoteList(50, 200, 200));
+		when(mockNoteRepository.findPreviewPageByUser_Id(
+				1,
+				NoteCursor.FIRST.updatedAt(),
+				NoteCursor.FIRST.id(),
+				200,
+				51))
+				.thenReturn(notes);
+		when(mockNoteFactory.createPreviewNoteResponseList(notes, 1)).thenReturn(expected);
+
+		PreviewNotePage actual = target.getNoteList(1, NoteCursor.FIRST.encode(), null);
+
+		assertEquals(expected, actual.getNotes());
+		assertNull(actual.getNextCursor());
+	}
+
+	@Test
+	void getNoteList_NeitherCursorNorSize_ReturnEveryNote() {
+		List<PreviewNoteRow> notes = List.of(
+				previewNoteRow(1, LocalDateTime.of(2024, 1, 3, 9, 0)),
+				previewNoteRow(3, LocalDateTime.of(2024, 1, 2, 9, 0)),
+				previewNoteRow(2, LocalDateTime.of(2024, 1, 2, 9, 0)));
+		List<PreviewNoteResponse> expected = List.of(
+				PreviewNoteResponse.builder().id(1).build(),
+				PreviewNoteResponse.builder().id(3).build(),
+				PreviewNoteResponse.builder().id(2).build());
+		when(mockNtaProp.noteList()).thenReturn(new NoteTakingAppConfigProperties.NoteList(2, 200, 200));
+		when(mockNoteRepository.findPreviewPageByUser_Id(
+				1,
+				NoteCursor.FIRST.updatedAt(),
+				NoteCursor.FIRST.id(),
+				200,
+				Integer.MAX_VALUE))
+				.thenReturn(notes);
+		when(mockNoteFactory.createPreviewNoteResponseList(notes, 1)).thenReturn(expected);
+
+		PreviewNotePage actual = target.getNoteList(1, null, null);
+
+		assertEquals(expected, actual.getNotes());
+		assertNull(actual.getNextCursor());
+	}
+
+	@Test
+	void getNoteList_MoreNotesThanPageSize_ReturnNextCursor() {
+		PreviewNoteRow firstNote = previewNoteRow(1, LocalDateTime.of(2024, 1, 3, 9, 0));
+		PreviewNoteRow secondNote = previewNoteRow(3, LocalDateTime.of(2024, 1, 2, 9, 0));
+		PreviewNoteRow thirdNote = previewNoteRow(2, LocalDateTime.of(2024, 1, 2, 9, 0));
+		List<PreviewNoteResponse> expected = List.of(
+				PreviewNoteResponse.builder().id(1).build(),
+				PreviewNoteResponse.builder().id(3).build());
+		when(mockNtaProp.noteList()).thenReturn(new NoteTakingAppConfigProperties.NoteList(50, 200, 200));
+		when(mockNoteRepository.findPreviewPageByUser_Id(
+				1,
+				NoteCursor.FIRST.updatedAt(),
+				NoteCursor.FIRST.id(),
+				200,
+				3))
+				.thenReturn(List.of(firstNote, secondNote, thirdNote));
+		when(mockNoteFactory.createPreviewNoteResponseList(List.of(firstNote, secondNote), 1)).thenReturn(expected);
+
+		PreviewNotePage actual = target.getNoteList(1, null, 2);
+
+		assertEquals(expected, actual.getNotes());
+		assertEquals(new NoteCursor(secondNote.updatedAt(), secondNote.id()), NoteCursor.decode(actual.getNextCursor()));
+	}
+
+	@Test
+	void getNoteList_GivenCursorAndTooLargeSize_ReadNotesAfterCursorWithMaximumSize() {
+		NoteCursor cursor = new NoteCursor(LocalDateTime.of(2024, 1, 2, 9, 0), 3);
+		when(mockNtaProp.noteList()).thenReturn(new NoteTakingAppConfigProperties.NoteList(50, 200, 200));
+		when(mockNoteRepository.findPreviewPageByUser_Id(1, cursor.updatedAt(), cursor.id(), 200, 201))
+				.thenReturn(List.of());
+
+		PreviewNotePage actual = target.getNoteList(1, cursor.encode(), 1000);
+
+		assertTrue(actual.getNotes().isEmpty());
+		assertNull(actual.getNextCursor());
+		verify(mockNoteFactory, never()).createPreviewNoteResponseList(any(), any());
 	}
 
 	@ParameterizedTest
-	@MethodSource({ "getNoteListEmptyListProvider" })
-	void getNoteList_GivenNormalToken_ReturnEmptyList(
-			List<Note> notesWrittenByUser,
-			List<UserPermission> userPermissions) {
-		when(mockNoteRepository.findByCreatedUser_Id(anyInt())).thenReturn(notesWrittenByUser);
-		when(mockUserPermissionRepository.findByUser_IdAndDeletedFlagFalseAndAcceptedFlagTrue(anyInt()))
-				.thenReturn(userPermissions);
+	@ValueSource(strings = { "invalid cursor", "aW52YWxpZA", "MjAyNC0wMS0wMlQwOTowMHxh" })
+	void getNoteList_InvalidCursor_ThrowInvalidNoteCursorException(String cursor) {
+		assertThrows(InvalidNoteCursorException.class, () -> target.getNoteList(1, cursor, null));
+	}
 
-		assertArrayEquals(List.of().toArray(), target.getNoteList(1).toArray());
+	@Test
+	void getNoteListETag_NotesWereUpdated_ReturnDifferentETag() {
+		when(mockNtaProp.noteList()).thenReturn(new NoteTakingAppConfigProperties.NoteList(50, 200, 200));
+		when(mockNoteRepository.findListVersionByCreatedUser_Id(1))
+				.thenReturn(new NoteListVersion(2L, LocalDateTime.of(2024, 1, 2, 9, 0)))
+				.thenReturn(new NoteListVersion(2L, LocalDateTime.of(2024, 1, 2, 9, 0)))
+				.thenReturn(new NoteListVersion(2L, LocalDateTime.of(2024, 1, 3, 9, 0)));
+		when(mockUserPermissionRepository.findSharedNoteVersionsByUser_Id(1)).thenReturn(List.of());
+
+		String eTag = target.getNoteListETag(1, null, null).get();
+
+		assertEquals(eTag, target.getNoteListETag(1, null, null).get());
+		assertNotEquals(eTag, target.getNoteListETag(1, null, null).get());
+	}
+
+	@Test
+	void getNoteListETag_DifferentPages_ReturnDifferentETag() {
+		when(mockNtaProp.noteList()).thenReturn(new NoteTakingAppConfigProperties.NoteList(50, 200, 200));
+		when(mockNoteRepository.findListVersionByCreatedUser_Id(1))
+				.thenReturn(new NoteListVersion(3L, LocalDateTime.of(2024, 1, 3, 9, 0)));
+		when(mockUserPermissionRepository.findSharedNoteVersionsByUser_Id(1)).thenReturn(List.of());
+		String secondPage = new NoteCursor(LocalDateTime.of(2024, 1, 2, 9, 0), 2).encode();
+
+		String firstPageETag = target.getNoteListETag(1, null, 1).get();
+
+		assertEquals(firstPageETag, target.getNoteListETag(1, null, 1).get());
+		assertNotEquals(firstPageETag, target.getNoteListETag(1, secondPage, 1).get());
+		assertNotEquals(firstPageETag, target.getNoteListETag(1, null, 2).get());
+		assertNotEquals(firstPageETag, target.getNoteListETag(1, null, null).get());
+	}
+
+	@Test
+	void getNoteListETag_InvalidCursor_ReturnEmpty() {
+		assertTrue(target.getNoteListETag(1, "invalid", null).isEmpty());
+		verify(mockNoteRepository, never()).findListVersionByCreatedUser_Id(any());
+	}
+
+	@Test
+	void getNoteListETag_OtherNotesWereShared_ReturnDifferentETag() {
+		String type = "{\"readOnly\": true, \"readWrite\": false}";
+		when(mockNtaProp.noteList()).thenReturn(new NoteTakingAppConfigProperties.NoteList(50, 200, 200));
+		when(mockNoteRepository.findListVersionByCreatedUser_Id(1)).thenReturn(new NoteListVersion(0L, null));
+		// notes 1 and 4 were unshared, and notes 2 and 3 were shared instead
+		when(mockUserPermissionRepository.findSharedNoteVersionsByUser_Id(1))
+				.thenReturn(List.of(new SharedNoteVersion(1, type, 1, 0), new SharedNoteVersion(4, type, 4, 0)))
+				.thenReturn(List.of(new SharedNoteVersion(2, type, 2, 0), new SharedNoteVersion(3, type, 3, 0)));
+
+		assertNotEquals(target.getNoteListETag(1, null, null).get(), target.getNoteListETag(1, null, null).get());
+	}
+
+	@Test
+	void getNoteListETag_PermissionWasUpdated_ReturnDifferentETag() {
+		when(mockNtaProp.noteList()).thenReturn(new NoteTakingAppConfigProperties.NoteList(50, 200, 200));
+		when(mockNoteRepository.findListVersionByCreatedUser_Id(1)).thenReturn(new NoteListVersion(0L, null));
+		when(mockUserPermissionRepository.findSharedNoteVersionsByUser_Id(1))
+				.thenReturn(List.of(new SharedNoteVersion(1, "{\"readOnly\": true, \"readWrite\": false}", 1, 0)))
+				.thenReturn(List.of(new SharedNoteVersion(1, "{\"readOnly\": false, \"readWrite\": true}", 1, 0)));
+
+		assertNotEquals(target.getNoteListETag(1, null, null).get(), target.getNoteListETag(1, null, null).get());
+	}
+
+	@Test
+	void getNoteDetailETag_NonExistentNote_ReturnOptionalEmpty() {
+		when(mockNoteRepository.findVersionById(1)).thenReturn(Optional.empty());
+
+		assertTrue(target.getNoteDetailETag(1, 1).isEmpty());
+		verify(mockUserPermissionRepository, never()).findVersionsByNote_Id(anyInt());
+	}
+
+	@Test
+	void getNoteDetailETag_UserIsUnsharedUser_ReturnOptionalEmpty() {
+		when(mockNoteRepository.findVersionById(1))
+				.thenReturn(Optional.of(new NoteVersion(1, LocalDateTime.of(2024, 1, 2, 9, 0), false, 3)));
+		when(mockUserPermissionRepository.findVersionsByNote_Id(1))
+				.thenReturn(List.of(new PermissionVersion(1, 2, "{\"readOnly\": true, \"readWrite\": false}")));
+
+		assertTrue(target.getNoteDetailETag(1, 3).isEmpty());
+	}
+
+	@Test
+	void getNoteDetailETag_PermissionWasUpdated_ReturnDifferentETag() {
+		NoteVersion noteVersion = new NoteVersion(1, LocalDateTime.of(2024, 1, 2, 9, 0), false, 3);
+		when(mockNoteRepository.findVersionById(1)).thenReturn(Optional.of(noteVersion));
+		when(mockUserPermissionRepository.findVersionsByNote_Id(1))
+				.thenReturn(List.of(new PermissionVersion(1, 2, "{\"readOnly\": true, \"readWrite\": false}")))
+				.thenReturn(List.of(new PermissionVersion(1, 2, "{\"readOnly\": true, \"readWrite\": false}")))
+				.thenReturn(List.of(new PermissionVersion(1, 2, "{\"readOnly\": false, \"readWrite\": true}")));
+
+		Optional<String> eTagOfSharedUser = target.getNoteDetailETag(1, 2);
+		Optional<String> eTagOfAuthor = target.getNoteDetailETag(1, 1);
+
+		assertTrue(eTagOfSharedUser.isPresent());
+		assertTrue(eTagOfAuthor.isPresent());
+		// the response differs by user
+		assertNotEquals(eTagOfSharedUser, eTagOfAuthor);
+		assertNotEquals(eTagOfAuthor, target.getNoteDetailETag(1, 1));
+	}
+
+	@Test
+	void getNoteDetailETag_ReturnETagLedByVersion() {
+		when(mockNoteRepository.findVersionById(1))
+				.thenReturn(Optional.of(new NoteVersion(1, LocalDateTime.of(2024, 1, 2, 9, 0), false, 3)));
+		when(mockUserPermissionRepository.findVersionsByNote_Id(1)).thenReturn(List.of());
+
+		String eTag = target.getNoteDetailETag(1, 1).get();
+
+		// given back in If-Match of an update as the version the client has
+		assertEquals(3, NoteDetailETag.decode(eTag).version());
+		assertTrue(eTag.startsWith("\"3-") && eTag.endsWith("\""), "ETag should be a quoted version and digest");
+	}
+
+	@Test
+	void getNoteDetailETag_NoteIsCached_ReturnSameETagWithoutReadingVersions() {
+		String type = "{\"readOnly\": true, \"readWrite\": false}";
+		NoteView cachedNote = NoteView.of(
+				Note.builder()
+						.id(1)
+						.createdUser(User.builder().id(1).build())
+						.updatedAt(LocalDateTime.of(2024, 1, 2, 9, 0))
+						.updatedUser(User.builder().id(1).build())
+						.version(3)
+						.build(),
+				List.of(UserPermission.builder().id(5).user(User.builder().id(2).build()).type(type).build()));
+		when(mockNoteRepository.findVersionById(1))
+				.thenReturn(Optional.of(new NoteVersion(1, LocalDateTime.of(2024, 1, 2, 9, 0), false, 3)));
+		when(mockUserPermissionRepository.findVersionsByNote_Id(1)).thenReturn(List.of(new PermissionVersion(5, 2, type)));
+		when(mockNoteDetailCache.getIfPresent(1))
+				.thenReturn(Optional.empty())
+				.thenReturn(Optional.of(cachedNote));
+
+		Optional<String> eTagFromDatabase = target.getNoteDetailETag(1, 2);
+		Optional<String> eTagFromCache = target.getNoteDetailETag(1, 2);
+
+		assertTrue(eTagFromCache.isPresent());
+		assertEquals(eTagFromDatabase, eTagFromCache);
+		verify(mockNoteRepository, times(1)).findVersionById(1);
+		verify(mockUserPermissionRepository, times(1)).findVersionsByNote_Id(1);
+	}
+
+	@Test
+	void getNoteDetailETag_CachedNoteIsNotSharedWithUser_ReturnOptionalEmpty() {
+		NoteView cachedNote = NoteView.of(
+				Note.builder()
+						.id(1)
+						.createdUser(User.builder().id(1).build())
+						.updatedUser(User.builder().id(1).build())
+						.build(),
+				List.of());
+		when(mockNoteDetailCache.getIfPresent(1)).thenReturn(Optional.of(cachedNote));
+
+		assertTrue(target.getNoteDetailETag(1, 2).isEmpty());
+		verify(mockNoteRepository, never()).findVersionById(anyInt());
 	}
 
 	@Test
 	void getUndeletedNote_GivenExistedNoteId_ReturnOptionalNote() {
-		Optional<Note> returnVal = Optional.ofNullable(Note.builder().id(1).build());
-		when(mockNoteRepository.findById(anyInt())).thenReturn(returnVal);
+		NoteView returnVal = NoteView.of(
+				Note.builder()
+						.id(1)
+						.createdUser(User.builder().id(1).build())
+						.updatedUser(User.builder().id(1).build())
+						.build(),
+				List.of());
+		when(mockNoteDetailCache.get(1)).thenReturn(Optional.of(returnVal));
 
-		assertEquals(returnVal.get().getId(), target.getNote(1).get().getId());
+		assertEquals(returnVal.id(), target.getNote(1).get().id());
 	}
 
 	@Test
 	void getUndeletedNote_GivenDeletedNoteId_ReturnOptionalEmpty() {
-		when(mockNoteRepository.findById(anyInt())).thenReturn(Optional.empty());
+		when(mockNoteDetailCache.get(1)).thenReturn(Optional.empty());
 		assertEquals(Optional.empty(), target.getNote(1));
 	}
 
@@ -262,12 +384,11 @@ public class NoteServiceTest {
 				.deletedFlag(false)
 				.build();
 
-		when(mockUserPermissionRepository.findByNote_IdAndDeletedFlagFalseAndAcceptedFlagTrue(anyInt()))
-				.thenReturn(userPermissions);
-		when(mockNoteFactory.createNoteDetailResponse(note, userPermissions, 1))
+		NoteView noteView = NoteView.of(note, userPermissions);
+		when(mockNoteFactory.createNoteDetailResponse(noteView, 1))
 				.thenReturn(expected);
 
-		assertEquals(expected, target.getNoteDetail(note, 1));
+		assertEquals(expected, target.getNoteDetail(noteView, 1));
 	}
 
 	@Test
@@ -306,12 +427,11 @@ public class NoteServiceTest {
 				.deletedFlag(false)
 				.build();
 
-		when(mockUserPermissionRepository.findByNote_IdAndDeletedFlagFalseAndAcceptedFlagTrue(anyInt()))
-				.thenReturn(userPermissions);
-		when(mockNoteFactory.createNoteDetailResponse(note, userPermissions, 1))
+		NoteView noteView = NoteView.of(note, userPermissions);
+		when(mockNoteFactory.createNoteDetailResponse(noteView, 1))
 				.thenReturn(expected);
 
-		assertEquals(expected, target.getNoteDetail(note, 1));
+		assertEquals(expected, target.getNoteDetail(noteView, 1));
 	}
 
 	@Test
@@ -340,12 +460,11 @@ public class NoteServiceTest {
 				.deletedFlag(false)
 				.build();
 
-		when(mockUserPermissionRepository.findByNote_IdAndDeletedFlagFalseAndAcceptedFlagTrue(anyInt()))
-				.thenReturn(userPermissions);
-		when(mockNoteFactory.createNoteDetailResponse(note, userPermissions, 2))
+		NoteView noteView = NoteView.of(note, userPermissions);
+		when(mockNoteFactory.createNoteDetailResponse(noteView, 2))
 				.thenReturn(expected);
 
-		assertEquals(expected, target.getNoteDetail(note, 2));
+		assertEquals(expected, target.getNoteDetail(noteView, 2));
 	}
 
 	@Test
@@ -390,12 +509,11 @@ public class NoteServiceTest {
 				.deletedFlag(false)
 				.build();
 
-		when(mockUserPermissionRepository.findByNote_IdAndDeletedFlagFalseAndAcceptedFlagTrue(anyInt()))
-				.thenReturn(userPermissions);
-		when(mockNoteFactory.createNoteDetailResponse(note, userPermissions, 2))
+		NoteView noteView = NoteView.of(note, userPermissions);
+		when(mockNoteFactory.createNoteDetailResponse(noteView, 2))
 				.thenReturn(expected);
 
-		assertEquals(expected, target.getNoteDetail(note, 2));
+		assertEquals(expected, target.getNoteDetail(noteView, 2));
 	}
 
 	@Test
@@ -431,108 +549,224 @@ public class NoteServiceTest {
 				.deletedFlag(false)
 				.build();
 
+		when(mockEntityManager.getReference(User.class, user.getId())).thenReturn(user);
 		when(mockNoteFactory.createNote(user)).thenReturn(templateNote);
 		when(mockNoteRepository.save(templateNote)).thenReturn(savedNote);
 		when(mockNoteFactory.createNoteDetailResponse(savedNote, 1)).thenReturn(expected);
 
-		assertEquals(expected, target.create(user));
+		assertEquals(expected, target.create(AuthenticatedUser.builder().id(1).build()));
 	}
 
 	@Test
 	void create_GivenNormalRequest_ThrowException() {
+		User user = User.builder().id(1).build();
+
+		when(mockEntityManager.getReference(User.class, user.getId())).thenReturn(user);
+		when(mockNoteFactory.createNote(user)).thenReturn(Note.builder().build());
 		when(mockNoteRepository.save(any(Note.class))).thenThrow(new RuntimeException());
 
 		DatabaseTransactionalException e = assertThrows(
 				DatabaseTransactionalException.class,
-				() -> target.create(User.builder().id(1).build()));
+				() -> target.create(AuthenticatedUser.builder().id(1).build()));
 		assertEquals("Failed to save note", e.getMessage());
 	}
 
 	@Test
-	void update_GivenNormalRequest_ReturnNoteDetailResponse() {
-		Note note = Note.builder()
-				.id(1)
-				.title("Title 1")
-				.contents("First note")
-				.deletedFlag(false)
-				.createdAt(LocalDateTime.of(2024, 1, 1, 9, 0))
-				.createdUser(User.builder().id(1).name("tester").build())
-				.updatedAt(LocalDateTime.of(2024, 1, 2, 9, 0))
-				.updatedUser(User.builder().name("tester").build())
-				.deletedFlag(false)
-				.build();
+	void update_GivenNormalRequest_ReturnNoteDetailResponseWithoutReadingNote() {
 		NoteUpdateRequest request = NoteUpdateRequest.builder()
 				.title("Updated Title")
 				.contents("Updated note")
 				.build();
-		User user = User.builder()
-				.id(1)
-				.build();
-		Note updatedNote = Note.builder()
-				.id(note.getId())
-				.title(request.getTitle())
-				.contents(request.getContents())
-				.updatedUser(user)
-				.build();
-		Note savedNote = Note.builder()
-				.id(note.getId())
-				.title(updatedNote.getTitle())
-				.contents(updatedNote.getContents())
-				.deletedFlag(note.isDeletedFlag())
-				.createdAt(note.getCreatedAt())
-				.createdUser(note.getCreatedUser())
-				.updatedAt(note.getUpdatedAt())
-				.updatedUser(note.getUpdatedUser())
-				.deletedFlag(false)
-				.build();
-		NoteDetailResponse expected = NoteDetailResponse.builder()
-				.id(note.getId())
-				.title(request.getTitle())
-				.contents(request.getContents())
-				.userIsAuthor(true)
-				.sharedUsers(List.of())
-				.createdAt(note.getCreatedAt())
-				.createdBy(note.getCreatedUser().getName())
-				.updatedAt(note.getUpdatedAt())
-				.updatedBy(note.getUpdatedUser().getName())
-				.deletedFlag(false)
-				.build();
-
-		when(mockNoteFactory.updateNote(note.getId(), request, user)).thenReturn(updatedNote);
-		when(mockNoteRepository.saveAndFlush(updatedNote)).thenReturn(savedNote);
-		doNothing().when(mockEntityManager).refresh(savedNote);
-		when(mockNoteFactory.createNoteDetailResponse(
-				savedNote,
-				List.of(),
-				user.getId()))
-				.thenReturn(expected);
-		when(mockUserPermissionRepository.findByNote_IdAndDeletedFlagFalseAndAcceptedFlagTrue(anyInt()))
-				.thenReturn(List.of());
+		User user = User.builder().id(1).build();
+		NoteDetailResponse expected = NoteDetailResponse.builder().id(1).build();
+		when(mockEntityManager.getReference(User.class, user.getId())).thenReturn(user);
+		when(mockNoteRepository.updateNote(eq(1), eq("Updated Title"), eq("Updated note"), eq(3L), any(), eq(user)))
+				.thenReturn(1);
+		when(mockNoteFactory.createNoteDetailResponse(any(NoteView.class), eq(1))).thenReturn(expected);
 
 		assertEquals(expected, target.update(
-				note.getId(),
+				noteView(3),
 				request,
-				user));
+				null,
+				AuthenticatedUser.builder().id(1).name("updater").build()));
+
+		ArgumentCaptor<NoteView> updatedNote = ArgumentCaptor.forClass(NoteView.class);
+		verify(mockNoteFactory).createNoteDetailResponse(updatedNote.capture(), eq(1));
+		assertEquals("Updated Title", updatedNote.getValue().title());
+		assertEquals("Updated note", updatedNote.getValue().contents());
+		assertEquals("updater", updatedNote.getValue().updatedBy());
+		assertEquals(4, updatedNote.getValue().version());
+		verify(mockNoteDetailCache, never()).get(anyInt());
+		verify(mockNoteDetailCache, times(1)).invalidate(1);
+	}
+
+	@Test
+	void update_CachedNoteIsBehind_WriteAgainAtLatestVersion() {
+		NoteUpdateRequest request = NoteUpdateRequest.builder().title("Title 1").contents("Updated").build();
+		when(mockNoteRepository.updateNote(eq(1), any(), any(), eq(3L), any(), any())).thenReturn(0);
+		when(mockNoteRepository.updateNote(eq(1), any(), any(), eq(5L), any(), any())).thenReturn(1);
+		when(mockNoteDetailCache.get(1)).thenReturn(Optional.of(noteView(5)));
+
+		target.update(noteView(3), request, null, AuthenticatedUser.builder().id(1).build());
+
+		ArgumentCaptor<NoteView> updatedNote = ArgumentCaptor.forClass(NoteView.class);
+		verify(mockNoteFactory).createNoteDetailResponse(updatedNote.capture(), eq(1));
+		assertEquals(6, updatedNote.getValue().version());
+	}
+
+	@Test
+	void update_NoteWasUpdatedConcurrently_ThrowNoteVersionConflictException() {
+		NoteUpdateRequest request = NoteUpdateRequest.builder().title("Title 1").contents("Updated").build();
+		when(mockNoteRepository.updateNote(eq(1), any(), any(), anyLong(), any(), any())).thenReturn(0);
+		when(mockNoteDetailCache.get(1)).thenReturn(Optional.of(noteView(5)));
+		when(mockNoteRepository.findVersionById(1)).thenReturn(Optional.of(new NoteVersion(1, null, false, 6)));
+
+		NoteVersionConflictException e = assertThrows(
+				NoteVersionConflictException.class,
+				() -> target.update(noteView(3), request, null, AuthenticatedUser.builder().id(1).build()));
+		assertEquals(6, e.getCurrentVersion());
+	}
+
+	@Test
+	void update_NoteIsAheadOfExpectedVersion_ThrowNoteVersionConflictExceptionWithoutWriting() {
+		NoteUpdateRequest request = NoteUpdateRequest.builder().title("Title 1").contents("Updated").build();
+		when(mockNoteDetailCache.get(1)).thenReturn(Optional.of(noteView(5)));
+
+		NoteVersionConflictException e = assertThrows(
+				NoteVersionConflictException.class,
+				() -> target.update(noteView(3), request, 4L, AuthenticatedUser.builder().id(1).build()));
+		assertEquals(5, e.getCurrentVersion());
+		verify(mockNoteDetailCache, times(1)).invalidate(1);
+		verify(mockNoteRepository, never()).updateNote(anyInt(), any(), any(), anyLong(), any(), any());
+	}
+
+	@Test
+	void update_NoteWasUpdatedSinceExpectedVersion_ThrowNoteVersionConflictExceptionWithoutRetrying() {
+		NoteUpdateRequest request = NoteUpdateRequest.builder().title("Title 1").contents("Updated").build();
+		when(mockNoteRepository.updateNote(eq(1), any(), any(), eq(3L), any(), any())).thenReturn(0);
+		when(mockNoteRepository.findVersionById(1)).thenReturn(Optional.of(new NoteVersion(1, null, false, 4)));
+
+		NoteVersionConflictException e = assertThrows(
+				NoteVersionConflictException.class,
+				() -> target.update(noteView(3), request, 3L, AuthenticatedUser.builder().id(1).build()));
+		assertEquals(4, e.getCurrentVersion());
+		verify(mockNoteRepository, times(1)).updateNote(anyInt(), any(), any(), anyLong(), any(), any());
+		verify(mockNoteDetailCache, never()).get(anyInt());
+	}
+
+	@Test
+	void update_WriteBehindEnabled_ReturnBufferedNoteWithoutWriting() {
+		NoteUpdateRequest request = NoteUpdateRequest.builder().title("Title 1").contents("Buffered").build();
+		AuthenticatedUser user = AuthenticatedUser.builder().id(1).name("tester").build();
+		NoteView bufferedNote = noteView(4);
+		NoteDetailResponse expected = NoteDetailResponse.builder().id(1).contents("Buffered").version(4).build();
+		when(mockNoteWriteBuffer.isEnabled()).thenReturn(true);
+		when(mockNoteWriteBuffer.buffer(noteView(3), request, null, user)).thenReturn(Optional.of(bufferedNote));
+		when(mockNoteFactory.createNoteDetailResponse(bufferedNote, 1)).thenReturn(expected);
+
+		assertEquals(expected, target.update(noteView(3), request, null, user));
+		verify(mockNoteRepository, never()).updateNote(anyInt(), any(), any(), anyLong(), any(), any());
+	}
+
+	@Test
+	void getNoteDetail_NoteHasBufferedUpdate_ReturnWrittenNote() {
+		NoteView writtenNote = noteView(4);
+		NoteDetailResponse expected = NoteDetailResponse.builder().id(1).version(4).build();
+		when(mockNoteWriteBuffer.flush(1)).thenReturn(true);
+		when(mockNoteDetailCache.get(1)).thenReturn(Optional.of(writtenNote));
+		when(mockNoteFactory.createNoteDetailResponse(writtenNote, 1)).thenReturn(expected);
+
+		assertEquals(expected, target.getNoteDetail(noteView(3), 1));
 	}
 
 	@Test
 	void update_GivenNormalRequest_ThrowException() {
-		when(mockNoteRepository.saveAndFlush(any(Note.class))).thenThrow(new RuntimeException());
+		when(mockNoteRepository.updateNote(anyInt(), any(), any(), anyLong(), any(), any()))
+				.thenThrow(new RuntimeException());
 
 		DatabaseTransactionalException e = assertThrows(
 				DatabaseTransactionalException.class,
 				() -> target.update(
-						1,
+						noteView(3),
 						NoteUpdateRequest.builder()
 								.title("Title 1")
 								.contents("First note")
 								.build(),
-						User.builder()
+						null,
+						AuthenticatedUser.builder()
 								.id(1)
 								.build()));
 		assertEquals("Failed to update note", e.getMessage());
 	}
 
+	@Test
+	void patchContents_CachedNoteIsAtBaseVersion_UpdateWithoutReadingContents() {
+		NoteView note = noteView(3);
+		NotePatchRequest request = notePatchRequest(3);
+		User user = User.builder().id(1).build();
+		when(mockNoteFactory.patchContents("First note", request.getOperations())).thenReturn("First note!");
+		when(mockEntityManager.getReference(User.class, user.getId())).thenReturn(user);
+		when(mockNoteRepository.updateContents(anyInt(), any(), anyLong(), any(), any())).thenReturn(1);
+
+		NotePatchResponse actual = target.patchContents(note, request, AuthenticatedUser.builder().id(1).build());
+
+		assertEquals(1, actual.getId());
+		assertEquals(4, actual.getVersion());
+		verify(mockNoteRepository, never()).findContentsById(anyInt());
+		verify(mockNoteRepository, times(1)).updateContents(
+				anyInt(), eq("First note!"), eq(3L), eq(actual.getUpdatedAt()), eq(user));
+		verify(mockNoteDetailCache, times(1)).invalidate(1);
+	}
+
+	@Test
+	void patchContents_CachedNoteIsBehindBaseVersion_ReadContents() {
+		NotePatchRequest request = notePatchRequest(4);
+		when(mockNoteRepository.findContentsById(1)).thenReturn(Optional.of(new NoteContents("Second note", 4)));
+		when(mockNoteFactory.patchContents("Second note", request.getOperations())).thenReturn("Second note!");
+		when(mockNoteRepository.updateContents(anyInt(), any(), anyLong(), any(), any())).thenReturn(1);
+
+		assertEquals(5, target.patchContents(noteView(3), request, AuthenticatedUser.builder().id(1).build())
+				.getVersion());
+	}
+
+	@Test
+	void patchContents_NoteIsAheadOfBaseVersion_ThrowNoteVersionConflictException() {
+		when(mockNoteRepository.findContentsById(1)).thenReturn(Optional.of(new NoteContents("Second note", 4)));
+
+		NoteVersionConflictException e = assertThrows(
+				NoteVersionConflictException.class,
+				() -> target.patchContents(noteView(4), notePatchRequest(3), AuthenticatedUser.builder().id(1).build()));
+		assertEquals("Note was updated to version 4", e.getMessage());
+		assertEquals(4, e.getCurrentVersion());
+		verify(mockNoteRepository, never()).updateContents(anyInt(), any(), anyLong(), any(), any());
+	}
+
+	@Test
+	void patchContents_NoteWasUpdatedConcurrently_ThrowNoteVersionConflictException() {
+		NotePatchRequest request = notePatchRequest(3);
+		when(mockNoteFactory.patchContents("First note", request.getOperations())).thenReturn("First note!");
+		when(mockNoteRepository.updateContents(anyInt(), any(), anyLong(), any(), any())).thenReturn(0);
+		when(mockNoteRepository.findVersionById(1)).thenReturn(Optional.of(new NoteVersion(1, null, false, 4)));
+
+		assertThrows(
+				NoteVersionConflictException.class,
+				() -> target.patchContents(noteView(3), request, AuthenticatedUser.builder().id(1).build()));
+		verify(mockNoteDetailCache, never()).invalidate(anyInt());
+	}
+
+	@Test
+	void patchContents_NoteWasDeletedConcurrently_ThrowNoteNotFoundException() {
+		NotePatchRequest request = notePatchRequest(3);
+		when(mockNoteFactory.patchContents("First note", request.getOperations())).thenReturn("First note!");
+		when(mockNoteRepository.updateContents(anyInt(), any(), anyLong(), any(), any())).thenReturn(0);
+		when(mockNoteRepository.findVersionById(1)).thenReturn(Optional.of(new NoteVersion(1, null, true, 3)));
+
+		assertThrows(
+				NoteNotFoundException.class,
+				() -> target.patchContents(noteView(3), request, AuthenticatedUser.builder().id(1).build()));
+		verify(mockNoteDetailCache, never()).invalidate(anyInt());
+	}
+
 	@Test
 	void delete_GivenNormalRequestAndPermissionsExisted_Successful() {
 		Note note = Note.builder()
@@ -547,12 +781,15 @@ public class NoteServiceTest {
 				.build();
 		User user = User.builder().id(1).build();
 
+		when(mockEntityManager.getReference(User.class, user.getId())).thenReturn(user);
+		when(mockEntityManager.getReference(Note.class, note.getId())).thenReturn(note);
 		doNothing().when(mockNoteRepository).deleteNote(note.getId(), user);
 		when(mockUserPermissionRepository.existsByNote(note)).thenReturn(true);
 		doNothing().when(mockUserPermissionRepository).deleteUserPermissionsByNote(note);
 
-		target.delete(note, user);
+		target.delete(note.getId(), AuthenticatedUser.builder().id(1).build());
 		verify(mockNoteRepository, times(1)).deleteNote(note.getId(), user);
+		verify(mockNoteDetailCache, times(1)).invalidate(note.getId());
 		verify(mockUserPermissionRepository, times(1)).existsByNote(note);
 		verify(mockUserPermissionRepository, times(1)).deleteUserPermissionsByNote(note);
 	}
@@ -571,11 +808,14 @@ public class NoteServiceTest {
 				.build();
 		User user = User.builder().id(1).build();
 
+		when(mockEntityManager.getReference(User.class, user.getId())).thenReturn(user);
+		when(mockEntityManager.getReference(Note.class, note.getId())).thenReturn(note);
 		doNothing().when(mockNoteRepository).deleteNote(note.getId(), user);
 		when(mockUserPermissionRepository.existsByNote(note)).thenReturn(false);
 
-		target.delete(note, user);
+		target.delete(note.getId(), AuthenticatedUser.builder().id(1).build());
 		verify(mockNoteRepository, times(1)).deleteNote(note.getId(), user);
+		verify(mockNoteDetailCache, times(1)).invalidate(note.getId());
 		verify(mockUserPermissionRepository, times(1)).existsByNote(note);
 		verify(mockUserPermissionRepository, never()).deleteUserPermissionsByNote(note);
 	}
@@ -594,11 +834,31 @@ public class NoteServiceTest {
 				.build();
 		User user = User.builder().id(1).build();
 
+		when(mockEntityManager.getReference(User.class, user.getId())).thenReturn(user);
 		doThrow(new RuntimeException()).when(mockNoteRepository).deleteNote(note.getId(), user);
 
 		DatabaseTransactionalException e = assertThrows(
 				DatabaseTransactionalException.class,
-				() -> target.delete(note, user));
+				() -> target.delete(note.getId(), AuthenticatedUser.builder().id(1).build()));
 		assertEquals("Failed to delete note", e.getMessage());
 	}
+
+	private PreviewNoteRow previewNoteRow(Integer id, LocalDateTime updatedAt) {
+		return new PreviewNoteRow(id, "Title", "Contents", false, updatedAt, 1, "tester", updatedAt, "tester", false, false);
+	}
+
+	private NoteView noteView(long version) {
+		return new NoteView(1, "Title 1", "First note", null, 1, "tester", null, "tester", false, version, List.of());
+	}
+
+	private NotePatchRequest notePatchRequest(long baseVersion) {
+		return NotePatchRequest.builder()
+				.baseVersion(baseVersion)
+				.operations(List.of(NoteEditOperation.builder()
+						.type(NoteEditType.INSERT)
+						.position(10)
+						.text("!")
+						.build()))
+				.build();
+	}
 }
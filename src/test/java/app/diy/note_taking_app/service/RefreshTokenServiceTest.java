@@ -0,0 +1,175 @@
+package app.diy.note_taking_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import app.diy.note_taking_app.configuration.TestConfigProperties;
+import app.diy.note_taking_app.domain.dto.RefreshTokenRotation;
+import app.diy.note_taking_app.domain.entity.RefreshToken;
+import app.diy.note_taking_app.domain.entity.User;
+import app.diy.note_taking_app.exceptions.InvalidRefreshTokenException;
+import app.diy.note_taking_app.repository.RefreshTokenRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+
+	private RefreshTokenServiceImpl target;
+
+	@Mock
+	private RefreshTokenRepository mockRefreshTokenRepository;
+
+	private User user;
+
+	@BeforeEach
+	void init() {
+		target = new RefreshTokenServiceImpl(
+				mockRefreshTokenRepository,
+				TestConfigProperties.defaults());
+		user = User.builder().id(1).deletedFlag(false).build();
+	}
+
+	@Test
+	void create_GivenUser_SaveDigestOfToken() {
+		ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+
+		String refreshToken = target.create(user);
+
+		verify(mockRefreshTokenRepository, times(1)).save(captor.capture());
+		assertNotEquals(refreshToken, captor.getValue().getTokenHash(), "Raw token should not be stored");
+		assertEquals(user, captor.getValue().getUser());
+		assertTrue(captor.getValue().getExpiresAt().isAfter(Instant.now(Clock.systemUTC()).plus(Duration.ofDays(29))));
+	}
+
+	@Test
+	void rotate_GivenNormalToken_ReturnNewTokenOfSameFamily() {
+		ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+		String refreshToken = target.create(user);
+		verify(mockRefreshTokenRepository).save(captor.capture());
+		RefreshToken stored = captor.getValue();
+
+		stored.setId(10);
+
+		when(mockRefreshTokenRepository.findByTokenHash(stored.getTokenHash())).thenReturn(Optional.of(stored));
+		when(mockRefreshTokenRepository.markUsed(10)).thenReturn(1);
+
+		RefreshTokenRotation actual = target.rotate(refreshToken);
+
+		assertEquals(user, actual.getUser());
+		assertNotEquals(refreshToken, actual.getRefreshToken());
+		verify(mockRefreshTokenRepository, never()).revokeFamily(anyString());
+		verify(mockRefreshTokenRepository, times(2)).save(captor.capture());
+		assertEquals(stored.getFamilyId(), captor.getValue().getFamilyId());
+	}
+
+	@Test
+	void rotate_UsedToken_RevokeFamily() {
+		RefreshToken used = RefreshToken.builder()
+				.user(user)
+				.familyId("family")
+				.expiresAt(Instant.now(Clock.systemUTC()).plusSeconds(60))
+				.usedFlag(true)
+				.build();
+
+		when(mockRefreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(used));
+
+		InvalidRefreshTokenException e = assertThrows(
+				InvalidRefreshTokenException.class,
+				() -> target.rotate("refresh token"));
+		assertEquals("Refresh token was already used", e.getMessage());
+		verify(mockRefreshTokenRepository, times(1)).revokeFamily("family");
+	}
+
+	@Test
+	void rotate_SameTokenConcurrently_OnlyOneRotationSucceeds() throws Exception {
+		// both requests read the token before either of them marks it as used
+		RefreshToken unused = RefreshToken.builder()
+				.id(10)
+				.user(user)
+				.familyId("family")
+				.expiresAt(Instant.now(Clock.systemUTC()).plusSeconds(60))
+				.usedFlag(false)
+				.build();
+		AtomicBoolean marked = new AtomicBoolean();
+		CyclicBarrier bothRead = new CyclicBarrier(2);
+		when(mockRefreshTokenRepository.findByTokenHash(anyString())).thenAnswer(invocation -> {
+			bothRead.await(5, TimeUnit.SECONDS);
+			return Optional.of(unused);
+		});
+		when(mockRefreshTokenRepository.markUsed(10))
+				.thenAnswer(invocation -> marked.compareAndSet(false, true) ? 1 : 0);
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			List<Future<RefreshTokenRotation>> rotations = executor.invokeAll(List.of(
+					() -> target.rotate("refresh token"),
+					() -> target.rotate("refresh token")));
+
+			int succeeded = 0;
+			for (Future<RefreshTokenRotation> rotation : rotations) {
+				try {
+					rotation.get();
+					succeeded++;
+				} catch (ExecutionException e) {
+					assertInstanceOf(InvalidRefreshTokenException.class, e.getCause());
+				}
+			}
+			assertEquals(1, succeeded);
+			verify(mockRefreshTokenRepository, times(1)).revokeFamily("family");
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void rotate_ExpiredToken_ThrowException() {
+		RefreshToken expired = RefreshToken.builder()
+				.user(user)
+				.familyId("family")
+				.expiresAt(Instant.now(Clock.systemUTC()).minusSeconds(1))
+				.build();
+
+		when(mockRefreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(expired));
+
+		assertThrows(InvalidRefreshTokenException.class, () -> target.rotate("refresh token"));
+		verify(mockRefreshTokenRepository, never()).save(any(RefreshToken.class));
+	}
+
+	@Test
+	void rotate_UnknownToken_ThrowException() {
+		when(mockRefreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+		InvalidRefreshTokenException e = assertThrows(
+				InvalidRefreshTokenException.class,
+				() -> target.rotate("refresh token"));
+		assertEquals("Refresh token is invalid", e.getMessage());
+	}
+}
@@ -0,0 +1,156 @@
+package app.diy.note_taking_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import app.diy.note_taking_app.configuration.TestConfigProperties;
+import app.diy.note_taking_app.domain.dto.TokenClaims;
+import app.diy.note_taking_app.domain.entity.RevokedToken;
+import app.diy.note_taking_app.exceptions.DatabaseTransactionalException;
+import app.diy.note_taking_app.repository.RevokedTokenRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationServiceTest {
+
+	private TokenRevocationServiceImpl target;
+
+	@Mock
+	private RevokedTokenRepository mockRevokedTokenRepository;
+
+	@BeforeEach
+	void init() {
+		target = new TokenRevocationServiceImpl(mockRevokedTokenRepository, TestConfigProperties.defaults());
+	}
+
+	@Test
+	void revoke_GivenTokenClaims_TokenIsRevoked() {
+		TokenClaims tokenClaims = tokenClaims("jti", Instant.now(Clock.systemUTC()).plusSeconds(60));
+
+		target.revoke(tokenClaims);
+
+		assertTrue(target.isRevoked(tokenClaims));
+		assertFalse(target.isRevoked(tokenClaims("other jti", tokenClaims.getExpiration())));
+		ArgumentCaptor<RevokedToken> revokedToken = ArgumentCaptor.forClass(RevokedToken.class);
+		verify(mockRevokedTokenRepository, times(1)).save(revokedToken.capture());
+		assertEquals("jti", revokedToken.getValue().getTokenId());
+		assertEquals(tokenClaims.getExpiration(), revokedToken.getValue().getExpiresAt());
+		assertNotNull(revokedToken.getValue().getRevokedAt());
+	}
+
+	@Test
+	void revokeUser_GivenUserId_EveryTokenOfUserIsRevoked() {
+		TokenClaims tokenClaims = tokenClaims("jti", Instant.now(Clock.systemUTC()).plusSeconds(60));
+
+		target.revokeUser(1);
+
+		assertTrue(target.isRevoked(tokenClaims));
+		assertTrue(target.isRevoked(tokenClaims(null, tokenClaims.getExpiration())),
+				"Token issued before jti was introduced should be revoked as well");
+		assertFalse(target.isRevoked(TokenClaims.builder()
+				.tokenId("other jti")
+				.subject("2")
+				.expiration(tokenClaims.getExpiration())
+				.build()));
+	}
+
+	@Test
+	void revoke_TokenWithoutId_NotRevoked() {
+		TokenClaims tokenClaims = tokenClaims(null, Instant.now(Clock.systemUTC()).plusSeconds(60));
+
+		target.revoke(tokenClaims);
+
+		assertFalse(target.isRevoked(tokenClaims));
+		verify(mockRevokedTokenRepository, never()).save(any(RevokedToken.class));
+	}
+
+	@Test
+	void revoke_GivenTokenClaims_ThrowException() {
+		TokenClaims tokenClaims = tokenClaims("jti", Instant.now(Clock.systemUTC()).plusSeconds(60));
+
+		when(mockRevokedTokenRepository.save(any(RevokedToken.class))).thenThrow(new RuntimeException());
+
+		DatabaseTransactionalException e = assertThrows(
+				DatabaseTransactionalException.class,
+				() -> target.revoke(tokenClaims));
+		assertEquals("Failed to revoke token", e.getMessage());
+		assertFalse(target.isRevoked(tokenClaims));
+	}
+
+	@Test
+	void purgeExpiredTokens_ExpiredToken_NotRevokedAnymore() {
+		TokenClaims expiredClaims = tokenClaims("expired", Instant.now(Clock.systemUTC()).minusSeconds(1));
+		TokenClaims validClaims = tokenClaims("valid", Instant.now(Clock.systemUTC()).plusSeconds(60));
+		target.revoke(expiredClaims);
+		target.revoke(validClaims);
+
+		target.purgeExpiredTokens();
+
+		assertFalse(target.isRevoked(expiredClaims));
+		assertTrue(target.isRevoked(validClaims));
+		verify(mockRevokedTokenRepository, times(1)).deleteExpiredTokens(any(Instant.class));
+	}
+
+	@Test
+	void loadRevokedTokens_PersistedTokens_TokenIsRevoked() {
+		TokenClaims tokenClaims = tokenClaims("jti", Instant.now(Clock.systemUTC()).plusSeconds(60));
+
+		when(mockRevokedTokenRepository.findByExpiresAtAfter(any(Instant.class))).thenReturn(List.of(
+				RevokedToken.builder()
+						.tokenId("jti")
+						.expiresAt(tokenClaims.getExpiration())
+						.build()));
+
+		target.loadRevokedTokens();
+
+		assertTrue(target.isRevoked(tokenClaims));
+	}
+
+	@Test
+	void reloadRevokedTokens_TokenRevokedOnAnotherNode_TokenIsRevoked() {
+		TokenClaims tokenClaims = tokenClaims("jti", Instant.now(Clock.systemUTC()).plusSeconds(60));
+		when(mockRevokedTokenRepository.findByExpiresAtAfter(any(Instant.class))).thenReturn(List.of());
+		when(mockRevokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(any(Instant.class), any(Instant.class)))
+				.thenReturn(List.of(RevokedToken.builder()
+						.tokenId("jti")
+						.expiresAt(tokenClaims.getExpiration())
+						.revokedAt(Instant.now(Clock.systemUTC()))
+						.build()));
+		target.loadRevokedTokens();
+		assertFalse(target.isRevoked(tokenClaims));
+
+		target.reloadRevokedTokens();
+
+		assertTrue(target.isRevoked(tokenClaims));
+		verify(mockRevokedTokenRepository, times(1)).findByExpiresAtAfter(any(Instant.class));
+	}
+
+	private TokenClaims tokenClaims(String tokenId, Instant expiration) {
+		return TokenClaims.builder()
+				.tokenId(tokenId)
+				.subject("1")
+				.issuedAt(Instant.now(Clock.systemUTC()))
+				.expiration(expiration)
+				.extraClaims(Map.of())
+				.build();
+	}
+}
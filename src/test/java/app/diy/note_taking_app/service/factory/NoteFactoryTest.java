@@ -1,26 +1,28 @@
 package app.diy.note_taking_app.service.factory;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.Mockito.when;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
-import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import app.diy.note_taking_app.domain.dto.UserAuthorization;
-import app.diy.note_taking_app.domain.dto.request.NoteUpdateRequest;
+import app.diy.note_taking_app.constant.NoteEditType;
+import app.diy.note_taking_app.domain.dto.NoteView;
+import app.diy.note_taking_app.domain.dto.PreviewNoteRow;
+import app.diy.note_taking_app.domain.dto.request.NoteEditOperation;
 import app.diy.note_taking_app.domain.dto.response.NoteDetailResponse;
 import app.diy.note_taking_app.domain.dto.response.PreviewNoteResponse;
 import app.diy.note_taking_app.domain.entity.Note;
 import app.diy.note_taking_app.domain.entity.User;
 import app.diy.note_taking_app.domain.entity.UserPermission;
-import app.diy.note_taking_app.repository.UserPermissionRepository;
+import app.diy.note_taking_app.exceptions.InvalidNotePatchException;
 
 @ExtendWith(MockitoExtension.class)
 public class NoteFactoryTest {
@@ -28,31 +30,20 @@ public class NoteFactoryTest {
 	@InjectMocks
 	private NoteFactory target;
 
-	@Mock
-	private UserPermissionRepository mockUserPermissionRepository;
-
 	@Test
 	void createPreviewNoteResponseList_ActiveNote_UserIsAuthor() {
 		Integer userId = 1;
-		Note note = Note.builder()
-				.id(1)
-				.title("Title 1")
-				.contents("First note")
-				.deletedFlag(false)
-				.createdAt(LocalDateTime.of(2024, 1, 1, 9, 0))
-				.createdUser(User.builder().id(userId).name("tester").build())
-				.updatedAt(LocalDateTime.of(2024, 1, 2, 9, 0))
-				.updatedUser(User.builder().name("tester").build())
-				.build();
+		PreviewNoteRow note = previewNoteRow(false, userId, false);
 		List<PreviewNoteResponse> expected = List.of(PreviewNoteResponse.builder()
-				.id(note.getId())
-				.title(note.getTitle())
-				.contents(note.getContents())
-				.createdAt(note.getCreatedAt())
-				.createdBy(note.getCreatedUser().getName())
-				.updatedAt(note.getUpdatedAt())
-				.updatedBy(note.getUpdatedUser().getName())
-				.deletedFlag(note.isDeletedFlag())
+				.id(note.id())
+				.title(note.title())
+				.contents(note.contents())
+				.truncated(note.truncated())
+				.createdAt(note.createdAt())
+				.createdBy(note.createdBy())
+				.updatedAt(note.updatedAt())
+				.updatedBy(note.updatedBy())
+				.deletedFlag(note.deletedFlag())
 				.deletableFlag(true)
 				.build());
 
@@ -63,102 +54,30 @@ public class NoteFactoryTest {
 	void createPreviewNoteResponseList_ActiveNote_SharedUserWithReadWritePermission() {
 		Integer createdUserId = 1;
 		Integer sharedUserId = 999;
-		Note note = Note.builder()
-				.id(1)
-				.title("Title 1")
-				.contents("First note")
-				.deletedFlag(false)
-				.createdAt(LocalDateTime.of(2024, 1, 1, 9, 0))
-				.createdUser(User.builder().id(createdUserId).name("tester").build())
-				.updatedAt(LocalDateTime.of(2024, 1, 2, 9, 0))
-				.updatedUser(User.builder().name("tester").build())
-				.build();
-		List<PreviewNoteResponse> expected = List.of(PreviewNoteResponse.builder()
-				.id(note.getId())
-				.title(note.getTitle())
-				.contents(note.getContents())
-				.createdAt(note.getCreatedAt())
-				.createdBy(note.getCreatedUser().getName())
-				.updatedAt(note.getUpdatedAt())
-				.updatedBy(note.getUpdatedUser().getName())
-				.deletedFlag(note.isDeletedFlag())
-				.deletableFlag(true)
-				.build());
-
-		when(mockUserPermissionRepository.findByNote_IdAndUser_IdAndDeletedFlagFalseAndAcceptedFlagTrue(note.getId(),
-				sharedUserId))
-				.thenReturn(Optional.ofNullable(UserPermission.builder()
-						.type("{\"readOnly\": false, \"readWrite\": true}")
-						.build()));
+		PreviewNoteRow note = previewNoteRow(false, createdUserId, true);
 
-		assertEquals(expected, target.createPreviewNoteResponseList(List.of(note), sharedUserId));
+		assertTrue(target.createPreviewNoteResponseList(List.of(note), sharedUserId).get(0).isDeletableFlag());
 	}
 
 	@Test
 	void createPreviewNoteResponseList_DeletedNote() {
 		Integer userId = 1;
-		Note note = Note.builder()
-				.id(1)
-				.title("Title 1")
-				.contents("First note")
-				.deletedFlag(true)
-				.createdAt(LocalDateTime.of(2024, 1, 1, 9, 0))
-				.createdUser(User.builder().id(userId).name("tester").build())
-				.updatedAt(LocalDateTime.of(2024, 1, 2, 9, 0))
-				.updatedUser(User.builder().name("tester").build())
-				.build();
-		List<PreviewNoteResponse> expected = List.of(PreviewNoteResponse.builder()
-				.id(note.getId())
-				.title(note.getTitle())
-				.contents(note.getContents())
-				.createdAt(note.getCreatedAt())
-				.createdBy(note.getCreatedUser().getName())
-				.updatedAt(note.getUpdatedAt())
-				.updatedBy(note.getUpdatedUser().getName())
-				.deletedFlag(note.isDeletedFlag())
-				.deletableFlag(false)
-				.build());
+		PreviewNoteRow note = previewNoteRow(true, userId, false);
 
-		assertEquals(expected, target.createPreviewNoteResponseList(List.of(note), userId));
+		assertFalse(target.createPreviewNoteResponseList(List.of(note), userId).get(0).isDeletableFlag());
 	}
 
 	@Test
 	void createPreviewNoteResponseList_ActiveNote_SharedUserWithReadOnlyPermission() {
 		Integer createdUserId = 1;
 		Integer sharedUserId = 999;
-		Note note = Note.builder()
-				.id(1)
-				.title("Title 1")
-				.contents("First note")
-				.deletedFlag(false)
-				.createdAt(LocalDateTime.of(2024, 1, 1, 9, 0))
-				.createdUser(User.builder().id(createdUserId).name("tester").build())
-				.updatedAt(LocalDateTime.of(2024, 1, 2, 9, 0))
-				.updatedUser(User.builder().name("tester").build())
-				.build();
-		List<PreviewNoteResponse> expected = List.of(PreviewNoteResponse.builder()
-				.id(note.getId())
-				.title(note.getTitle())
-				.contents(note.getContents())
-				.createdAt(note.getCreatedAt())
-				.createdBy(note.getCreatedUser().getName())
-				.updatedAt(note.getUpdatedAt())
-				.updatedBy(note.getUpdatedUser().getName())
-				.deletedFlag(note.isDeletedFlag())
-				.deletableFlag(false)
-				.build());
-
-		when(mockUserPermissionRepository.findByNote_IdAndUser_IdAndDeletedFlagFalseAndAcceptedFlagTrue(note.getId(),
-				sharedUserId))
-				.thenReturn(Optional.ofNullable(UserPermission.builder()
-						.type("{\"readOnly\": true, \"readWrite\": false}")
-						.build()));
+		PreviewNoteRow note = previewNoteRow(false, createdUserId, false);
 
-		assertEquals(expected, target.createPreviewNoteResponseList(List.of(note), sharedUserId));
+		assertFalse(target.createPreviewNoteResponseList(List.of(note), sharedUserId).get(0).isDeletableFlag());
 	}
 
 	@Test
-	void createNoteDetailResponse_ThreeArgs_UserIsAuthor() {
+	void createNoteDetailResponse_TwoArgs_UserIsAuthor() {
 		Integer createdUserId = 1;
 		Note note = Note.builder()
 				.id(1)
@@ -183,40 +102,28 @@ public class NoteFactoryTest {
 				.deletedFlag(note.isDeletedFlag())
 				.build();
 
-		assertEquals(expected, target.createNoteDetailResponse(note, List.of(), createdUserId));
+		assertEquals(expected, target.createNoteDetailResponse(note, createdUserId));
 	}
 
 	@Test
-	void createNoteDetailResponse_ThreeArgs_UserIsSharedUser_EmptyPermission() {
-		Integer createdUserId = 1;
+	void createNoteDetailResponse_TwoArgs_UserIsAuthorWithIdOutOfIntegerCache() {
+		// equal ids above 127 are different Integer instances
 		Note note = Note.builder()
 				.id(1)
 				.title("Title 1")
 				.contents("First note")
 				.deletedFlag(false)
 				.createdAt(LocalDateTime.of(2024, 1, 1, 9, 0))
-				.createdUser(User.builder().id(createdUserId).name("tester").build())
+				.createdUser(User.builder().id(Integer.valueOf(1000)).name("tester").build())
 				.updatedAt(LocalDateTime.of(2024, 1, 2, 9, 0))
 				.updatedUser(User.builder().name("tester").build())
 				.build();
-		NoteDetailResponse expected = NoteDetailResponse.builder()
-				.id(note.getId())
-				.title(note.getTitle())
-				.contents(note.getContents())
-				.userIsAuthor(false)
-				.sharedUsers(List.of())
-				.createdAt(note.getCreatedAt())
-				.createdBy(note.getCreatedUser().getName())
-				.updatedAt(note.getUpdatedAt())
-				.updatedBy(note.getUpdatedUser().getName())
-				.deletedFlag(note.isDeletedFlag())
-				.build();
 
-		assertEquals(expected, target.createNoteDetailResponse(note, List.of(), 2));
+		assertTrue(target.createNoteDetailResponse(note, Integer.valueOf(1000)).isUserIsAuthor());
 	}
 
 	@Test
-	void createNoteDetailResponse_ThreeArgs_UserIsSharedUser_WithPermission() {
+	void createNoteDetailResponse_TwoArgs_UserIsSharedUser() {
 		Integer createdUserId = 1;
 		Note note = Note.builder()
 				.id(1)
@@ -228,22 +135,12 @@ public class NoteFactoryTest {
 				.updatedAt(LocalDateTime.of(2024, 1, 2, 9, 0))
 				.updatedUser(User.builder().name("tester").build())
 				.build();
-		UserPermission userPermission = UserPermission.builder()
-				.id(100)
-				.user(User.builder().id(2).build())
-				.type("{\"readOnly\": false, \"readWrite\": true}")
-				.build();
-		UserAuthorization userAuthorization = UserAuthorization.builder()
-				.permissionId(userPermission.getId())
-				.userId(userPermission.getUser().getId())
-				.type(userPermission.toPermissionType())
-				.build();
 		NoteDetailResponse expected = NoteDetailResponse.builder()
 				.id(note.getId())
 				.title(note.getTitle())
 				.contents(note.getContents())
 				.userIsAuthor(false)
-				.sharedUsers(List.of(userAuthorization))
+				.sharedUsers(List.of())
 				.createdAt(note.getCreatedAt())
 				.createdBy(note.getCreatedUser().getName())
 				.updatedAt(note.getUpdatedAt())
@@ -251,67 +148,76 @@ public class NoteFactoryTest {
 				.deletedFlag(note.isDeletedFlag())
 				.build();
 
-		assertEquals(expected, target.createNoteDetailResponse(note, List.of(userPermission), 2));
+		assertEquals(expected, target.createNoteDetailResponse(note, 2));
 	}
 
 	@Test
-	void createNoteDetailResponse_TwoArgs_UserIsAuthor() {
-		Integer createdUserId = 1;
-		Note note = Note.builder()
-				.id(1)
-				.title("Title 1")
-				.contents("First note")
-				.deletedFlag(false)
-				.createdAt(LocalDateTime.of(2024, 1, 1, 9, 0))
-				.createdUser(User.builder().id(createdUserId).name("tester").build())
-				.updatedAt(LocalDateTime.of(2024, 1, 2, 9, 0))
-				.updatedUser(User.builder().name("tester").build())
-				.build();
+	void createNoteDetailResponse_NoteView_UserIsAuthor() {
+		NoteView note = noteView();
 		NoteDetailResponse expected = NoteDetailResponse.builder()
-				.id(note.getId())
-				.title(note.getTitle())
-				.contents(note.getContents())
+				.id(note.id())
+				.title(note.title())
+				.contents(note.contents())
 				.userIsAuthor(true)
 				.sharedUsers(List.of())
-				.createdAt(note.getCreatedAt())
-				.createdBy(note.getCreatedUser().getName())
-				.updatedAt(note.getUpdatedAt())
-				.updatedBy(note.getUpdatedUser().getName())
-				.deletedFlag(note.isDeletedFlag())
+				.createdAt(note.createdAt())
+				.createdBy(note.createdBy())
+				.updatedAt(note.updatedAt())
+				.updatedBy(note.updatedBy())
+				.deletedFlag(note.deletedFlag())
 				.build();
 
-		assertEquals(expected, target.createNoteDetailResponse(note, createdUserId));
+		assertEquals(expected, target.createNoteDetailResponse(note, 1));
 	}
 
 	@Test
-	void createNoteDetailResponse_TwoArgs_UserIsSharedUser() {
-		Integer createdUserId = 1;
-		Note note = Note.builder()
-				.id(1)
-				.title("Title 1")
-				.contents("First note")
-				.deletedFlag(false)
-				.createdAt(LocalDateTime.of(2024, 1, 1, 9, 0))
-				.createdUser(User.builder().id(createdUserId).name("tester").build())
-				.updatedAt(LocalDateTime.of(2024, 1, 2, 9, 0))
-				.updatedUser(User.builder().name("tester").build())
-				.build();
+	void createNoteDetailResponse_NoteView_UserIsSharedUser() {
+		NoteView note = noteView();
 		NoteDetailResponse expected = NoteDetailResponse.builder()
-				.id(note.getId())
-				.title(note.getTitle())
-				.contents(note.getContents())
+				.id(note.id())
+				.title(note.title())
+				.contents(note.contents())
 				.userIsAuthor(false)
-				.sharedUsers(List.of())
-				.createdAt(note.getCreatedAt())
-				.createdBy(note.getCreatedUser().getName())
-				.updatedAt(note.getUpdatedAt())
-				.updatedBy(note.getUpdatedUser().getName())
-				.deletedFlag(note.isDeletedFlag())
+				.sharedUsers(note.sharedUsers())
+				.createdAt(note.createdAt())
+				.createdBy(note.createdBy())
+				.updatedAt(note.updatedAt())
+				.updatedBy(note.updatedBy())
+				.deletedFlag(note.deletedFlag())
 				.build();
 
 		assertEquals(expected, target.createNoteDetailResponse(note, 2));
 	}
 
+	@Test
+	void patchContents_InsertAndDelete_ApplyInOrder() {
+		List<NoteEditOperation> operations = List.of(
+				NoteEditOperation.builder().type(NoteEditType.DELETE).position(6).length(5).build(),
+				NoteEditOperation.builder().type(NoteEditType.INSERT).position(6).text("note").build(),
+				NoteEditOperation.builder().type(NoteEditType.INSERT).position(10).text("!").build());
+
+		assertEquals("First note!", target.patchContents("First draft", operations));
+	}
+
+	@Test
+	void patchContents_PositionOutOfContents_ThrowInvalidNotePatchException() {
+		assertThrows(InvalidNotePatchException.class, () -> target.patchContents("First", List.of(
+				NoteEditOperation.builder().type(NoteEditType.INSERT).position(6).text("!").build())));
+		assertThrows(InvalidNotePatchException.class, () -> target.patchContents("First", List.of(
+				NoteEditOperation.builder().type(NoteEditType.DELETE).position(3).length(3).build())));
+		assertThrows(InvalidNotePatchException.class, () -> target.patchContents("First", List.of(
+				NoteEditOperation.builder().type(NoteEditType.INSERT).position(0).build())));
+	}
+
+	@Test
+	void patchContents_TooLongContents_ThrowInvalidNotePatchException() {
+		List<NoteEditOperation> operations = List.of(
+				NoteEditOperation.builder().type(NoteEditType.INSERT).position(0).text("a").build());
+
+		assertEquals(65535, target.patchContents("a".repeat(65534), operations).length());
+		assertThrows(InvalidNotePatchException.class, () -> target.patchContents("a".repeat(65535), operations));
+	}
+
 	@Test
 	void createNote_ReturnNote() {
 		User user = User.builder().id(1).name("tester").build();
@@ -325,21 +231,37 @@ public class NoteFactoryTest {
 		assertEquals(expected, target.createNote(user));
 	}
 
-	@Test
-	void updateNote_ReturnNote() {
-		Integer noteId = 100;
-		User user = User.builder().id(1).name("tester").build();
-		NoteUpdateRequest noteUpdateRequest = NoteUpdateRequest.builder()
-				.title("Test title")
-				.contents("updateNote test")
-				.build();
-		Note expected = Note.builder()
-				.id(noteId)
-				.title(noteUpdateRequest.getTitle())
-				.contents(noteUpdateRequest.getContents())
-				.updatedUser(user)
-				.build();
+	private PreviewNoteRow previewNoteRow(boolean deletedFlag, Integer createdUserId, boolean readWrite) {
+		return new PreviewNoteRow(
+				1,
+				"Title 1",
+				"First note",
+				false,
+				LocalDateTime.of(2024, 1, 1, 9, 0),
+				createdUserId,
+				"tester",
+				LocalDateTime.of(2024, 1, 2, 9, 0),
+				"tester",
+				deletedFlag,
+				readWrite);
+	}
 
-		assertEquals(expected, target.updateNote(noteId, noteUpdateRequest, user));
+	private NoteView noteView() {
+		return NoteView.of(
+				Note.builder()
+						.id(1)
+						.title("Title 1")
+						.contents("First note")
+						.deletedFlag(false)
+						.createdAt(LocalDateTime.of(2024, 1, 1, 9, 0))
+						.createdUser(User.builder().id(1).name("tester").build())
+						.updatedAt(LocalDateTime.of(2024, 1, 2, 9, 0))
+						.updatedUser(User.builder().name("tester").build())
+						.build(),
+				List.of(UserPermission.builder()
+						.id(100)
+						.user(User.builder().id(2).build())
+						.type("{\"readOnly\": false, \"readWrite\": true}")
+						.build()));
 	}
 }